@@ -43,6 +43,8 @@ class ApiEndpoints {
   // Comment endpoints
   static String comments(String postId) => '/api/posts/$postId/comments';
   static String addComment(String postId) => '/api/posts/$postId/comments';
+  static String commentReplies(String postId, String commentId) =>
+      '/api/posts/$postId/comments/$commentId/replies';
   static String deleteComment(String postId, String commentId) => 
       '/api/posts/$postId/comments/$commentId';
   
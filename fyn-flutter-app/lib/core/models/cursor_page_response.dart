@@ -0,0 +1,41 @@
+/// One page of a keyset-paginated list. Pass [nextCursor] back as the `cursor`
+/// query parameter to load the following page; it is null on the last page.
+class CursorPageResponse<T> {
+  final List<T> content;
+  final int size;
+  final String? nextCursor;
+  final bool hasNext;
+
+  CursorPageResponse({
+    required this.content,
+    required this.size,
+    this.nextCursor,
+    required this.hasNext,
+  });
+
+  factory CursorPageResponse.fromJson(
+    Map<String, dynamic> json,
+    T Function(dynamic) fromJsonT,
+  ) {
+    return CursorPageResponse(
+      content: (json['content'] as List<dynamic>?)
+              ?.map((e) => fromJsonT(e))
+              .toList() ??
+          [],
+      size: json['size'] ?? 0,
+      nextCursor: json['nextCursor'] as String?,
+      hasNext: json['hasNext'] ?? false,
+    );
+  }
+
+  Map<String, dynamic> toJson() {
+    return {
+      'content': content,
+      'size': size,
+      'nextCursor': nextCursor,
+      'hasNext': hasNext,
+    };
+  }
+
+  bool get hasNextPage => hasNext && nextCursor != null;
+}
@@ -1,3 +1,4 @@
+import '../../../../core/models/cursor_page_response.dart';
 import '../../../../core/network/api_client.dart';
 import '../models/date_model.dart';
 import '../models/match_model.dart';
@@ -42,20 +43,20 @@ class DateRepository {
     }
   }
 
-  /// Get public dates for browsing
-  Future<List<DateModel>> getPublicDates({
+  /// Get public dates for browsing; pass the previous page's nextCursor as [cursor]
+  Future<CursorPageResponse<DateModel>> getPublicDates({
     String? placeType,
     String? connectionType,
     double? lat,
     double? lng,
     double? radiusKm,
-    int page = 0,
+    String? cursor,
     int size = 20,
   }) async {
     try {
       final queryParams = {
-        'page': page.toString(),
         'size': size.toString(),
+        if (cursor != null) 'cursor': cursor,
         if (placeType != null) 'placeType': placeType,
         if (connectionType != null) 'type': connectionType,
         if (lat != null) 'lat': lat.toString(),
@@ -67,8 +68,10 @@ class DateRepository {
         queryParameters: queryParams,
       );
       final data = response.data;
-      final List<dynamic> content = data['data']?['content'] ?? data['content'] ?? [];
-      return content.map((json) => DateModel.fromJson(json)).toList();
+      return CursorPageResponse<DateModel>.fromJson(
+        data['data'] ?? data,
+        (json) => DateModel.fromJson(json),
+      );
     } catch (e) {
       throw Exception('Failed to load public dates: $e');
     }
@@ -14,6 +14,8 @@ final dateRepositoryProvider = Provider<DateRepository>((ref) {
 class PublicDatesState {
   final List<DateModel> dates;
   final bool isLoading;
+  final bool isLoadingMore;
+  final String? nextCursor;
   final String? error;
   final String? placeTypeFilter;
   final ConnectionType? connectionTypeFilter;
@@ -21,14 +23,21 @@ class PublicDatesState {
   const PublicDatesState({
     this.dates = const [],
     this.isLoading = false,
+    this.isLoadingMore = false,
+    this.nextCursor,
     this.error,
     this.placeTypeFilter,
     this.connectionTypeFilter,
   });
 
+  bool get hasMore => nextCursor != null;
+
   PublicDatesState copyWith({
     List<DateModel>? dates,
     bool? isLoading,
+    bool? isLoadingMore,
+    String? nextCursor,
+    bool clearNextCursor = false,
     String? error,
     String? placeTypeFilter,
     ConnectionType? connectionTypeFilter,
@@ -37,6 +46,8 @@ class PublicDatesState {
     return PublicDatesState(
       dates: dates ?? this.dates,
       isLoading: isLoading ?? this.isLoading,
+      isLoadingMore: isLoadingMore ?? this.isLoadingMore,
+      nextCursor: clearNextCursor ? null : (nextCursor ?? this.nextCursor),
       error: clearError ? null : (error ?? this.error),
       placeTypeFilter: placeTypeFilter ?? this.placeTypeFilter,
       connectionTypeFilter: connectionTypeFilter ?? this.connectionTypeFilter,
@@ -64,15 +75,17 @@ class PublicDatesNotifier extends StateNotifier<PublicDatesState> {
       connectionTypeFilter: connectionType,
     );
     try {
-      final dates = await _repository.getPublicDates(
+      final page = await _repository.getPublicDates(
         placeType: placeType,
         connectionType: connectionType?.value,
         lat: lat,
         lng: lng,
       );
       state = state.copyWith(
-        dates: dates,
+        dates: page.content,
         isLoading: false,
+        nextCursor: page.nextCursor,
+        clearNextCursor: page.nextCursor == null,
       );
     } catch (e) {
       state = state.copyWith(
@@ -82,6 +95,30 @@ class PublicDatesNotifier extends StateNotifier<PublicDatesState> {
     }
   }
 
+  /// Load the page after the last one loaded, keeping the current filters
+  Future<void> loadMore() async {
+    if (!state.hasMore || state.isLoading || state.isLoadingMore) return;
+    state = state.copyWith(isLoadingMore: true, clearError: true);
+    try {
+      final page = await _repository.getPublicDates(
+        placeType: state.placeTypeFilter,
+        connectionType: state.connectionTypeFilter?.value,
+        cursor: state.nextCursor,
+      );
+      state = state.copyWith(
+        dates: [...state.dates, ...page.content],
+        isLoadingMore: false,
+        nextCursor: page.nextCursor,
+        clearNextCursor: page.nextCursor == null,
+      );
+    } catch (e) {
+      state = state.copyWith(
+        isLoadingMore: false,
+        error: e.toString(),
+      );
+    }
+  }
+
   /// Refresh dates
   Future<void> refresh() => loadDates(
     placeType: state.placeTypeFilter,
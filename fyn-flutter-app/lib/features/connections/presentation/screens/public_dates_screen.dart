@@ -117,20 +117,34 @@ class _PublicDatesScreenState extends ConsumerState<PublicDatesScreen> {
 
     return RefreshIndicator(
       onRefresh: () => ref.read(publicDatesProvider.notifier).refresh(),
-      child: ListView.builder(
-        padding: const EdgeInsets.all(16),
-        itemCount: state.dates.length,
-        itemBuilder: (context, index) {
-          final date = state.dates[index];
-          return Padding(
-            padding: const EdgeInsets.only(bottom: 12),
-            child: DateCard(
-              date: date,
-              onTap: () => _showDateDetails(date),
-              onPropose: () => _showProposalSheet(date),
-            ),
-          );
+      child: NotificationListener<ScrollNotification>(
+        onNotification: (notification) {
+          if (notification.metrics.extentAfter < 300) {
+            ref.read(publicDatesProvider.notifier).loadMore();
+          }
+          return false;
         },
+        child: ListView.builder(
+          padding: const EdgeInsets.all(16),
+          itemCount: state.dates.length + (state.isLoadingMore ? 1 : 0),
+          itemBuilder: (context, index) {
+            if (index >= state.dates.length) {
+              return const Padding(
+                padding: EdgeInsets.symmetric(vertical: 16),
+                child: Center(child: CircularProgressIndicator()),
+              );
+            }
+            final date = state.dates[index];
+            return Padding(
+              padding: const EdgeInsets.only(bottom: 12),
+              child: DateCard(
+                date: date,
+                onTap: () => _showDateDetails(date),
+                onPropose: () => _showProposalSheet(date),
+              ),
+            );
+          },
+        ),
       ),
     );
   }
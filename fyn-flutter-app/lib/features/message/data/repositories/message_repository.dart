@@ -4,7 +4,7 @@ import 'package:image_picker/image_picker.dart';
 import 'package:flutter/foundation.dart' show kIsWeb;
 import 'package:http_parser/http_parser.dart';
 import '../../../../core/models/api_response.dart';
-import '../../../../core/models/page_response.dart';
+import '../../../../core/models/cursor_page_response.dart';
 import '../../../../core/network/api_client.dart';
 import '../../../../config/api_config.dart';
 import '../models/conversation_model.dart';
@@ -89,23 +89,23 @@ class MessageRepository {
   }
 
   /// Lấy danh sách messages trong conversation
-  Future<PageResponse<MessageModel>> getMessages(
+  Future<CursorPageResponse<MessageModel>> getMessages(
     String conversationId, {
-    int page = 0,
+    String? cursor,
     int size = 50,
   }) async {
     try {
       final response = await _apiClient.get(
         ApiEndpoints.conversationMessages(conversationId),
-        queryParameters: {'page': page, 'size': size},
+        queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
       );
 
       final apiResponse =
-          ApiResponse<PageResponse<MessageModel>>.fromJson(
+          ApiResponse<CursorPageResponse<MessageModel>>.fromJson(
         response.data,
         (data) {
           if (data is Map<String, dynamic>) {
-            return PageResponse<MessageModel>.fromJson(
+            return CursorPageResponse<MessageModel>.fromJson(
               data,
               (item) => MessageModel.fromJson(
                 item as Map<String, dynamic>,
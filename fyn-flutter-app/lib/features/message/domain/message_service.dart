@@ -4,7 +4,7 @@ import '../data/models/message_model.dart';
 import '../data/models/create_conversation_request.dart';
 import '../data/models/send_message_request.dart';
 import 'package:image_picker/image_picker.dart';
-import '../../../core/models/page_response.dart';
+import '../../../core/models/cursor_page_response.dart';
 
 class MessageService {
   final MessageRepository _repository;
@@ -24,12 +24,12 @@ class MessageService {
   }
 
   /// Lấy danh sách messages
-  Future<PageResponse<MessageModel>> getMessages(
+  Future<CursorPageResponse<MessageModel>> getMessages(
     String conversationId, {
-    int page = 0,
+    String? cursor,
     int size = 50,
   }) async {
-    return await _repository.getMessages(conversationId, page: page, size: size);
+    return await _repository.getMessages(conversationId, cursor: cursor, size: size);
   }
 
   /// Gửi tin nhắn
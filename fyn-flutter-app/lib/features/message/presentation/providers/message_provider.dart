@@ -142,7 +142,7 @@ class MessageNotifier extends StateNotifier<MessageState> {
   final MessageService _service;
   final String _conversationId;
   Timer? _pollingTimer;
-  int _currentPage = 0;
+  String? _nextCursor;
   static const int _pageSize = 50;
 
   MessageNotifier(this._service, this._conversationId)
@@ -156,7 +156,7 @@ class MessageNotifier extends StateNotifier<MessageState> {
 
     if (reset) {
       state = state.copyWith(isLoading: true, clearError: true);
-      _currentPage = 0;
+      _nextCursor = null;
     } else {
       if (!state.hasMore) return;
       state = state.copyWith(isLoadingMore: true, clearError: true);
@@ -165,7 +165,7 @@ class MessageNotifier extends StateNotifier<MessageState> {
     try {
       final page = await _service.getMessages(
         _conversationId,
-        page: _currentPage,
+        cursor: _nextCursor,
         size: _pageSize,
       );
 
@@ -196,7 +196,7 @@ class MessageNotifier extends StateNotifier<MessageState> {
         clearError: true,
       );
 
-      _currentPage++;
+      _nextCursor = page.nextCursor;
     } catch (e) {
       state = state.copyWith(
         isLoading: false,
@@ -258,7 +258,6 @@ class MessageNotifier extends StateNotifier<MessageState> {
     try {
       final page = await _service.getMessages(
         _conversationId,
-        page: 0,
         size: 10,
       );
 
@@ -2,7 +2,7 @@ import 'package:dio/dio.dart';
 
 import '../../../../config/api_config.dart';
 import '../../../../core/models/api_response.dart';
-import '../../../../core/models/page_response.dart';
+import '../../../../core/models/cursor_page_response.dart';
 import '../../../../core/network/api_client.dart';
 import '../models/notification_model.dart';
 
@@ -11,18 +11,18 @@ class NotificationRepository {
 
   NotificationRepository(this._apiClient);
 
-  Future<PageResponse<NotificationModel>> getNotifications({
-    int page = 0,
+  Future<CursorPageResponse<NotificationModel>> getNotifications({
+    String? cursor,
     int size = 20,
   }) async {
     final response = await _apiClient.get(
       ApiEndpoints.notifications,
-      queryParameters: {'page': page, 'size': size},
+      queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
     );
 
-    final apiResponse = ApiResponse<PageResponse<NotificationModel>>.fromJson(
+    final apiResponse = ApiResponse<CursorPageResponse<NotificationModel>>.fromJson(
       response.data,
-      (data) => PageResponse.fromJson(
+      (data) => CursorPageResponse.fromJson(
         data as Map<String, dynamic>,
         (item) => NotificationModel.fromJson(item as Map<String, dynamic>),
       ),
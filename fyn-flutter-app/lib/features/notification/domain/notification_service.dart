@@ -1,17 +1,17 @@
 import '../../notification/data/models/notification_model.dart';
 import '../../notification/data/repositories/notification_repository.dart';
-import '../../../core/models/page_response.dart';
+import '../../../core/models/cursor_page_response.dart';
 
 class NotificationService {
   final NotificationRepository _repository;
 
   NotificationService(this._repository);
 
-  Future<PageResponse<NotificationModel>> getNotifications({
-    int page = 0,
+  Future<CursorPageResponse<NotificationModel>> getNotifications({
+    String? cursor,
     int size = 20,
   }) {
-    return _repository.getNotifications(page: page, size: size);
+    return _repository.getNotifications(cursor: cursor, size: size);
   }
 
   Future<void> markAsRead(String notificationId) {
@@ -59,7 +59,7 @@ class NotificationNotifier extends StateNotifier<NotificationState> {
 
   final NotificationService _service;
   static const int _pageSize = 20;
-  int _currentPage = 0;
+  String? _nextCursor;
   bool _initialized = false;
   Timer? _pollingTimer;
 
@@ -94,12 +94,8 @@ class NotificationNotifier extends StateNotifier<NotificationState> {
       clearError: true,
     );
     try {
-      _currentPage = 0;
-      final page = await _service.getNotifications(
-        page: _currentPage,
-        size: _pageSize,
-      );
-      _currentPage += 1;
+      final page = await _service.getNotifications(size: _pageSize);
+      _nextCursor = page.nextCursor;
       state = state.copyWith(
         notifications: page.content,
         isLoading: false,
@@ -120,10 +116,10 @@ class NotificationNotifier extends StateNotifier<NotificationState> {
     state = state.copyWith(isLoadingMore: true, clearError: true);
     try {
       final page = await _service.getNotifications(
-        page: _currentPage,
+        cursor: _nextCursor,
         size: _pageSize,
       );
-      _currentPage += 1;
+      _nextCursor = page.nextCursor;
       state = state.copyWith(
         notifications: [...state.notifications, ...page.content],
         isLoadingMore: false,
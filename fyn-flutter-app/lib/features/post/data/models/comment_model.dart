@@ -7,6 +7,11 @@ class CommentModel {
   final UserResponse author;
   final String content;
   final DateTime? createdAt;
+  final int replyCount;
+
+  /// Replies loaded so far, oldest first. The server inlines the first few;
+  /// the rest are paged in with `getReplies`.
+  final List<CommentModel> replies;
 
   CommentModel({
     required this.id,
@@ -14,8 +19,27 @@ class CommentModel {
     required this.author,
     required this.content,
     required this.createdAt,
+    this.replyCount = 0,
+    this.replies = const [],
   });
 
+  bool get hasMoreReplies => replyCount > replies.length;
+
+  CommentModel copyWith({
+    int? replyCount,
+    List<CommentModel>? replies,
+  }) {
+    return CommentModel(
+      id: id,
+      parentId: parentId,
+      author: author,
+      content: content,
+      createdAt: createdAt,
+      replyCount: replyCount ?? this.replyCount,
+      replies: replies ?? this.replies,
+    );
+  }
+
   factory CommentModel.fromJson(Map<String, dynamic> json) {
     return CommentModel(
       id: json['id'] as String,
@@ -23,6 +47,11 @@ class CommentModel {
       author: UserResponse.fromJson(json['author'] as Map<String, dynamic>),
       content: json['content'] as String? ?? '',
       createdAt: DateUtils.parseIso8601(json['createdAt'] as String?),
+      replyCount: (json['replyCount'] as num?)?.toInt() ?? 0,
+      replies: (json['replies'] as List<dynamic>?)
+              ?.map((e) => CommentModel.fromJson(e as Map<String, dynamic>))
+              .toList() ??
+          const [],
     );
   }
 }
@@ -7,7 +7,7 @@ import 'package:image_picker/image_picker.dart';
 
 import '../../../../config/api_config.dart';
 import '../../../../core/models/api_response.dart';
-import '../../../../core/models/page_response.dart';
+import '../../../../core/models/cursor_page_response.dart';
 import '../../../../core/network/api_client.dart';
 import '../models/create_post_request.dart';
 import '../models/create_comment_request.dart';
@@ -20,15 +20,18 @@ class PostRepository {
 
   PostRepository(this._apiClient);
 
-  Future<PageResponse<PostModel>> getFeed({int page = 0, int size = 10}) async {
+  Future<CursorPageResponse<PostModel>> getFeed({
+    String? cursor,
+    int size = 10,
+  }) async {
     final response = await _apiClient.get(
       ApiEndpoints.feed,
-      queryParameters: {'page': page, 'size': size},
+      queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
     );
 
-    final apiResponse = ApiResponse<PageResponse<PostModel>>.fromJson(
+    final apiResponse = ApiResponse<CursorPageResponse<PostModel>>.fromJson(
       response.data,
-      (data) => PageResponse.fromJson(
+      (data) => CursorPageResponse.fromJson(
         data as Map<String, dynamic>,
         (item) => PostModel.fromJson(item as Map<String, dynamic>),
       ),
@@ -45,19 +48,19 @@ class PostRepository {
     return apiResponse.data!;
   }
 
-  Future<PageResponse<PostModel>> getPostsByUser(
+  Future<CursorPageResponse<PostModel>> getPostsByUser(
     String userId, {
-    int page = 0,
+    String? cursor,
     int size = 9,
   }) async {
     final response = await _apiClient.get(
       ApiEndpoints.postsByUser(userId),
-      queryParameters: {'page': page, 'size': size},
+      queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
     );
 
-    final apiResponse = ApiResponse<PageResponse<PostModel>>.fromJson(
+    final apiResponse = ApiResponse<CursorPageResponse<PostModel>>.fromJson(
       response.data,
-      (data) => PageResponse.fromJson(
+      (data) => CursorPageResponse.fromJson(
         data as Map<String, dynamic>,
         (item) => PostModel.fromJson(item as Map<String, dynamic>),
       ),
@@ -159,15 +162,39 @@ class PostRepository {
     return _parseReaction(response);
   }
 
-  Future<List<CommentModel>> getComments(String postId) async {
-    final response = await _apiClient.get(ApiEndpoints.comments(postId));
-    final apiResponse =
-        ApiResponse<List<CommentModel>>.fromJson(response.data, (data) {
-      final list = data as List<dynamic>? ?? [];
-      return list
-          .map((item) => CommentModel.fromJson(item as Map<String, dynamic>))
-          .toList();
-    });
+  Future<CursorPageResponse<CommentModel>> getComments(
+    String postId, {
+    String? cursor,
+    int size = 20,
+  }) async {
+    final response = await _apiClient.get(
+      ApiEndpoints.comments(postId),
+      queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
+    );
+    return _parseCommentPage(response);
+  }
+
+  Future<CursorPageResponse<CommentModel>> getReplies(
+    String postId,
+    String commentId, {
+    String? cursor,
+    int size = 20,
+  }) async {
+    final response = await _apiClient.get(
+      ApiEndpoints.commentReplies(postId, commentId),
+      queryParameters: {'size': size, if (cursor != null) 'cursor': cursor},
+    );
+    return _parseCommentPage(response);
+  }
+
+  CursorPageResponse<CommentModel> _parseCommentPage(Response response) {
+    final apiResponse = ApiResponse<CursorPageResponse<CommentModel>>.fromJson(
+      response.data,
+      (data) => CursorPageResponse.fromJson(
+        data as Map<String, dynamic>,
+        (item) => CommentModel.fromJson(item as Map<String, dynamic>),
+      ),
+    );
 
     if (!apiResponse.success || apiResponse.data == null) {
       throw DioException(
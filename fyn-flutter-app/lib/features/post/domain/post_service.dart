@@ -1,6 +1,6 @@
 import 'package:image_picker/image_picker.dart';
 
-import '../../../core/models/page_response.dart';
+import '../../../core/models/cursor_page_response.dart';
 import '../data/models/create_post_request.dart';
 import '../data/models/create_comment_request.dart';
 import '../data/models/post_model.dart';
@@ -13,16 +13,16 @@ class PostService {
 
   PostService(this._postRepository);
 
-  Future<PageResponse<PostModel>> getFeed({int page = 0, int size = 10}) {
-    return _postRepository.getFeed(page: page, size: size);
+  Future<CursorPageResponse<PostModel>> getFeed({String? cursor, int size = 10}) {
+    return _postRepository.getFeed(cursor: cursor, size: size);
   }
 
-  Future<PageResponse<PostModel>> getPostsByUser(
+  Future<CursorPageResponse<PostModel>> getPostsByUser(
     String userId, {
-    int page = 0,
+    String? cursor,
     int size = 9,
   }) {
-    return _postRepository.getPostsByUser(userId, page: page, size: size);
+    return _postRepository.getPostsByUser(userId, cursor: cursor, size: size);
   }
 
   Future<PostModel> createPost(
@@ -44,8 +44,26 @@ class PostService {
     return _postRepository.unlikePost(postId);
   }
 
-  Future<List<CommentModel>> getComments(String postId) {
-    return _postRepository.getComments(postId);
+  Future<CursorPageResponse<CommentModel>> getComments(
+    String postId, {
+    String? cursor,
+    int size = 20,
+  }) {
+    return _postRepository.getComments(postId, cursor: cursor, size: size);
+  }
+
+  Future<CursorPageResponse<CommentModel>> getReplies(
+    String postId,
+    String commentId, {
+    String? cursor,
+    int size = 20,
+  }) {
+    return _postRepository.getReplies(
+      postId,
+      commentId,
+      cursor: cursor,
+      size: size,
+    );
   }
 
   Future<CommentModel> addComment(String postId, CreateCommentRequest request) {
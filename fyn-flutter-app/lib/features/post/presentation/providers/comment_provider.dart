@@ -9,27 +9,39 @@ import 'reels_provider.dart';
 class CommentState {
   final List<CommentModel> comments;
   final bool isLoading;
+  final bool isLoadingMore;
   final bool isSubmitting;
+  final bool hasMore;
+  final Set<String> loadingReplies;
   final String? error;
 
   const CommentState({
     this.comments = const [],
     this.isLoading = false,
+    this.isLoadingMore = false,
     this.isSubmitting = false,
+    this.hasMore = false,
+    this.loadingReplies = const {},
     this.error,
   });
 
   CommentState copyWith({
     List<CommentModel>? comments,
     bool? isLoading,
+    bool? isLoadingMore,
     bool? isSubmitting,
+    bool? hasMore,
+    Set<String>? loadingReplies,
     String? error,
     bool clearError = false,
   }) {
     return CommentState(
       comments: comments ?? this.comments,
       isLoading: isLoading ?? this.isLoading,
+      isLoadingMore: isLoadingMore ?? this.isLoadingMore,
       isSubmitting: isSubmitting ?? this.isSubmitting,
+      hasMore: hasMore ?? this.hasMore,
+      loadingReplies: loadingReplies ?? this.loadingReplies,
       error: clearError ? null : (error ?? this.error),
     );
   }
@@ -52,14 +64,26 @@ class CommentNotifier extends StateNotifier<CommentState> {
   final Ref _ref;
   final String _postId;
   final String _ownerId;
+  static const int _pageSize = 20;
+
+  String? _nextCursor;
+  // Next reply page per comment; absent until the comment is first expanded,
+  // since the replies inlined with it come without a cursor.
+  final Map<String, String?> _replyCursors = {};
 
   PostService get _service => _ref.read(postServiceProvider);
 
   Future<void> load() async {
     state = state.copyWith(isLoading: true, clearError: true);
     try {
-      final items = await _service.getComments(_postId);
-      state = state.copyWith(comments: items, isLoading: false);
+      final page = await _service.getComments(_postId, size: _pageSize);
+      _nextCursor = page.nextCursor;
+      _replyCursors.clear();
+      state = state.copyWith(
+        comments: page.content,
+        isLoading: false,
+        hasMore: page.hasNextPage,
+      );
     } catch (e) {
       state = state.copyWith(
         isLoading: false,
@@ -68,16 +92,91 @@ class CommentNotifier extends StateNotifier<CommentState> {
     }
   }
 
-  Future<void> addComment(String content) async {
+  Future<void> loadMore() async {
+    if (state.isLoading || state.isLoadingMore || !state.hasMore) return;
+    state = state.copyWith(isLoadingMore: true);
+    try {
+      final page = await _service.getComments(
+        _postId,
+        cursor: _nextCursor,
+        size: _pageSize,
+      );
+      _nextCursor = page.nextCursor;
+      state = state.copyWith(
+        comments: [...state.comments, ...page.content],
+        isLoadingMore: false,
+        hasMore: page.hasNextPage,
+      );
+    } catch (e) {
+      state = state.copyWith(
+        isLoadingMore: false,
+        error: e.toString(),
+      );
+    }
+  }
+
+  /// Loads the next page of replies under a top-level comment. The first call
+  /// starts from the oldest reply and replaces the inlined preview.
+  Future<void> loadReplies(String commentId) async {
+    if (state.loadingReplies.contains(commentId)) return;
+    final expanded = _replyCursors.containsKey(commentId);
+    if (expanded && _replyCursors[commentId] == null) return;
+
+    state = state.copyWith(
+      loadingReplies: {...state.loadingReplies, commentId},
+    );
+    try {
+      final page = await _service.getReplies(
+        _postId,
+        commentId,
+        cursor: _replyCursors[commentId],
+        size: _pageSize,
+      );
+      _replyCursors[commentId] = page.hasNextPage ? page.nextCursor : null;
+      state = state.copyWith(
+        comments: state.comments.map((comment) {
+          if (comment.id != commentId) return comment;
+          final loaded = expanded ? comment.replies : const <CommentModel>[];
+          final seen = loaded.map((reply) => reply.id).toSet();
+          return comment.copyWith(
+            replies: [
+              ...loaded,
+              ...page.content.where((reply) => !seen.contains(reply.id)),
+            ],
+          );
+        }).toList(),
+        loadingReplies: {...state.loadingReplies}..remove(commentId),
+      );
+    } catch (e) {
+      state = state.copyWith(
+        loadingReplies: {...state.loadingReplies}..remove(commentId),
+        error: e.toString(),
+      );
+    }
+  }
+
+  Future<void> addComment(String content, {String? parentCommentId}) async {
     if (content.trim().isEmpty) return;
     state = state.copyWith(isSubmitting: true, clearError: true);
     try {
       final comment = await _service.addComment(
         _postId,
-        CreateCommentRequest(content: content.trim()),
+        CreateCommentRequest(
+          content: content.trim(),
+          parentCommentId: parentCommentId,
+        ),
       );
       state = state.copyWith(
-        comments: [...state.comments, comment],
+        comments: parentCommentId == null
+            ? [...state.comments, comment]
+            : state.comments
+                .map((parent) => parent.id == parentCommentId
+                    ? parent.copyWith(
+                        replyCount: parent.replyCount + 1,
+                        replies: [...parent.replies, comment],
+                      )
+                    : parent)
+                .toList(),
         isSubmitting: false,
       );
       _broadcastCommentDelta(1);
@@ -93,9 +192,18 @@ class CommentNotifier extends StateNotifier<CommentState> {
     state = state.copyWith(clearError: true);
     try {
       await _service.deleteComment(_postId, commentId);
+      _replyCursors.remove(commentId);
       state = state.copyWith(
         comments: state.comments
             .where((comment) => comment.id != commentId)
+            .map((comment) => comment.replies.any((r) => r.id == commentId)
+                ? comment.copyWith(
+                    replyCount: comment.replyCount - 1,
+                    replies: comment.replies
+                        .where((reply) => reply.id != commentId)
+                        .toList(),
+                  )
+                : comment)
             .toList(),
       );
       _broadcastCommentDelta(-1);
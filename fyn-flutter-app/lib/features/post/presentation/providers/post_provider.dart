@@ -58,7 +58,7 @@ class FeedState {
 class FeedNotifier extends StateNotifier<FeedState> {
   final PostService _postService;
   static const int _pageSize = 10;
-  int _currentPage = 0;
+  String? _nextCursor;
   bool _initialized = false;
 
   FeedNotifier(this._postService) : super(const FeedState());
@@ -76,9 +76,8 @@ class FeedNotifier extends StateNotifier<FeedState> {
       clearError: true,
     );
     try {
-      _currentPage = 0;
-      final page = await _postService.getFeed(page: _currentPage, size: _pageSize);
-      _currentPage += 1;
+      final page = await _postService.getFeed(size: _pageSize);
+      _nextCursor = page.nextCursor;
       state = state.copyWith(
         posts: page.content,
         isLoading: false,
@@ -100,8 +99,8 @@ class FeedNotifier extends StateNotifier<FeedState> {
     state = state.copyWith(isLoadingMore: true, clearError: true);
     try {
       final page =
-          await _postService.getFeed(page: _currentPage, size: _pageSize);
-      _currentPage += 1;
+          await _postService.getFeed(cursor: _nextCursor, size: _pageSize);
+      _nextCursor = page.nextCursor;
       state = state.copyWith(
         posts: [...state.posts, ...page.content],
         isLoadingMore: false,
@@ -217,7 +216,7 @@ class UserPostsNotifier extends StateNotifier<UserPostsState> {
 
   final PostService _postService;
   final String userId;
-  int _currentPage = 0;
+  String? _nextCursor;
   static const int _pageSize = 9;
 
   Future<void> loadInitial() async {
@@ -243,7 +242,7 @@ class UserPostsNotifier extends StateNotifier<UserPostsState> {
         isLoadingMore: false,
         clearError: true,
       );
-      _currentPage = 0;
+      _nextCursor = null;
     } else {
       state = state.copyWith(isLoadingMore: true, clearError: true);
     }
@@ -251,10 +250,10 @@ class UserPostsNotifier extends StateNotifier<UserPostsState> {
     try {
       final page = await _postService.getPostsByUser(
         userId,
-        page: _currentPage,
+        cursor: _nextCursor,
         size: _pageSize,
       );
-      _currentPage += 1;
+      _nextCursor = page.nextCursor;
       final posts =
           reset ? page.content : [...state.posts, ...page.content];
       state = state.copyWith(
@@ -54,7 +54,7 @@ class ReelsNotifier extends StateNotifier<ReelsState> {
 
   final PostService _service;
   static const int _pageSize = 20;
-  int _currentPage = 0;
+  String? _nextCursor;
   bool _initialized = false;
 
   Future<void> loadInitial() async {
@@ -70,9 +70,8 @@ class ReelsNotifier extends StateNotifier<ReelsState> {
       clearError: true,
     );
     try {
-      _currentPage = 0;
-      final page = await _service.getFeed(page: _currentPage, size: _pageSize);
-      _currentPage += 1;
+      final page = await _service.getFeed(size: _pageSize);
+      _nextCursor = page.nextCursor;
       
       // Lọc chỉ lấy posts có video
       final videoPosts = page.content.where((post) {
@@ -97,8 +96,8 @@ class ReelsNotifier extends StateNotifier<ReelsState> {
     if (!state.hasMore || state.isLoadingMore || state.isLoading) return;
     state = state.copyWith(isLoadingMore: true, clearError: true);
     try {
-      final page = await _service.getFeed(page: _currentPage, size: _pageSize);
-      _currentPage += 1;
+      final page = await _service.getFeed(cursor: _nextCursor, size: _pageSize);
+      _nextCursor = page.nextCursor;
       
       // Lọc chỉ lấy posts có video
       final videoPosts = page.content.where((post) {
@@ -2,6 +2,7 @@ import 'package:flutter/material.dart';
 import 'package:flutter_riverpod/flutter_riverpod.dart';
 
 import '../../../auth/presentation/providers/auth_provider.dart';
+import '../../data/models/comment_model.dart';
 import '../../data/models/post_model.dart';
 import '../providers/comment_provider.dart';
 
@@ -17,6 +18,7 @@ class PostCommentsSheet extends ConsumerStatefulWidget {
 class _PostCommentsSheetState extends ConsumerState<PostCommentsSheet> {
   late final TextEditingController _controller;
   late final CommentProviderArgs _args;
+  CommentModel? _replyTo;
 
   @override
   void initState() {
@@ -79,87 +81,133 @@ class _PostCommentsSheetState extends ConsumerState<PostCommentsSheet> {
                                   style: const TextStyle(color: Colors.redAccent),
                                 ),
                               )
-                            : ListView.separated(
-                            controller: scrollController,
-                            padding: const EdgeInsets.symmetric(
-                              horizontal: 16,
-                              vertical: 8,
-                            ),
-                            itemCount: state.comments.length,
-                            separatorBuilder: (_, __) =>
-                                const Divider(height: 24),
-                            itemBuilder: (context, index) {
-                              final comment = state.comments[index];
-                              final canDelete =
-                                  authState.user?.id == comment.author.id;
-                              return Row(
-                                crossAxisAlignment: CrossAxisAlignment.start,
-                                children: [
-                                  CircleAvatar(
-                                    radius: 18,
-                                    child: Text(
-                                      comment.author.username
-                                          .substring(0, 1)
-                                          .toUpperCase(),
-                                    ),
+                            : NotificationListener<ScrollNotification>(
+                                onNotification: (notification) {
+                                  if (notification.metrics.extentAfter < 300) {
+                                    ref
+                                        .read(postCommentsProvider(_args)
+                                            .notifier)
+                                        .loadMore();
+                                  }
+                                  return false;
+                                },
+                                child: ListView.separated(
+                                  controller: scrollController,
+                                  padding: const EdgeInsets.symmetric(
+                                    horizontal: 16,
+                                    vertical: 8,
                                   ),
-                                  const SizedBox(width: 12),
-                                  Expanded(
-                                    child: Column(
+                                  itemCount: state.comments.length +
+                                      (state.isLoadingMore ? 1 : 0),
+                                  separatorBuilder: (_, __) =>
+                                      const Divider(height: 24),
+                                  itemBuilder: (context, index) {
+                                    if (index >= state.comments.length) {
+                                      return const Padding(
+                                        padding: EdgeInsets.all(8),
+                                        child: Center(
+                                          child: CircularProgressIndicator(),
+                                        ),
+                                      );
+                                    }
+                                    final comment = state.comments[index];
+                                    return Column(
                                       crossAxisAlignment:
                                           CrossAxisAlignment.start,
                                       children: [
-                                        Row(
-                                          children: [
-                                            Text(
-                                              comment.author.username,
-                                              style: const TextStyle(
-                                                fontWeight: FontWeight.bold,
-                                              ),
-                                            ),
-                                            if (canDelete) ...[
-                                              const SizedBox(width: 8),
-                                              GestureDetector(
-                                                onTap: () => ref
-                                                    .read(postCommentsProvider(
-                                                            _args)
-                                                        .notifier)
-                                                    .deleteComment(
-                                                        comment.id),
-                                                child: const Icon(
-                                                  Icons.delete_outline,
-                                                  size: 16,
-                                                  color: Colors.redAccent,
-                                                ),
-                                              ),
-                                            ],
-                                          ],
+                                        _buildComment(
+                                          comment,
+                                          currentUserId: authState.user?.id,
+                                          onReply: () => setState(
+                                              () => _replyTo = comment),
                                         ),
-                                        const SizedBox(height: 4),
-                                        Text(comment.content),
-                                        if (comment.createdAt != null)
+                                        if (comment.replies.isNotEmpty ||
+                                            comment.hasMoreReplies)
                                           Padding(
-                                            padding:
-                                                const EdgeInsets.only(top: 4),
-                                            child: Text(
-                                              comment.createdAt
-                                                  .toString()
-                                                  .substring(0, 16),
-                                              style: const TextStyle(
-                                                fontSize: 11,
-                                                color: Colors.grey,
-                                              ),
+                                            padding: const EdgeInsets.only(
+                                              left: 48,
+                                              top: 8,
+                                            ),
+                                            child: Column(
+                                              crossAxisAlignment:
+                                                  CrossAxisAlignment.start,
+                                              children: [
+                                                for (final reply
+                                                    in comment.replies)
+                                                  Padding(
+                                                    padding:
+                                                        const EdgeInsets.only(
+                                                      bottom: 8,
+                                                    ),
+                                                    child: _buildComment(
+                                                      reply,
+                                                      currentUserId:
+                                                          authState.user?.id,
+                                                    ),
+                                                  ),
+                                                if (comment.hasMoreReplies)
+                                                  state.loadingReplies
+                                                          .contains(comment.id)
+                                                      ? const SizedBox(
+                                                          width: 16,
+                                                          height: 16,
+                                                          child:
+                                                              CircularProgressIndicator(
+                                                            strokeWidth: 2,
+                                                          ),
+                                                        )
+                                                      : GestureDetector(
+                                                          onTap: () => ref
+                                                              .read(
+                                                                  postCommentsProvider(
+                                                                          _args)
+                                                                      .notifier)
+                                                              .loadReplies(
+                                                                  comment.id),
+                                                          child: Text(
+                                                            'Xem ${comment.replyCount - comment.replies.length} phản hồi',
+                                                            style: TextStyle(
+                                                              fontSize: 12,
+                                                              fontWeight:
+                                                                  FontWeight
+                                                                      .w600,
+                                                              color: Colors
+                                                                  .grey
+                                                                  .shade700,
+                                                            ),
+                                                          ),
+                                                        ),
+                                              ],
                                             ),
                                           ),
                                       ],
-                                    ),
-                                  ),
-                                ],
-                              );
-                            },
-                          ),
+                                    );
+                                  },
+                                ),
+                              ),
                   ),
                   const Divider(height: 1),
+                  if (_replyTo != null)
+                    Padding(
+                      padding: const EdgeInsets.fromLTRB(16, 8, 8, 0),
+                      child: Row(
+                        children: [
+                          Expanded(
+                            child: Text(
+                              'Đang trả lời ${_replyTo!.author.username}',
+                              style: TextStyle(
+                                fontSize: 12,
+                                color: Colors.grey.shade700,
+                              ),
+                            ),
+                          ),
+                          GestureDetector(
+                            onTap: () => setState(() => _replyTo = null),
+                            child: const Icon(Icons.close, size: 16),
+                          ),
+                        ],
+                      ),
+                    ),
                   Padding(
                     padding: const EdgeInsets.symmetric(
                       horizontal: 16,
@@ -193,8 +241,12 @@ class _PostCommentsSheetState extends ConsumerState<PostCommentsSheet> {
                                   await ref
                                       .read(
                                           postCommentsProvider(_args).notifier)
-                                      .addComment(text);
+                                      .addComment(
+                                        text,
+                                        parentCommentId: _replyTo?.id,
+                                      );
                                   _controller.clear();
+                                  setState(() => _replyTo = null);
                                 },
                               ),
                       ],
@@ -208,5 +260,85 @@ class _PostCommentsSheetState extends ConsumerState<PostCommentsSheet> {
       ),
     );
   }
-}
 
+  Widget _buildComment(
+    CommentModel comment, {
+    String? currentUserId,
+    VoidCallback? onReply,
+  }) {
+    final canDelete = currentUserId == comment.author.id;
+    return Row(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        CircleAvatar(
+          radius: comment.parentId == null ? 18 : 14,
+          child: Text(
+            comment.author.username.substring(0, 1).toUpperCase(),
+          ),
+        ),
+        const SizedBox(width: 12),
+        Expanded(
+          child: Column(
+            crossAxisAlignment: CrossAxisAlignment.start,
+            children: [
+              Row(
+                children: [
+                  Text(
+                    comment.author.username,
+                    style: const TextStyle(
+                      fontWeight: FontWeight.bold,
+                    ),
+                  ),
+                  if (canDelete) ...[
+                    const SizedBox(width: 8),
+                    GestureDetector(
+                      onTap: () => ref
+                          .read(postCommentsProvider(_args).notifier)
+                          .deleteComment(comment.id),
+                      child: const Icon(
+                        Icons.delete_outline,
+                        size: 16,
+                        color: Colors.redAccent,
+                      ),
+                    ),
+                  ],
+                ],
+              ),
+              const SizedBox(height: 4),
+              Text(comment.content),
+              Padding(
+                padding: const EdgeInsets.only(top: 4),
+                child: Row(
+                  children: [
+                    if (comment.createdAt != null)
+                      Text(
+                        comment.createdAt.toString().substring(0, 16),
+                        style: const TextStyle(
+                          fontSize: 11,
+                          color: Colors.grey,
+                        ),
+                      ),
+                    if (onReply != null) ...[
+                      const SizedBox(width: 12),
+                      GestureDetector(
+                        onTap: onReply,
+                        child: const Text(
+                          'Trả lời',
+                          style: TextStyle(
+                            fontSize: 11,
+                            fontWeight: FontWeight.w600,
+                            color: Colors.grey,
+                          ),
+                        ),
+                      ),
+                    ],
+                  ],
+                ),
+              ),
+            ],
+          ),
+        ),
+      ],
+    );
+  }
+}
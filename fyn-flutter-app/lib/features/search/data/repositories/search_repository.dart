@@ -2,6 +2,7 @@ import 'package:dio/dio.dart';
 
 import '../../../../config/api_config.dart';
 import '../../../../core/models/api_response.dart';
+import '../../../../core/models/cursor_page_response.dart';
 import '../../../../core/network/api_client.dart';
 import '../../../auth/data/models/user_response.dart';
 
@@ -10,24 +11,27 @@ class SearchRepository {
 
   SearchRepository(this._apiClient);
 
-  Future<List<UserResponse>> searchUsers(String query) async {
+  Future<CursorPageResponse<UserResponse>> searchUsers(
+    String query, {
+    String? cursor,
+    int size = 20,
+  }) async {
     try {
       final response = await _apiClient.get(
         ApiEndpoints.searchUsers,
-        queryParameters: {'query': query},
+        queryParameters: {
+          'query': query,
+          'size': size,
+          if (cursor != null) 'cursor': cursor,
+        },
       );
 
-      final apiResponse = ApiResponse<List<UserResponse>>.fromJson(
+      final apiResponse = ApiResponse<CursorPageResponse<UserResponse>>.fromJson(
         response.data,
-        (data) {
-          if (data is List) {
-            return data
-                .whereType<Map<String, dynamic>>()
-                .map(UserResponse.fromJson)
-                .toList();
-          }
-          return <UserResponse>[];
-        },
+        (data) => CursorPageResponse<UserResponse>.fromJson(
+          data as Map<String, dynamic>,
+          (item) => UserResponse.fromJson(item as Map<String, dynamic>),
+        ),
       );
 
       if (!apiResponse.success || apiResponse.data == null) {
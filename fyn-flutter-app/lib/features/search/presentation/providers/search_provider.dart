@@ -12,26 +12,37 @@ final searchRepositoryProvider = Provider<SearchRepository>((ref) {
 class UserSearchState {
   final List<UserResponse> results;
   final bool isLoading;
+  final bool isLoadingMore;
   final String query;
+  final String? nextCursor;
   final String? error;
 
   UserSearchState({
     this.results = const [],
     this.isLoading = false,
+    this.isLoadingMore = false,
     this.query = '',
+    this.nextCursor,
     this.error,
   });
 
+  bool get hasMore => nextCursor != null;
+
   UserSearchState copyWith({
     List<UserResponse>? results,
     bool? isLoading,
+    bool? isLoadingMore,
     String? query,
+    String? nextCursor,
+    bool clearNextCursor = false,
     String? error,
   }) {
     return UserSearchState(
       results: results ?? this.results,
       isLoading: isLoading ?? this.isLoading,
+      isLoadingMore: isLoadingMore ?? this.isLoadingMore,
       query: query ?? this.query,
+      nextCursor: clearNextCursor ? null : (nextCursor ?? this.nextCursor),
       error: error,
     );
   }
@@ -44,7 +55,12 @@ class UserSearchNotifier extends StateNotifier<UserSearchState> {
 
   Future<void> search(String query) async {
     final keyword = query.trim();
-    state = state.copyWith(query: keyword, isLoading: true, error: null);
+    state = state.copyWith(
+      query: keyword,
+      isLoading: true,
+      clearNextCursor: true,
+      error: null,
+    );
 
     if (keyword.isEmpty) {
       state = state.copyWith(results: [], isLoading: false);
@@ -52,9 +68,16 @@ class UserSearchNotifier extends StateNotifier<UserSearchState> {
     }
 
     try {
-      final results = await _repository.searchUsers(keyword);
-      state = state.copyWith(results: results, isLoading: false);
+      final page = await _repository.searchUsers(keyword);
+      // A newer query may have started while this one was in flight
+      if (state.query != keyword) return;
+      state = state.copyWith(
+        results: page.content,
+        isLoading: false,
+        nextCursor: page.nextCursor,
+      );
     } catch (e) {
+      if (state.query != keyword) return;
       state = state.copyWith(
         isLoading: false,
         error: e.toString(),
@@ -62,8 +85,36 @@ class UserSearchNotifier extends StateNotifier<UserSearchState> {
     }
   }
 
+  Future<void> loadMore() async {
+    if (!state.hasMore || state.isLoading || state.isLoadingMore) return;
+    final keyword = state.query;
+    state = state.copyWith(isLoadingMore: true, error: null);
+    try {
+      final page =
+          await _repository.searchUsers(keyword, cursor: state.nextCursor);
+      if (state.query != keyword) return;
+      state = state.copyWith(
+        results: [...state.results, ...page.content],
+        isLoadingMore: false,
+        nextCursor: page.nextCursor,
+        clearNextCursor: page.nextCursor == null,
+      );
+    } catch (e) {
+      if (state.query != keyword) return;
+      state = state.copyWith(
+        isLoadingMore: false,
+        error: e.toString(),
+      );
+    }
+  }
+
   void clearResults() {
-    state = state.copyWith(results: [], query: '', error: null);
+    state = state.copyWith(
+      results: [],
+      query: '',
+      clearNextCursor: true,
+      error: null,
+    );
   }
 }
 
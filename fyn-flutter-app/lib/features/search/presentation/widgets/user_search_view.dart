@@ -93,45 +93,53 @@ class _UserSearchViewState extends ConsumerState<UserSearchView> {
           )
         else
           Expanded(
-            child: ListView.separated(
-              itemCount: searchState.results.length,
-              separatorBuilder: (_, __) => const Divider(
-                height: 1,
-                color: AppColors.border,
-              ),
-              itemBuilder: (context, index) {
-                final user = searchState.results[index];
-                final avatarUrl = ImageUtils.getAvatarUrl(user.profile.avatarUrl);
-                return ListTile(
-                  leading: CircleAvatar(
-                    backgroundColor: AppColors.surfaceElevated,
-                    backgroundImage:
-                        avatarUrl != null ? NetworkImage(avatarUrl) : null,
-                    child: avatarUrl == null
-                        ? Text(
-                            user.username.substring(0, 1).toUpperCase(),
-                            style: const TextStyle(
-                              color: AppColors.primaryText,
-                              fontWeight: FontWeight.bold,
-                            ),
-                          )
-                        : null,
-                  ),
-                  title: Text(
-                    user.username,
-                    style: const TextStyle(
-                      fontWeight: FontWeight.w600,
-                      color: AppColors.primaryText,
-                    ),
-                  ),
-                  subtitle: user.fullName != null && user.fullName!.isNotEmpty
-                      ? Text(user.fullName!)
-                      : null,
-                  onTap: () {
-                    context.go('/profile/${user.id}');
-                  },
-                );
+            child: NotificationListener<ScrollNotification>(
+              onNotification: (notification) {
+                if (notification.metrics.extentAfter < 300) {
+                  ref.read(userSearchProvider.notifier).loadMore();
+                }
+                return false;
               },
+              child: ListView.separated(
+                itemCount: searchState.results.length,
+                separatorBuilder: (_, __) => const Divider(
+                  height: 1,
+                  color: AppColors.border,
+                ),
+                itemBuilder: (context, index) {
+                  final user = searchState.results[index];
+                  final avatarUrl = ImageUtils.getAvatarUrl(user.profile.avatarUrl);
+                  return ListTile(
+                    leading: CircleAvatar(
+                      backgroundColor: AppColors.surfaceElevated,
+                      backgroundImage:
+                          avatarUrl != null ? NetworkImage(avatarUrl) : null,
+                      child: avatarUrl == null
+                          ? Text(
+                              user.username.substring(0, 1).toUpperCase(),
+                              style: const TextStyle(
+                                color: AppColors.primaryText,
+                                fontWeight: FontWeight.bold,
+                              ),
+                            )
+                          : null,
+                    ),
+                    title: Text(
+                      user.username,
+                      style: const TextStyle(
+                        fontWeight: FontWeight.w600,
+                        color: AppColors.primaryText,
+                      ),
+                    ),
+                    subtitle: user.fullName != null && user.fullName!.isNotEmpty
+                        ? Text(user.fullName!)
+                        : null,
+                    onTap: () {
+                      context.go('/profile/${user.id}');
+                    },
+                  );
+                },
+              ),
             ),
           ),
       ],
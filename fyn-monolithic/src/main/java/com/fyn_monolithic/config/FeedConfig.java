@@ -0,0 +1,86 @@
+package com.fyn_monolithic.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "feed")
+public class FeedConfig {
+
+    private Timeline timeline = new Timeline();
+    private Engagement engagement = new Engagement();
+    private RecentLikes recentLikes = new RecentLikes();
+    private Ranking ranking = new Ranking();
+    private ResponseCache responseCache = new ResponseCache();
+
+    @Getter
+    @Setter
+    public static class Timeline {
+        /** Post ids kept per home timeline; older entries are trimmed on every push */
+        private int maxLength = 800;
+        /** Timelines not read for this long expire and are rebuilt from the database on next read */
+        private Duration ttl = Duration.ofDays(3);
+        /** Follower timelines updated per Redis round-trip during fan-out */
+        private int fanoutBatchSize = 1000;
+        /**
+         * Authors with at least this many followers are not fanned out; their posts are
+         * merged into followers' timelines at read time instead
+         */
+        private long pullFollowerThreshold = 10_000;
+        /**
+         * Pull-mode authors whose followers drop below this go back to fan-out; kept under
+         * pullFollowerThreshold so authors near it do not switch back and forth
+         */
+        private long pushFollowerThreshold = 8_000;
+        /** Recent posts kept per pull-mode author for read-time merging */
+        private int recentPostsPerAuthor = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Engagement {
+        /** Posts per JDBC batch when flushing like/comment count deltas */
+        private int flushBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class RecentLikes {
+        /** Likes on posts younger than this are answered from Redis; older posts ask the database */
+        private Duration window = Duration.ofDays(30);
+        /** A user's cached likes expire after this long without feed reads */
+        private Duration idleTtl = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Ranking {
+        /** Post age at which its score drops as much as doubling its engagement raises it */
+        private Duration halfLife = Duration.ofHours(12);
+        /** A comment counts as this many likes */
+        private double commentWeight = 2.0;
+        /** Score added per doubling of the viewer's likes and comments on the author's posts */
+        private double affinityWeight = 1.0;
+        /** Ranked feeds are rebuilt from the database this long after they were built */
+        private Duration ttl = Duration.ofMinutes(30);
+        /** Viewer-author interaction counts expire this long after the last interaction */
+        private Duration affinityTtl = Duration.ofDays(90);
+    }
+
+    @Getter
+    @Setter
+    public static class ResponseCache {
+        /** Post responses kept in each instance's heap */
+        private long maxSize = 10_000;
+        /** Lifetime of an in-heap entry; bounds how long another instance's invalidation goes unseen */
+        private Duration localTtl = Duration.ofSeconds(30);
+        /** Lifetime of a Redis entry; bounds staleness if an invalidation races with a reload */
+        private Duration redisTtl = Duration.ofMinutes(2);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fyn_monolithic.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Runs Flyway after Hibernate's ddl-auto rather than before it. The tables come from the
+ * entities, so Flyway always finds a non-empty schema and baselines it at V3. V1-V3 predate
+ * the entities and never run; V4 onward only add what ddl-auto cannot (extension-backed
+ * and unique indexes, backfills, data fixes).
+ */
+@Configuration
+public class FlywayConfig {
+
+    // The auto-configured initializer runs before the EntityManagerFactory; make it a no-op
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrationAfterHibernate(Flyway flyway) {
+        return () -> flyway.migrate();
+    }
+}
@@ -0,0 +1,114 @@
+package com.fyn_monolithic.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "matching")
+public class MatchingConfig {
+
+    private SwipedSet swipedSet = new SwipedSet();
+    private Scoring scoring = new Scoring();
+    private Features features = new Features();
+    private Geo geo = new Geo();
+    private Swipes swipes = new Swipes();
+    private Deck deck = new Deck();
+    private InboundLikes inboundLikes = new InboundLikes();
+
+    @Getter
+    @Setter
+    public static class SwipedSet {
+        /** Drop a user's in-memory set after this long without discover/swipe activity */
+        private Duration idleTtl = Duration.ofMinutes(30);
+        /** Re-read an in-memory set from Redis after this long, to see swipes made through other instances */
+        private Duration refreshAfter = Duration.ofSeconds(30);
+        /** Expiry of the shared Redis set after the last swipe; it is seeded again from swipe_actions once gone */
+        private Duration redisTtl = Duration.ofDays(7);
+    }
+
+    @Getter
+    @Setter
+    public static class Scoring {
+        private double interestWeight = 0.5;
+        private double locationWeight = 0.3;
+        private double activityWeight = 0.2;
+        /** Activity score halves with each half-life elapsed since the less active user was seen */
+        private Duration activityHalfLife = Duration.ofDays(3);
+        /** Used when a profile has no max_distance_km of its own */
+        private int defaultMaxDistanceKm = 50;
+        /** Upper bound on pair distance considered by the batch job */
+        private int batchMaxDistanceKm = 200;
+        /** The batch job scores each user against at most this many of their nearest in-range users */
+        private int batchMaxPairsPerUser = 200;
+        /** Total score multiplier applied per side whose age/gender preferences the other misses */
+        private double preferenceMismatchFactor = 0.5;
+        private int batchParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private int batchUpsertSize = 500;
+        /** Rows deleted per statement when pruning pairs the batch job no longer scores */
+        private int batchPruneSize = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Features {
+        /**
+         * Each sync re-reads rows stamped this long before the watermark, to pick up
+         * transactions that committed after a later-stamped row was already seen.
+         * Should exceed the longest profile/user write transaction.
+         */
+        private Duration syncOverlap = Duration.ofMinutes(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Geo {
+        /** Edge of a grid cell of the in-memory geo index, in degrees (0.1 is roughly 11 km) */
+        private double cellSizeDegrees = 0.1;
+        /** Nearest users handed to discover ranking per deck refill, from the in-memory index or PostGIS */
+        private int maxCandidates = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Swipes {
+        /**
+         * This instance's consumer name in the swipe stream's group; must be unique among
+         * running instances, need not survive restarts
+         */
+        private String instanceId = "local";
+        /** Maximum swipes per JDBC batch */
+        private int batchSize = 500;
+        /** How long the idle writer blocks waiting for a swipe before re-checking for shutdown */
+        private Duration writerPollInterval = Duration.ofMillis(500);
+        /** Swipes read but not acknowledged for this long are claimed and written again */
+        private Duration reclaimIdle = Duration.ofSeconds(30);
+        /** Deliveries after which a failing swipe is moved to the dead-letter stream */
+        private int maxAttempts = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Deck {
+        /** Ranked candidates kept ready per user */
+        private int size = 100;
+        /** Refill in the background once fewer candidates than this are left */
+        private int lowWaterMark = 30;
+        /** Drop a user's deck after this long without discover requests */
+        private Duration idleTtl = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class InboundLikes {
+        /** Drop a user's inbound-likes set after this long without likes or reads; it is seeded again on next use */
+        private Duration idleTtl = Duration.ofDays(14);
+        /** Keep an unanswered like in its pair's match check this long; older likes are found through the sets */
+        private Duration pairTtl = Duration.ofDays(1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fyn_monolithic.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "search")
+public class SearchConfig {
+
+    private Trending trending = new Trending();
+    private HashtagPages hashtagPages = new HashtagPages();
+    private Users users = new Users();
+
+    @Getter
+    @Setter
+    public static class Trending {
+        /** Counters per count-min sketch row; overestimates are bounded by about e/width of the window's total */
+        private int sketchWidth = 1024;
+        /** Count-min sketch rows; the chance of exceeding that bound shrinks as e^-depth */
+        private int sketchDepth = 4;
+        /** Tags tracked as possible heavy hitters per window */
+        private int candidates = 100;
+        /** Largest number of tags a single trending request may ask for */
+        private int maxLimit = 50;
+        /** Expiry of the Redis snapshot; a restart after that starts counting from empty */
+        private Duration snapshotTtl = Duration.ofDays(2);
+        /** Names this instance's snapshot; other instances' snapshots are merged into trending results */
+        private String instanceId = "local";
+    }
+
+    @Getter
+    @Setter
+    public static class Users {
+        /** Shortest query matched by trigram similarity; shorter ones match username and name prefixes */
+        private int minTrigramLength = 3;
+        /** Nearest usernames and nearest full names ranked per query; bounds the cost and the reachable results */
+        private int candidates = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class HashtagPages {
+        /** Newest posts cached per tag; first pages up to this size are served from the cache */
+        private int firstPageSize = 50;
+        /** Tags whose first page is kept per instance; the most requested ones stay */
+        private long maxTags = 1_000;
+        /** Lifetime of a cached first page; bounds how long another instance's new posts or deletions go unseen */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
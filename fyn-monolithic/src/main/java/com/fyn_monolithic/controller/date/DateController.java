@@ -2,6 +2,7 @@ package com.fyn_monolithic.controller.date;
 
 import com.fyn_monolithic.dto.request.date.CreateDateRequest;
 import com.fyn_monolithic.dto.request.date.ProposalRequest;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.date.DatePlanResponse;
 import com.fyn_monolithic.dto.response.date.ProposalResponse;
 import com.fyn_monolithic.model.date.ConnectionTypeEnum;
@@ -47,19 +48,14 @@ public class DateController {
     @GetMapping("/public")
     public ResponseEntity<Map<String, Object>> getPublicDates(
             @RequestParam(required = false) ConnectionTypeEnum type,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<DatePlanResponse> dates = dateService.getPublicDates(type, pageable);
+        CursorPageResponse<DatePlanResponse> dates = dateService.getPublicDates(type, cursor, size);
 
         return ResponseEntity.ok(Map.of(
                 "success", true,
-                "data", Map.of(
-                        "content", dates.getContent(),
-                        "page", dates.getNumber(),
-                        "totalPages", dates.getTotalPages(),
-                        "totalElements", dates.getTotalElements())));
+                "data", dates));
     }
 
     /**
@@ -1,11 +1,9 @@
 package com.fyn_monolithic.controller.date;
 
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.security.CustomUserDetails;
 import com.fyn_monolithic.service.date.MeetupService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -38,19 +36,14 @@ public class MeetupController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getMeetups(
             @RequestParam(required = false) String category,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Map<String, Object>> meetups = meetupService.getMeetups(category, pageable);
+        CursorPageResponse<Map<String, Object>> meetups = meetupService.getMeetups(category, cursor, size);
 
         return ResponseEntity.ok(Map.of(
                 "success", true,
-                "data", Map.of(
-                        "content", meetups.getContent(),
-                        "page", meetups.getNumber(),
-                        "totalPages", meetups.getTotalPages(),
-                        "totalElements", meetups.getTotalElements())));
+                "data", meetups));
     }
 
     /**
@@ -1,18 +1,19 @@
 package com.fyn_monolithic.controller.match;
 
 import com.fyn_monolithic.dto.request.match.SwipeRequest;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.match.DiscoverProfileResponse;
 import com.fyn_monolithic.security.CustomUserDetails;
 import com.fyn_monolithic.service.match.MatchingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -24,26 +25,29 @@ public class MatchingController {
         private final MatchingService matchingService;
 
         /**
-         * Get potential matches for swiping (discover)
+         * Get potential matches for swiping (discover).
+         * Pass the returned nextCursor back as {@code cursor} to get the next deck page.
          */
         @GetMapping("/discover")
         public ResponseEntity<Map<String, Object>> discover(
                         @AuthenticationPrincipal CustomUserDetails userDetails,
                         @RequestParam(required = false) String type,
-                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(required = false) UUID cursor,
                         @RequestParam(defaultValue = "20") int size) {
 
-                Pageable pageable = PageRequest.of(page, size);
-                Page<DiscoverProfileResponse> profiles = matchingService.getDiscoverProfiles(
-                                userDetails.getUser().getId(), type, pageable);
+                Slice<DiscoverProfileResponse> profiles = matchingService.getDiscoverProfiles(
+                                userDetails.getUser().getId(), type, cursor, size);
+
+                List<DiscoverProfileResponse> content = profiles.getContent();
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("content", content);
+                data.put("size", content.size());
+                data.put("hasNext", profiles.hasNext());
+                data.put("nextCursor", profiles.hasNext() ? content.get(content.size() - 1).getUserId() : null);
 
                 return ResponseEntity.ok(Map.of(
                                 "success", true,
-                                "data", Map.of(
-                                                "content", profiles.getContent(),
-                                                "page", profiles.getNumber(),
-                                                "totalPages", profiles.getTotalPages(),
-                                                "totalElements", profiles.getTotalElements())));
+                                "data", data));
         }
 
         /**
@@ -66,25 +70,39 @@ public class MatchingController {
         }
 
         /**
-         * Get current user's matches
+         * Users who liked the current user and are still waiting for a swipe back, newest first.
+         * Pass the returned nextCursor back as {@code cursor} for the next page.
+         */
+        @GetMapping("/likes-received")
+        public ResponseEntity<Map<String, Object>> likesReceived(
+                        @AuthenticationPrincipal CustomUserDetails userDetails,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+
+                CursorPageResponse<DiscoverProfileResponse> likes = matchingService.getLikesReceived(
+                                userDetails.getUser().getId(), cursor, size);
+
+                return ResponseEntity.ok(Map.of(
+                                "success", true,
+                                "data", likes));
+        }
+
+        /**
+         * Get current user's matches, newest first.
+         * Pass the returned nextCursor back as {@code cursor} for the next page.
          */
         @GetMapping
         public ResponseEntity<Map<String, Object>> getMatches(
                         @AuthenticationPrincipal CustomUserDetails userDetails,
-                        @RequestParam(required = false) String status,
-                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(required = false) String cursor,
                         @RequestParam(defaultValue = "20") int size) {
 
-                Pageable pageable = PageRequest.of(page, size);
-                Page<DiscoverProfileResponse> matches = matchingService.getMatches(
-                                userDetails.getUser().getId(), status, pageable);
+                CursorPageResponse<DiscoverProfileResponse> matches = matchingService.getMatches(
+                                userDetails.getUser().getId(), cursor, size);
 
                 return ResponseEntity.ok(Map.of(
                                 "success", true,
-                                "data", Map.of(
-                                                "content", matches.getContent(),
-                                                "page", matches.getNumber(),
-                                                "totalPages", matches.getTotalPages())));
+                                "data", matches));
         }
 
         /**
@@ -2,7 +2,7 @@ package com.fyn_monolithic.controller.message;
 
 import com.fyn_monolithic.dto.request.message.SendMessageRequest;
 import com.fyn_monolithic.dto.response.common.ApiResponse;
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.message.MessageResponse;
 import com.fyn_monolithic.service.message.MessageService;
 import jakarta.validation.Valid;
@@ -37,10 +37,10 @@ public class MessageController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponse<MessageResponse>>> getMessages(
+    public ResponseEntity<ApiResponse<CursorPageResponse<MessageResponse>>> getMessages(
             @PathVariable UUID conversationId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size) {
-        return ResponseEntity.ok(ApiResponse.ok(messageService.getMessages(conversationId, page, size)));
+        return ResponseEntity.ok(ApiResponse.ok(messageService.getMessages(conversationId, cursor, size)));
     }
 }
@@ -1,7 +1,7 @@
 package com.fyn_monolithic.controller.notification;
 
 import com.fyn_monolithic.dto.response.common.ApiResponse;
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.notification.NotificationResponse;
 import com.fyn_monolithic.service.notification.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -23,10 +23,10 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponse<NotificationResponse>>> list(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<ApiResponse<CursorPageResponse<NotificationResponse>>> list(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(ApiResponse.ok(notificationService.list(page, size)));
+        return ResponseEntity.ok(ApiResponse.ok(notificationService.list(cursor, size)));
     }
 
     @PostMapping("/{notificationId}/read")
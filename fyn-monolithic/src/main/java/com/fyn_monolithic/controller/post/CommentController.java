@@ -2,6 +2,7 @@ package com.fyn_monolithic.controller.post;
 
 import com.fyn_monolithic.dto.request.post.CreateCommentRequest;
 import com.fyn_monolithic.dto.response.common.ApiResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.CommentResponse;
 import com.fyn_monolithic.service.post.CommentService;
 import jakarta.validation.Valid;
@@ -13,9 +14,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -32,8 +33,20 @@ public class CommentController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CommentResponse>>> list(@PathVariable UUID postId) {
-        return ResponseEntity.ok(ApiResponse.ok(commentService.getComments(postId)));
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommentResponse>>> list(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(commentService.getComments(postId, cursor, size)));
+    }
+
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommentResponse>>> replies(
+            @PathVariable UUID postId,
+            @PathVariable UUID commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(commentService.getReplies(postId, commentId, cursor, size)));
     }
 
     @DeleteMapping("/{commentId}")
@@ -2,7 +2,7 @@ package com.fyn_monolithic.controller.post;
 
 import com.fyn_monolithic.dto.request.post.CreatePostRequest;
 import com.fyn_monolithic.dto.response.common.ApiResponse;
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.PostResponse;
 import com.fyn_monolithic.service.post.PostService;
 import jakarta.validation.Valid;
@@ -45,18 +45,25 @@ public ResponseEntity<ApiResponse<PostResponse>> createPost(
 //}
 
     @GetMapping("/feed")
-    public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> feed(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostResponse>>> feed(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(ApiResponse.ok(postService.getFeed(page, size)));
+        return ResponseEntity.ok(ApiResponse.ok(postService.getFeed(cursor, size)));
+    }
+
+    @GetMapping("/feed/ranked")
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostResponse>>> rankedFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(postService.getRankedFeed(cursor, size)));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> postsByUser(
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostResponse>>> postsByUser(
             @PathVariable UUID userId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(ApiResponse.ok(postService.getPostsOfUser(userId, page, size)));
+        return ResponseEntity.ok(ApiResponse.ok(postService.getPostsOfUser(userId, cursor, size)));
     }
 
     @DeleteMapping("/{postId}")
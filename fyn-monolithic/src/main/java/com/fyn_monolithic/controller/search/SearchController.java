@@ -1,9 +1,15 @@
 package com.fyn_monolithic.controller.search;
 
 import com.fyn_monolithic.dto.response.common.ApiResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.dto.response.search.SuggestionResponse;
+import com.fyn_monolithic.dto.response.search.TrendingHashtagResponse;
 import com.fyn_monolithic.dto.response.user.UserResponse;
+import com.fyn_monolithic.service.search.AutocompleteIndex;
 import com.fyn_monolithic.service.search.SearchService;
+import com.fyn_monolithic.service.search.TrendingHashtags;
+import com.fyn_monolithic.service.search.TrendingWindow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,14 +25,36 @@ import java.util.List;
 public class SearchController {
 
     private final SearchService searchService;
+    private final TrendingHashtags trendingHashtags;
+    private final AutocompleteIndex autocompleteIndex;
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> autocomplete(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.ok(autocompleteIndex.complete(query, limit)));
+    }
 
     @GetMapping("/hashtags")
-    public ResponseEntity<ApiResponse<List<PostResponse>>> searchByHashtag(@RequestParam String tag) {
-        return ResponseEntity.ok(ApiResponse.ok(searchService.searchByHashtag(tag)));
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostResponse>>> searchByHashtag(
+            @RequestParam String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(searchService.searchByHashtag(tag, cursor, size)));
+    }
+
+    @GetMapping("/hashtags/trending")
+    public ResponseEntity<ApiResponse<List<TrendingHashtagResponse>>> trendingHashtags(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.ok(trendingHashtags.top(TrendingWindow.fromKey(window), limit)));
     }
 
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse<List<UserResponse>>> searchUsers(@RequestParam("query") String query) {
-        return ResponseEntity.ok(ApiResponse.ok(searchService.searchUsers(query)));
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> searchUsers(
+            @RequestParam("query") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(searchService.searchUsers(query, cursor, size)));
     }
 }
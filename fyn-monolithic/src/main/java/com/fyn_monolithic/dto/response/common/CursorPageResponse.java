@@ -0,0 +1,40 @@
+package com.fyn_monolithic.dto.response.common;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Value
+@Builder
+public class CursorPageResponse<T> {
+    List<T> content;
+    int size;
+    String nextCursor;
+    boolean hasNext;
+
+    /**
+     * Builds a page from a query that fetched up to {@code size + 1} rows; the extra row
+     * only signals that another page exists.
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public <R> CursorPageResponse<R> map(Function<T, R> mapper) {
+        return CursorPageResponse.<R>builder()
+                .content(content.stream().map(mapper).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.fyn_monolithic.dto.response.match;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +24,9 @@ public class DiscoverProfileResponse {
     private Double matchScore;
     private List<String> commonInterests;
     private Double distanceKm;
+    // Only set in "who liked me" results
+    private Instant likedAt;
+    // Only set in match list results (connection id and when the match happened)
+    private UUID matchId;
+    private Instant matchedAt;
 }
@@ -5,14 +5,18 @@ import lombok.Builder;
 import lombok.Value;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class CommentResponse {
     UUID id;
     UUID parentId;
     UserResponse author;
     String content;
     Instant createdAt;
+    long replyCount;
+    /** First replies, oldest first; only filled for top-level comments */
+    List<CommentResponse> replies;
 }
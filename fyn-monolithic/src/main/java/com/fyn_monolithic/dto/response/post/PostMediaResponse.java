@@ -3,9 +3,11 @@ package com.fyn_monolithic.dto.response.post;
 import com.fyn_monolithic.model.storage.MediaType;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 @Value
 @Builder
+@Jacksonized
 public class PostMediaResponse {
     String objectKey;
     String mediaUrl;
@@ -4,6 +4,7 @@ import com.fyn_monolithic.dto.response.user.UserResponse;
 import com.fyn_monolithic.model.post.PostVisibility;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.Instant;
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.UUID;
 
 @Value
 @Builder(toBuilder = true)
+@Jacksonized
 public class PostResponse {
     UUID id;
     UserResponse author;
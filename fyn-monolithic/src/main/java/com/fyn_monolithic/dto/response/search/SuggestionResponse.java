@@ -0,0 +1,23 @@
+package com.fyn_monolithic.dto.response.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+@Builder
+public class SuggestionResponse {
+    Type type;
+    /** User id; null for hashtags, which are identified by their text */
+    UUID id;
+    /** Username, or the tag without its '#' */
+    String text;
+    /** Full name for users */
+    String detail;
+
+    public enum Type {
+        USER,
+        HASHTAG
+    }
+}
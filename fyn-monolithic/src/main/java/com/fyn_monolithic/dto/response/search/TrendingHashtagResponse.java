@@ -0,0 +1,12 @@
+package com.fyn_monolithic.dto.response.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class TrendingHashtagResponse {
+    String tag;
+    /** Posts using the tag within the window; an estimate that may run slightly high */
+    long postCount;
+}
@@ -1,14 +1,19 @@
 package com.fyn_monolithic.dto.response.user;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 @Value
 @Builder
+@Jacksonized
 public class ProfileResponse {
     String bio;
     String website;
     String location;
     String avatarUrl;
+    // Serialized as "private" (Lombok getter isPrivate()); named here so it also reads back
+    @JsonProperty("private")
     boolean isPrivate;
 }
@@ -3,11 +3,13 @@ package com.fyn_monolithic.dto.response.user;
 import com.fyn_monolithic.model.user.UserStatus;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.UUID;
 
 @Value
 @Builder
+@Jacksonized
 public class UserResponse {
     UUID id;
     String username;
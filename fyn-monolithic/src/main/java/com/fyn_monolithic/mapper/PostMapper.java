@@ -39,6 +39,7 @@ public interface PostMapper {
     PostMediaResponse toMediaResponse(PostMedia media);
 
     @Mapping(target = "parentId", expression = "java(comment.getParentComment() != null ? comment.getParentComment().getId() : null)")
+    @Mapping(target = "replies", ignore = true)
     CommentResponse toCommentResponse(PostComment comment);
 
     private <T> Stream<T> toStream(Iterable<T> iterable) {
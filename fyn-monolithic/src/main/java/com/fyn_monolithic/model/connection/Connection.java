@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +22,16 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "connections")
+@Table(name = "connections", indexes = {
+        // Directional lookups; one connection per unordered pair is enforced by the
+        // (LEAST, GREATEST) expression index uq_connections_pair in V9
+        @Index(name = "idx_connections_pair", columnList = "requester_id, receiver_id"),
+        // Covering indexes for the match list, one per side of the pair
+        @Index(name = "idx_connections_requester_matches",
+                columnList = "requester_id, status, match_source, created_at, id, receiver_id"),
+        @Index(name = "idx_connections_receiver_matches",
+                columnList = "receiver_id, status, match_source, created_at, id, requester_id")
+})
 public class Connection extends AbstractAuditableEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
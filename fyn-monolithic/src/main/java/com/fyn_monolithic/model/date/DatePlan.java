@@ -14,7 +14,9 @@ import java.util.UUID;
  * DatePlan entity for scheduling dates and meetups
  */
 @Entity
-@Table(name = "date_plans")
+@Table(name = "date_plans", indexes = {
+        @Index(name = "idx_date_plans_status_scheduled", columnList = "status, scheduled_at, id")
+})
 @Data
 @NoArgsConstructor
 public class DatePlan {
@@ -16,7 +16,10 @@ import java.util.UUID;
  * Meetup entity for group activities with multiple participants
  */
 @Entity
-@Table(name = "meetups")
+@Table(name = "meetups", indexes = {
+        @Index(name = "idx_meetups_status_scheduled", columnList = "status, scheduled_at, id"),
+        @Index(name = "idx_meetups_category_status_scheduled", columnList = "category, status, scheduled_at, id")
+})
 @Data
 @NoArgsConstructor
 public class Meetup {
@@ -5,6 +5,7 @@ import com.fyn_monolithic.model.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,7 +19,11 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "match_scores")
+@Table(name = "match_scores", indexes = {
+        @Index(name = "uq_match_scores_pair", columnList = "user_id_1, user_id_2", unique = true),
+        @Index(name = "idx_match_scores_user2", columnList = "user_id_2"),
+        @Index(name = "idx_match_scores_updated_at", columnList = "updated_at")
+})
 public class MatchScore extends AbstractAuditableEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -16,7 +17,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "swipe_actions")
+@Table(name = "swipe_actions", indexes = {
+        // Also created by V9 after deduplicating, where ddl-auto cannot build it over duplicates
+        @Index(name = "uq_swipe_actions_actor_target", columnList = "actor_id, target_id", unique = true)
+})
 public class SwipeAction extends AbstractAuditableEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
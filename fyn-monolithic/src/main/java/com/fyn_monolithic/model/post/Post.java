@@ -6,6 +6,7 @@ import com.fyn_monolithic.model.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Index;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -20,7 +21,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_author_created", columnList = "author_id, created_at, id")
+})
 public class Post extends AbstractAuditableEntity {
 
     @ManyToOne
@@ -34,10 +37,11 @@ public class Post extends AbstractAuditableEntity {
     @Column(name = "visibility", nullable = false)
     private PostVisibility visibility = PostVisibility.PUBLIC;
 
-    @Column(name = "comment_count", nullable = false)
+    // Maintained by PostEngagementCounters with relative SQL updates; never written by JPA
+    @Column(name = "comment_count", nullable = false, updatable = false)
     private long commentCount = 0;
 
-    @Column(name = "like_count", nullable = false)
+    @Column(name = "like_count", nullable = false, updatable = false)
     private long likeCount = 0;
 
     @OneToMany(mappedBy = "post")
@@ -51,24 +55,4 @@ public class Post extends AbstractAuditableEntity {
 
     @OneToMany(mappedBy = "post")
     private Set<PostHashtag> hashtags = new LinkedHashSet<>();
-
-    public void increaseLikeCount() {
-        this.likeCount = this.likeCount + 1;
-    }
-
-    public void decreaseLikeCount() {
-        if (this.likeCount > 0) {
-            this.likeCount = this.likeCount - 1;
-        }
-    }
-
-    public void increaseCommentCount() {
-        this.commentCount = this.commentCount + 1;
-    }
-
-    public void decreaseCommentCount() {
-        if (this.commentCount > 0) {
-            this.commentCount = this.commentCount - 1;
-        }
-    }
 }
@@ -4,6 +4,7 @@ import com.fyn_monolithic.model.common.AbstractAuditableEntity;
 import com.fyn_monolithic.model.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -13,7 +14,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "post_comments")
+@Table(name = "post_comments", indexes = {
+        @Index(name = "idx_post_comments_thread", columnList = "post_id, parent_comment_id, created_at, id")
+})
 public class PostComment extends AbstractAuditableEntity {
 
     @ManyToOne
@@ -30,4 +33,8 @@ public class PostComment extends AbstractAuditableEntity {
 
     @Column(name = "content", nullable = false, length = 1024)
     private String content;
+
+    // Direct replies; maintained with relative SQL updates, never written by JPA
+    @Column(name = "reply_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long replyCount = 0;
 }
@@ -3,6 +3,7 @@ package com.fyn_monolithic.model.post;
 import com.fyn_monolithic.model.common.AbstractAuditableEntity;
 import com.fyn_monolithic.model.user.User;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,7 +13,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "post_likes")
+@Table(name = "post_likes", indexes = {
+        @Index(name = "idx_post_likes_user_post", columnList = "user_id, post_id")
+})
 public class PostLike extends AbstractAuditableEntity {
 
     @ManyToOne
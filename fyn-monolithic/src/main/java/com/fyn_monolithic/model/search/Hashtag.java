@@ -20,7 +20,8 @@ public class Hashtag extends AbstractAuditableEntity {
     @Column(name = "tag", nullable = false, unique = true)
     private String tag;
 
-    @Column(name = "usage_count", nullable = false)
+    // Maintained by HashtagWriter with relative SQL updates; never written by JPA
+    @Column(name = "usage_count", nullable = false, updatable = false)
     private long usageCount = 0;
 
     @OneToMany(mappedBy = "hashtag")
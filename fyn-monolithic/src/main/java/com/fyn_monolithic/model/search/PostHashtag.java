@@ -3,6 +3,7 @@ package com.fyn_monolithic.model.search;
 import com.fyn_monolithic.model.common.AbstractAuditableEntity;
 import com.fyn_monolithic.model.post.Post;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,7 +13,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "post_hashtags")
+@Table(name = "post_hashtags", indexes = {
+        @Index(name = "uq_post_hashtags_post_hashtag", columnList = "post_id, hashtag_id", unique = true),
+        @Index(name = "idx_post_hashtags_hashtag_created", columnList = "hashtag_id, created_at, post_id")
+})
 public class PostHashtag extends AbstractAuditableEntity {
 
     @ManyToOne
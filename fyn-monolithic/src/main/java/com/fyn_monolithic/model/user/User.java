@@ -12,6 +12,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
@@ -25,7 +26,10 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_follower_count", columnList = "follower_count DESC, id DESC"),
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
 public class User extends AbstractAuditableEntity {
 
     @Column(name = "email", unique = true, nullable = false)
@@ -42,6 +46,10 @@ public class User extends AbstractAuditableEntity {
 
     @Column(name = "full_name")
     private String fullName;
+
+    // Maintained with relative SQL updates on follow/unfollow, never written by JPA
+    @Column(name = "follower_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long followerCount = 0;
     @Column(name = "otp")
     private String otp;
     @Enumerated(EnumType.STRING)
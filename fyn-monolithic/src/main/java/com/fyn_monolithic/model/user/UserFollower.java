@@ -3,6 +3,7 @@ package com.fyn_monolithic.model.user;
 import com.fyn_monolithic.model.common.AbstractAuditableEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,7 +13,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "user_followers")
+@Table(name = "user_followers", indexes = {
+        @Index(name = "idx_user_followers_follower", columnList = "follower_id, user_id")
+})
 public class UserFollower extends AbstractAuditableEntity {
 
     @ManyToOne
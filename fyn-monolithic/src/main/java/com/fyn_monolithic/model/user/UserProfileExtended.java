@@ -5,6 +5,7 @@ import com.fyn_monolithic.model.common.AbstractAuditableEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
@@ -20,7 +21,9 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "user_profiles_extended")
+@Table(name = "user_profiles_extended", indexes = {
+        @Index(name = "idx_user_profiles_extended_updated_at", columnList = "updated_at")
+})
 public class UserProfileExtended extends AbstractAuditableEntity {
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -7,13 +7,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ConnectionRepository extends JpaRepository<Connection, UUID> {
+public interface ConnectionRepository extends JpaRepository<Connection, UUID>, ConnectionRepositoryCustom {
 
     Optional<Connection> findByRequesterIdAndReceiverIdAndConnectionType(UUID requesterId, UUID receiverId,
             ConnectionType connectionType);
@@ -33,4 +37,78 @@ public interface ConnectionRepository extends JpaRepository<Connection, UUID> {
 
     // Check if connection exists
     boolean existsByRequesterIdAndReceiverId(UUID requesterId, UUID receiverId);
+
+    /**
+     * Swipe matches of a user with the counterpart's profile fields, newest first,
+     * keyset-paginated on (created_at, id). Each side of the pair is served by its own
+     * covering index, hence the UNION ALL instead of an OR.
+     */
+    @Query(value = """
+            SELECT m.id AS connectionId, m.created_at AS matchedAt,
+                   u.id AS userId, u.username AS username, u.full_name AS fullName,
+                   p.bio AS bio, p.avatar_object_key AS avatarObjectKey
+            FROM (
+                (SELECT c.id, c.created_at, c.receiver_id AS other_id
+                 FROM connections c
+                 WHERE c.requester_id = :userId
+                   AND c.status = 'ACCEPTED' AND c.match_source = 'SWIPE'
+                   AND (CAST(:cursorAt AS timestamptz) IS NULL
+                        OR (c.created_at, c.id) < (CAST(:cursorAt AS timestamptz), CAST(:cursorId AS uuid)))
+                 ORDER BY c.created_at DESC, c.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT c.id, c.created_at, c.requester_id AS other_id
+                 FROM connections c
+                 WHERE c.receiver_id = :userId
+                   AND c.status = 'ACCEPTED' AND c.match_source = 'SWIPE'
+                   AND (CAST(:cursorAt AS timestamptz) IS NULL
+                        OR (c.created_at, c.id) < (CAST(:cursorAt AS timestamptz), CAST(:cursorId AS uuid)))
+                 ORDER BY c.created_at DESC, c.id DESC
+                 LIMIT :limit)
+            ) m
+            JOIN users u ON u.id = m.other_id
+            LEFT JOIN user_profiles p ON p.user_id = u.id
+            ORDER BY m.created_at DESC, m.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<MatchRow> findSwipeMatches(@Param("userId") UUID userId,
+                                    @Param("cursorAt") Instant cursorAt,
+                                    @Param("cursorId") UUID cursorId,
+                                    @Param("limit") int limit);
+
+    interface MatchRow {
+        UUID getConnectionId();
+
+        Instant getMatchedAt();
+
+        UUID getUserId();
+
+        String getUsername();
+
+        String getFullName();
+
+        String getBio();
+
+        String getAvatarObjectKey();
+    }
+
+    // Ids of the other side of every connection of a user in the given status
+    @Query("""
+            SELECT CASE WHEN c.requester.id = :userId THEN c.receiver.id ELSE c.requester.id END
+            FROM Connection c
+            WHERE (c.requester.id = :userId OR c.receiver.id = :userId) AND c.status = :status
+            """)
+    List<UUID> findCounterpartIds(@Param("userId") UUID userId, @Param("status") ConnectionStatus status);
+
+    // Which of the given users have a connection with the user in one of the given statuses
+    @Query("""
+            SELECT CASE WHEN c.requester.id = :userId THEN c.receiver.id ELSE c.requester.id END
+            FROM Connection c
+            WHERE ((c.requester.id = :userId AND c.receiver.id IN :otherIds)
+                OR (c.receiver.id = :userId AND c.requester.id IN :otherIds))
+              AND c.status IN :statuses
+            """)
+    List<UUID> findCounterpartIdsAmong(@Param("userId") UUID userId,
+                                       @Param("otherIds") Collection<UUID> otherIds,
+                                       @Param("statuses") Collection<ConnectionStatus> statuses);
 }
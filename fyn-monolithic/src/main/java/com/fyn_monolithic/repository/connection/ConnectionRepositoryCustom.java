@@ -0,0 +1,13 @@
+package com.fyn_monolithic.repository.connection;
+
+import java.util.UUID;
+
+public interface ConnectionRepositoryCustom {
+
+    /**
+     * Inserts an accepted swipe match between the two users unless the pair already has a
+     * connection in either direction (ON CONFLICT on uq_connections_pair). Returns whether
+     * this call created it, so concurrent callers agree on exactly one winner.
+     */
+    boolean insertMatchIfAbsent(UUID userId1, UUID userId2);
+}
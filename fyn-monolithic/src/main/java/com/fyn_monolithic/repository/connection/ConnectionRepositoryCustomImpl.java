@@ -0,0 +1,26 @@
+package com.fyn_monolithic.repository.connection;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ConnectionRepositoryCustomImpl implements ConnectionRepositoryCustom {
+
+    private static final String INSERT_MATCH_SQL = """
+            INSERT INTO connections (id, requester_id, receiver_id, connection_type, status, match_source,
+                                     requested_at, requester_follows_receiver, receiver_follows_requester,
+                                     created_at, updated_at, version)
+            VALUES (gen_random_uuid(), ?, ?, 'FRIEND', 'ACCEPTED', 'SWIPE',
+                    localtimestamp, true, false, now(), now(), 0)
+            ON CONFLICT (LEAST(requester_id, receiver_id), GREATEST(requester_id, receiver_id)) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean insertMatchIfAbsent(UUID userId1, UUID userId2) {
+        return jdbcTemplate.update(INSERT_MATCH_SQL, userId1, userId2) == 1;
+    }
+}
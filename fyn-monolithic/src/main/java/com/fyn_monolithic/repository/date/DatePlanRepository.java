@@ -3,6 +3,7 @@ package com.fyn_monolithic.repository.date;
 import com.fyn_monolithic.model.date.ConnectionTypeEnum;
 import com.fyn_monolithic.model.date.DatePlan;
 import com.fyn_monolithic.model.date.DateStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,23 +11,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface DatePlanRepository extends JpaRepository<DatePlan, UUID> {
 
-    // Find public dates for browsing
-    @Query("SELECT d FROM DatePlan d WHERE d.isPublic = true AND d.status = :status ORDER BY d.scheduledAt ASC")
-    Page<DatePlan> findPublicDates(@Param("status") DateStatus status, Pageable pageable);
-
-    // Find public dates with filters
-    @Query("SELECT d FROM DatePlan d WHERE d.isPublic = true AND d.status = 'OPEN' " +
+    // Find public dates for browsing, soonest first, one keyset page after the cursor
+    @Query("SELECT d FROM DatePlan d WHERE d.isPublic = true AND d.status = :status " +
             "AND (:connectionType IS NULL OR d.connectionType = :connectionType) " +
-            "ORDER BY d.scheduledAt ASC")
-    Page<DatePlan> findPublicDatesByType(
+            "AND (:cursorAt IS NULL OR (d.scheduledAt, d.id) > (:cursorAt, :cursorId)) " +
+            "ORDER BY d.scheduledAt ASC, d.id ASC")
+    List<DatePlan> findPublicDatesPage(
+            @Param("status") DateStatus status,
             @Param("connectionType") ConnectionTypeEnum connectionType,
-            Pageable pageable);
+            @Param("cursorAt") ZonedDateTime cursorAt,
+            @Param("cursorId") UUID cursorId,
+            Limit limit);
 
     // Find user's own dates
     Page<DatePlan> findByOwnerIdOrderByScheduledAtDesc(UUID ownerId, Pageable pageable);
@@ -2,6 +2,7 @@ package com.fyn_monolithic.repository.date;
 
 import com.fyn_monolithic.model.date.Meetup;
 import com.fyn_monolithic.model.date.MeetupStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,19 +10,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface MeetupRepository extends JpaRepository<Meetup, UUID> {
 
-    // Find open meetups
-    Page<Meetup> findByStatusOrderByScheduledAtAsc(MeetupStatus status, Pageable pageable);
-
-    // Find meetups by category
-    Page<Meetup> findByCategoryAndStatusOrderByScheduledAtAsc(
-            String category,
-            MeetupStatus status,
-            Pageable pageable);
+    // Find meetups by status (and category), soonest first, one keyset page after the cursor
+    @Query("SELECT m FROM Meetup m WHERE m.status = :status " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND (:cursorAt IS NULL OR (m.scheduledAt, m.id) > (:cursorAt, :cursorId)) " +
+            "ORDER BY m.scheduledAt ASC, m.id ASC")
+    List<Meetup> findPage(
+            @Param("status") MeetupStatus status,
+            @Param("category") String category,
+            @Param("cursorAt") ZonedDateTime cursorAt,
+            @Param("cursorId") UUID cursorId,
+            Limit limit);
 
     // Find meetups organized by a user
     Page<Meetup> findByOrganizerIdOrderByScheduledAtDesc(UUID organizerId, Pageable pageable);
@@ -2,11 +2,35 @@ package com.fyn_monolithic.repository.match;
 
 import com.fyn_monolithic.model.match.MatchScore;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface MatchScoreRepository extends JpaRepository<MatchScore, UUID> {
-    // Basic CRUD for now
+public interface MatchScoreRepository extends JpaRepository<MatchScore, UUID>, MatchScoreRepositoryCustom {
+
+    // Precomputed scores between a viewer and a page of candidates (pairs are stored once)
+    @Query("""
+            select s from MatchScore s
+            where (s.user1.id = :viewerId and s.user2.id in :otherIds)
+               or (s.user2.id = :viewerId and s.user1.id in :otherIds)
+            """)
+    List<MatchScore> findForViewer(@Param("viewerId") UUID viewerId, @Param("otherIds") Collection<UUID> otherIds);
+
+    // Stored pairs with either side among the given users; each side has its own index
+    @Query("""
+            select s.user1.id as userId1, s.user2.id as userId2 from MatchScore s
+            where s.user1.id in :userIds or s.user2.id in :userIds
+            """)
+    List<StoredPair> findPairsOf(@Param("userIds") Collection<UUID> userIds);
+
+    interface StoredPair {
+        UUID getUserId1();
+
+        UUID getUserId2();
+    }
 }
@@ -0,0 +1,35 @@
+package com.fyn_monolithic.repository.match;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface MatchScoreRepositoryCustom {
+
+    /**
+     * Inserts or refreshes scores keyed on (user_id_1, user_id_2) in JDBC batches.
+     */
+    void upsertAll(List<ScoredPair> scores);
+
+    /**
+     * Database clock, so cutoffs compare with updated_at as stamped by {@link #upsertAll}.
+     */
+    Instant databaseNow();
+
+    /**
+     * Deletes up to {@code limit} rows last written before {@code cutoff}; returns how many.
+     */
+    int deleteNotUpdatedSince(Instant cutoff, int limit);
+
+    /**
+     * Score row for an unordered pair; {@code userId1} must sort before {@code userId2}.
+     */
+    record ScoredPair(UUID userId1,
+                      UUID userId2,
+                      double totalScore,
+                      double interestScore,
+                      double locationScore,
+                      double activityScore,
+                      List<String> commonInterests) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.fyn_monolithic.repository.match;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MatchScoreRepositoryCustomImpl implements MatchScoreRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO match_scores (id, user_id_1, user_id_2, total_score, interest_score,
+                                      location_score, activity_score, common_interests,
+                                      created_at, updated_at, version)
+            VALUES (gen_random_uuid(), ?, ?, ?, ?, ?, ?, ?, now(), now(), 0)
+            ON CONFLICT (user_id_1, user_id_2) DO UPDATE SET
+                total_score = EXCLUDED.total_score,
+                interest_score = EXCLUDED.interest_score,
+                location_score = EXCLUDED.location_score,
+                activity_score = EXCLUDED.activity_score,
+                common_interests = EXCLUDED.common_interests,
+                updated_at = now(),
+                version = match_scores.version + 1
+            """;
+
+    // Chunked so a large prune does not hold locks on the whole table
+    private static final String DELETE_STALE_SQL = """
+            DELETE FROM match_scores
+            WHERE id IN (SELECT id FROM match_scores WHERE updated_at < ? LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(List<ScoredPair> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, scores, scores.size(), (ps, score) -> {
+            Array interests = ps.getConnection()
+                    .createArrayOf("text", score.commonInterests().toArray());
+            ps.setObject(1, score.userId1());
+            ps.setObject(2, score.userId2());
+            ps.setDouble(3, score.totalScore());
+            ps.setDouble(4, score.interestScore());
+            ps.setDouble(5, score.locationScore());
+            ps.setDouble(6, score.activityScore());
+            ps.setArray(7, interests);
+        });
+    }
+
+    @Override
+    public Instant databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+    }
+
+    @Override
+    public int deleteNotUpdatedSince(Instant cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_STALE_SQL, Timestamp.from(cutoff), limit);
+    }
+}
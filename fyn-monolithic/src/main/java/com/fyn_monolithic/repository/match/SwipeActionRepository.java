@@ -3,22 +3,48 @@ package com.fyn_monolithic.repository.match;
 import com.fyn_monolithic.model.match.SwipeAction;
 import com.fyn_monolithic.model.match.SwipeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface SwipeActionRepository extends JpaRepository<SwipeAction, UUID> {
+public interface SwipeActionRepository extends JpaRepository<SwipeAction, UUID>, SwipeActionRepositoryCustom {
     Optional<SwipeAction> findByActorIdAndTargetId(UUID actorId, UUID targetId);
 
     // Find all swipe actions by an actor
     List<SwipeAction> findByActorId(UUID actorId);
 
+    // Target ids only, used to build the in-memory swiped set
+    @Query("select s.target.id from SwipeAction s where s.actor.id = :actorId")
+    List<UUID> findTargetIdsByActorId(@Param("actorId") UUID actorId);
+
+    // Likes on a target that the target has not answered with a swipe yet, used to seed the inbound-likes index
+    @Query("""
+            select s.actor.id as actorId, s.createdAt as createdAt from SwipeAction s
+            where s.target.id = :targetId and s.actionType in :types
+              and not exists (
+                  select 1 from SwipeAction r where r.actor.id = :targetId and r.target.id = s.actor.id)
+            """)
+    List<InboundLike> findUnansweredLikes(@Param("targetId") UUID targetId,
+                                          @Param("types") Collection<SwipeType> types);
+
+    boolean existsByActorIdAndTargetIdAndActionTypeIn(UUID actorId, UUID targetId, Collection<SwipeType> actionTypes);
+
     // Check if actor already swiped on target
     boolean existsByActorIdAndTargetId(UUID actorId, UUID targetId);
 
     // Check if target has already liked actor
     boolean existsByActorIdAndTargetIdAndActionType(UUID actorId, UUID targetId, SwipeType actionType);
+
+    interface InboundLike {
+        UUID getActorId();
+
+        Instant getCreatedAt();
+    }
 }
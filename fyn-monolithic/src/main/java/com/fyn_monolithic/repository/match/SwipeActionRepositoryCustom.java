@@ -0,0 +1,28 @@
+package com.fyn_monolithic.repository.match;
+
+import com.fyn_monolithic.model.match.SwipeType;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SwipeActionRepositoryCustom {
+
+    /**
+     * Inserts swipes in one JDBC batch. Pairs that already have a swipe are skipped
+     * (ON CONFLICT DO NOTHING), so replaying the same swipes is harmless.
+     */
+    void insertIgnoringDuplicates(List<PendingSwipe> swipes);
+
+    /**
+     * The likes among {@code swipes} whose target has liked the actor back.
+     */
+    List<PendingSwipe> findReciprocatedLikes(List<PendingSwipe> swipes);
+
+    record PendingSwipe(UUID actorId, UUID targetId, SwipeType type, Instant createdAt) {
+
+        public boolean isLike() {
+            return type == SwipeType.LIKE || type == SwipeType.SUPERLIKE;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.fyn_monolithic.repository.match;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class SwipeActionRepositoryCustomImpl implements SwipeActionRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO swipe_actions (id, actor_id, target_id, action_type, is_mutual,
+                                       created_at, updated_at, version)
+            VALUES (gen_random_uuid(), ?, ?, ?, false, ?, ?, 0)
+            ON CONFLICT (actor_id, target_id) DO NOTHING
+            """;
+
+    // Reverse likes of the given (actor, target) pairs, matched with unnest over two parallel arrays
+    private static final String RECIPROCATED_SQL = """
+            SELECT s.target_id, s.actor_id
+            FROM swipe_actions s
+            JOIN unnest(?::uuid[], ?::uuid[]) AS p(actor_id, target_id)
+              ON s.actor_id = p.target_id AND s.target_id = p.actor_id
+            WHERE s.action_type IN ('LIKE', 'SUPERLIKE')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertIgnoringDuplicates(List<PendingSwipe> swipes) {
+        if (swipes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, swipes, swipes.size(), (ps, swipe) -> {
+            Timestamp createdAt = Timestamp.from(swipe.createdAt());
+            ps.setObject(1, swipe.actorId());
+            ps.setObject(2, swipe.targetId());
+            ps.setString(3, swipe.type().name());
+            ps.setTimestamp(4, createdAt);
+            ps.setTimestamp(5, createdAt);
+        });
+    }
+
+    @Override
+    public List<PendingSwipe> findReciprocatedLikes(List<PendingSwipe> swipes) {
+        List<PendingSwipe> likes = swipes.stream().filter(PendingSwipe::isLike).toList();
+        if (likes.isEmpty()) {
+            return List.of();
+        }
+        String[] actors = likes.stream().map(like -> like.actorId().toString()).toArray(String[]::new);
+        String[] targets = likes.stream().map(like -> like.targetId().toString()).toArray(String[]::new);
+        Set<List<UUID>> reciprocated = jdbcTemplate.query(RECIPROCATED_SQL,
+                        (rs, rowNum) -> List.of(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)),
+                        actors, targets)
+                .stream()
+                .collect(Collectors.toSet());
+        return likes.stream()
+                .filter(like -> reciprocated.contains(List.of(like.actorId(), like.targetId())))
+                .toList();
+    }
+}
@@ -1,13 +1,27 @@
 package com.fyn_monolithic.repository.message;
 
-import com.fyn_monolithic.model.message.Conversation;
 import com.fyn_monolithic.model.message.Message;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
-    Page<Message> findByConversation(Conversation conversation, Pageable pageable);
+    /**
+     * One keyset page of a conversation's messages, newest first; a null cursor starts at the newest.
+     */
+    @Query("""
+            SELECT m FROM Message m
+            WHERE m.conversation.id = :conversationId
+              AND (:cursorAt IS NULL OR (m.createdAt, m.id) < (:cursorAt, :cursorId))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<Message> findPageByConversation(@Param("conversationId") UUID conversationId,
+                                         @Param("cursorAt") Instant cursorAt,
+                                         @Param("cursorId") UUID cursorId,
+                                         Limit limit);
 }
@@ -3,14 +3,29 @@ package com.fyn_monolithic.repository.notification;
 import com.fyn_monolithic.model.notification.Notification;
 import com.fyn_monolithic.model.notification.NotificationStatus;
 import com.fyn_monolithic.model.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
-    Page<Notification> findByRecipient(User recipient, Pageable pageable);
+    /**
+     * One keyset page of a user's notifications, newest first; a null cursor starts at the newest.
+     */
+    @Query("""
+            SELECT n FROM Notification n
+            WHERE n.recipient.id = :recipientId
+              AND (:cursorAt IS NULL OR (n.createdAt, n.id) < (:cursorAt, :cursorId))
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<Notification> findPageByRecipient(@Param("recipientId") UUID recipientId,
+                                           @Param("cursorAt") Instant cursorAt,
+                                           @Param("cursorId") UUID cursorId,
+                                           Limit limit);
 
     long countByRecipientAndStatus(User recipient, NotificationStatus status);
 }
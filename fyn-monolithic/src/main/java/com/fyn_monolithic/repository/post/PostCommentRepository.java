@@ -2,13 +2,54 @@ package com.fyn_monolithic.repository.post;
 
 import com.fyn_monolithic.model.post.Post;
 import com.fyn_monolithic.model.post.PostComment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface PostCommentRepository extends JpaRepository<PostComment, UUID> {
-    List<PostComment> findByPostOrderByCreatedAtAsc(Post post);
+public interface PostCommentRepository extends JpaRepository<PostComment, UUID>, PostCommentRepositoryCustom {
 
     long countByPost(Post post);
+
+    /**
+     * One keyset page of a post's top-level comments, oldest first; a null cursor starts
+     * at the oldest.
+     */
+    @EntityGraph(attributePaths = {"author", "author.profile", "author.settings"})
+    @Query("""
+            SELECT c FROM PostComment c
+            WHERE c.post.id = :postId AND c.parentComment IS NULL
+              AND (:cursorAt IS NULL OR (c.createdAt, c.id) > (:cursorAt, :cursorId))
+            ORDER BY c.createdAt, c.id
+            """)
+    List<PostComment> findTopLevelPage(@Param("postId") UUID postId,
+                                       @Param("cursorAt") Instant cursorAt,
+                                       @Param("cursorId") UUID cursorId,
+                                       Limit limit);
+
+    /**
+     * One keyset page of a comment's direct replies, oldest first.
+     */
+    @EntityGraph(attributePaths = {"author", "author.profile", "author.settings"})
+    @Query("""
+            SELECT c FROM PostComment c
+            WHERE c.post.id = :postId AND c.parentComment.id = :parentId
+              AND (:cursorAt IS NULL OR (c.createdAt, c.id) > (:cursorAt, :cursorId))
+            ORDER BY c.createdAt, c.id
+            """)
+    List<PostComment> findRepliesPage(@Param("postId") UUID postId,
+                                      @Param("parentId") UUID parentId,
+                                      @Param("cursorAt") Instant cursorAt,
+                                      @Param("cursorId") UUID cursorId,
+                                      Limit limit);
+
+    @EntityGraph(attributePaths = {"author", "author.profile", "author.settings"})
+    @Query("SELECT c FROM PostComment c WHERE c.id IN :ids ORDER BY c.createdAt, c.id")
+    List<PostComment> findWithAuthorByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,18 @@
+package com.fyn_monolithic.repository.post;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface PostCommentRepositoryCustom {
+
+    /**
+     * Adds {@code delta} to the comment's reply count (relative update, never below zero).
+     */
+    void adjustReplyCount(UUID commentId, long delta);
+
+    /**
+     * Ids of the oldest {@code perParent} replies of each given comment, in one query.
+     */
+    List<UUID> findFirstReplyIds(Collection<UUID> parentIds, int perParent);
+}
@@ -0,0 +1,44 @@
+package com.fyn_monolithic.repository.post;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class PostCommentRepositoryCustomImpl implements PostCommentRepositoryCustom {
+
+    private static final String ADJUST_REPLY_COUNT_SQL = """
+            UPDATE post_comments
+            SET reply_count = GREATEST(reply_count + ?, 0)
+            WHERE id = ?
+            """;
+
+    // Each parent's replies are read through idx_post_comments_thread and cut off per parent
+    private static final String FIRST_REPLIES_SQL = """
+            SELECT id FROM (
+                SELECT c.id, row_number() OVER (PARTITION BY c.parent_comment_id ORDER BY c.created_at, c.id) AS position
+                FROM post_comments c
+                WHERE c.parent_comment_id = ANY (?::uuid[])
+            ) ranked
+            WHERE position <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void adjustReplyCount(UUID commentId, long delta) {
+        jdbcTemplate.update(ADJUST_REPLY_COUNT_SQL, delta, commentId);
+    }
+
+    @Override
+    public List<UUID> findFirstReplyIds(Collection<UUID> parentIds, int perParent) {
+        if (parentIds.isEmpty() || perParent <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(FIRST_REPLIES_SQL, UUID.class,
+                parentIds.stream().map(UUID::toString).toArray(String[]::new), perParent);
+    }
+}
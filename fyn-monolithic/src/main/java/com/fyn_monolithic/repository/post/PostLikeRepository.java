@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,6 +19,9 @@ public interface PostLikeRepository extends JpaRepository<PostLike, UUID> {
 
     long countByPost(Post post);
 
-    @Query("select pl.post.id from PostLike pl where pl.user = :user and pl.post in :posts")
-    Set<UUID> findPostIdsLikedByUser(@Param("user") User user, @Param("posts") List<Post> posts);
+    @Query("select pl.post.id from PostLike pl where pl.user = :user and pl.post.id in :postIds")
+    Set<UUID> findPostIdsLikedByUser(@Param("user") User user, @Param("postIds") Collection<UUID> postIds);
+
+    @Query("select pl.post.id from PostLike pl where pl.user.id = :userId and pl.post.createdAt >= :since")
+    List<UUID> findPostIdsLikedByUserSince(@Param("userId") UUID userId, @Param("since") Instant since);
 }
@@ -1,13 +1,108 @@
 package com.fyn_monolithic.repository.post;
 
 import com.fyn_monolithic.model.post.Post;
-import com.fyn_monolithic.model.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.fyn_monolithic.model.post.PostVisibility;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-public interface PostRepository extends JpaRepository<Post, UUID> {
-    Page<Post> findByAuthor(User author, Pageable pageable);
+public interface PostRepository extends JpaRepository<Post, UUID>, PostRepositoryCustom {
+    /**
+     * Posts with everything a {@code PostResponse} needs (author, the author's profile and
+     * settings, media) fetched in the same query.
+     */
+    @EntityGraph(attributePaths = {"author", "author.profile", "author.settings", "media"})
+    @Query("SELECT DISTINCT p FROM Post p WHERE p.id IN :ids")
+    List<Post> findWithFeedGraphByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * One keyset page of an author's posts, newest first; a null cursor starts at the newest.
+     * Returns ids only so the page can be hydrated with a collection fetch, which cannot be
+     * combined with a row limit.
+     */
+    @Query("""
+            SELECT p.id AS id, p.createdAt AS createdAt FROM Post p
+            WHERE p.author.id = :authorId
+              AND (:cursorAt IS NULL OR (p.createdAt, p.id) < (:cursorAt, :cursorId))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<TimelineEntry> findPageByAuthor(@Param("authorId") UUID authorId,
+                                @Param("cursorAt") Instant cursorAt,
+                                @Param("cursorId") UUID cursorId,
+                                Limit limit);
+
+    /**
+     * Newest posts for a home timeline: the user's own posts plus non-private posts of
+     * the users they follow (unless muted). Soft-deleted posts and posts of deleted or
+     * inactive authors are left out.
+     */
+    @Query("""
+            SELECT p.id AS id, p.createdAt AS createdAt FROM Post p JOIN p.author a
+            WHERE p.deletedAt IS NULL
+              AND a.deletedAt IS NULL
+              AND a.status = com.fyn_monolithic.model.user.UserStatus.ACTIVE
+              AND (a.id = :userId
+                   OR (p.visibility <> com.fyn_monolithic.model.post.PostVisibility.PRIVATE
+                       AND a.id IN (SELECT f.user.id FROM UserFollower f
+                                    WHERE f.follower.id = :userId AND f.muted = false)))
+            ORDER BY p.createdAt DESC
+            """)
+    List<TimelineEntry> findTimelineEntries(@Param("userId") UUID userId, Limit limit);
+
+    @Query("""
+            SELECT p.id AS id, p.createdAt AS createdAt FROM Post p
+            WHERE p.author.id = :authorId
+              AND p.visibility <> com.fyn_monolithic.model.post.PostVisibility.PRIVATE
+              AND p.deletedAt IS NULL
+            ORDER BY p.createdAt DESC
+            """)
+    List<TimelineEntry> findRecentVisibleEntries(@Param("authorId") UUID authorId, Limit limit);
+
+    /**
+     * Same candidates as {@link #findTimelineEntries}, with what ranking needs.
+     */
+    @Query("""
+            SELECT p.id AS id, a.id AS authorId, p.visibility AS visibility, p.createdAt AS createdAt,
+                   p.likeCount AS likeCount, p.commentCount AS commentCount
+            FROM Post p JOIN p.author a
+            WHERE p.deletedAt IS NULL
+              AND a.deletedAt IS NULL
+              AND a.status = com.fyn_monolithic.model.user.UserStatus.ACTIVE
+              AND (a.id = :userId
+                   OR (p.visibility <> com.fyn_monolithic.model.post.PostVisibility.PRIVATE
+                       AND a.id IN (SELECT f.user.id FROM UserFollower f
+                                    WHERE f.follower.id = :userId AND f.muted = false)))
+            ORDER BY p.createdAt DESC
+            """)
+    List<RankingEntry> findRankingCandidates(@Param("userId") UUID userId, Limit limit);
+
+    @Query("SELECT p.id FROM Post p WHERE p.author.id = :authorId")
+    List<UUID> findIdsByAuthorId(@Param("authorId") UUID authorId);
+
+    interface TimelineEntry {
+        UUID getId();
+
+        Instant getCreatedAt();
+    }
+
+    interface RankingEntry {
+        UUID getId();
+
+        UUID getAuthorId();
+
+        PostVisibility getVisibility();
+
+        Instant getCreatedAt();
+
+        long getLikeCount();
+
+        long getCommentCount();
+    }
 }
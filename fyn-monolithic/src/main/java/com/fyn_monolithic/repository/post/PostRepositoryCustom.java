@@ -0,0 +1,29 @@
+package com.fyn_monolithic.repository.post;
+
+import com.fyn_monolithic.model.post.PostVisibility;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PostRepositoryCustom {
+
+    /**
+     * Adds aggregated like/comment deltas to their posts in one statement, relative to
+     * the stored values (never below zero) and without touching the entity version.
+     * Returns each updated post's counts right before and after its update; posts that no
+     * longer exist are left out.
+     */
+    List<EngagementChange> applyEngagementDeltas(List<EngagementDelta> deltas);
+
+    record EngagementDelta(UUID postId, long likes, long comments) {
+    }
+
+    record EngagementChange(UUID postId,
+                            UUID authorId,
+                            PostVisibility visibility,
+                            long likesBefore,
+                            long commentsBefore,
+                            long likesAfter,
+                            long commentsAfter) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.fyn_monolithic.repository.post;
+
+import com.fyn_monolithic.model.post.PostVisibility;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    // The subquery locks the rows in id order, so concurrent flushes cannot deadlock, and
+    // reads the counts the update starts from; RETURNING on its own only sees the new ones
+    private static final String APPLY_DELTAS_SQL = """
+            UPDATE posts p
+            SET like_count = GREATEST(p.like_count + d.likes, 0),
+                comment_count = GREATEST(p.comment_count + d.comments, 0)
+            FROM (SELECT x.id, x.like_count, x.comment_count, u.likes, u.comments
+                  FROM posts x
+                  JOIN unnest(?::uuid[], ?::bigint[], ?::bigint[]) AS u(id, likes, comments) ON u.id = x.id
+                  ORDER BY x.id
+                  FOR UPDATE OF x) d
+            WHERE p.id = d.id
+            RETURNING p.id, p.author_id, p.visibility,
+                      d.like_count AS likes_before, d.comment_count AS comments_before,
+                      p.like_count AS likes_after, p.comment_count AS comments_after
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<EngagementChange> applyEngagementDeltas(List<EngagementDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(APPLY_DELTAS_SQL,
+                (rs, rowNum) -> new EngagementChange(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("author_id", UUID.class),
+                        PostVisibility.valueOf(rs.getString("visibility")),
+                        rs.getLong("likes_before"),
+                        rs.getLong("comments_before"),
+                        rs.getLong("likes_after"),
+                        rs.getLong("comments_after")),
+                deltas.stream().map(delta -> delta.postId().toString()).toArray(String[]::new),
+                deltas.stream().map(EngagementDelta::likes).toArray(Long[]::new),
+                deltas.stream().map(EngagementDelta::comments).toArray(Long[]::new));
+    }
+}
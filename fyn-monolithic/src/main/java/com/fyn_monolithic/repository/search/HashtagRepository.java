@@ -6,6 +6,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface HashtagRepository extends JpaRepository<Hashtag, UUID> {
+public interface HashtagRepository extends JpaRepository<Hashtag, UUID>, HashtagRepositoryCustom {
     Optional<Hashtag> findByTag(String tag);
 }
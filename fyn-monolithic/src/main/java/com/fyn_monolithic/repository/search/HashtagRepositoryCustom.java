@@ -0,0 +1,29 @@
+package com.fyn_monolithic.repository.search;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface HashtagRepositoryCustom {
+
+    /**
+     * Creates the tags that do not exist yet and returns the ids of all of them: one
+     * INSERT ... ON CONFLICT DO NOTHING RETURNING, then one SELECT for the tags that
+     * already existed, if any. Existing hashtag rows are never locked.
+     */
+    Map<String, UUID> upsertTags(Collection<String> tags);
+
+    /**
+     * Adds usage deltas to their hashtags in one JDBC batch, relative to the stored values.
+     */
+    void incrementUsage(Map<UUID, Long> deltas);
+
+    /**
+     * Hands every tag with its usage count to the consumer row by row, without mapping entities.
+     */
+    void forEachTag(Consumer<TagUsage> consumer);
+
+    record TagUsage(String tag, long usageCount) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.fyn_monolithic.repository.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class HashtagRepositoryCustomImpl implements HashtagRepositoryCustom {
+
+    // DO NOTHING leaves existing rows unlocked, so popular tags don't serialize posts on
+    // their row; RETURNING then only covers the tags this statement created
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO hashtags (id, tag, usage_count, created_at, updated_at, version)
+            SELECT gen_random_uuid(), t.tag, 0, now(), now(), 0
+            FROM (SELECT DISTINCT unnest(?::text[]) AS tag) t
+            ON CONFLICT (tag) DO NOTHING
+            RETURNING id, tag
+            """;
+
+    // A separate statement, so under READ COMMITTED it also sees tags a concurrent
+    // transaction committed while the insert above waited on them
+    private static final String SELECT_EXISTING_SQL = "SELECT id, tag FROM hashtags WHERE tag = ANY(?::text[])";
+
+    private static final String INCREMENT_SQL = "UPDATE hashtags SET usage_count = usage_count + ? WHERE id = ?";
+
+    private static final String ALL_TAGS_SQL = "SELECT tag, usage_count FROM hashtags";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, UUID> upsertTags(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, UUID> ids = new HashMap<>();
+        RowCallbackHandler collect = rs -> ids.put(rs.getString("tag"), rs.getObject("id", UUID.class));
+        jdbcTemplate.query(INSERT_MISSING_SQL, collect, (Object) tags.toArray(String[]::new));
+
+        String[] existing = tags.stream()
+                .filter(tag -> !ids.containsKey(tag))
+                .distinct()
+                .toArray(String[]::new);
+        if (existing.length > 0) {
+            jdbcTemplate.query(SELECT_EXISTING_SQL, collect, (Object) existing);
+        }
+        return ids;
+    }
+
+    @Override
+    public void incrementUsage(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Long>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getValue());
+            ps.setObject(2, row.getKey());
+        });
+    }
+
+    @Override
+    public void forEachTag(Consumer<TagUsage> consumer) {
+        jdbcTemplate.query(ALL_TAGS_SQL,
+                (RowCallbackHandler) rs -> consumer.accept(new TagUsage(rs.getString("tag"), rs.getLong("usage_count"))));
+    }
+}
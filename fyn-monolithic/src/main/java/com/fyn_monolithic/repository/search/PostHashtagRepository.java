@@ -1,12 +1,37 @@
 package com.fyn_monolithic.repository.search;
 
 import com.fyn_monolithic.model.search.PostHashtag;
-import com.fyn_monolithic.model.search.Hashtag;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
-public interface PostHashtagRepository extends JpaRepository<PostHashtag, UUID> {
-    List<PostHashtag> findByHashtag(Hashtag hashtag);
+public interface PostHashtagRepository extends JpaRepository<PostHashtag, UUID>, PostHashtagRepositoryCustom {
+
+    /**
+     * One keyset page of the public posts carrying a tag, newest first; a null cursor starts
+     * at the newest. Walks the (hashtag_id, created_at, post_id) index, whose created_at is
+     * the post's creation time.
+     */
+    @Query("""
+            SELECT ph.post.id AS postId, ph.createdAt AS createdAt FROM PostHashtag ph
+            WHERE ph.hashtag.tag = :tag
+              AND ph.post.visibility = com.fyn_monolithic.model.post.PostVisibility.PUBLIC
+              AND (:cursorAt IS NULL OR (ph.createdAt, ph.post.id) < (:cursorAt, :cursorId))
+            ORDER BY ph.createdAt DESC, ph.post.id DESC
+            """)
+    List<TaggedPost> findPageByTag(@Param("tag") String tag,
+                                   @Param("cursorAt") Instant cursorAt,
+                                   @Param("cursorId") UUID cursorId,
+                                   Limit limit);
+
+    interface TaggedPost {
+        UUID getPostId();
+
+        Instant getCreatedAt();
+    }
 }
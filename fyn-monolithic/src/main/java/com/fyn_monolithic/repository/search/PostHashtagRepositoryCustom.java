@@ -0,0 +1,14 @@
+package com.fyn_monolithic.repository.search;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface PostHashtagRepositoryCustom {
+
+    /**
+     * Links a post to its hashtags in one JDBC batch; links that already exist are skipped.
+     * Rows take the post's creation time, so tag pages can be ordered by it.
+     */
+    void insertAll(UUID postId, Instant postCreatedAt, Collection<UUID> hashtagIds);
+}
@@ -0,0 +1,38 @@
+package com.fyn_monolithic.repository.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class PostHashtagRepositoryCustomImpl implements PostHashtagRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO post_hashtags (id, post_id, hashtag_id, created_at, updated_at, version)
+            VALUES (gen_random_uuid(), ?, ?, ?, ?, 0)
+            ON CONFLICT (post_id, hashtag_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(UUID postId, Instant postCreatedAt, Collection<UUID> hashtagIds) {
+        if (hashtagIds.isEmpty()) {
+            return;
+        }
+        List<UUID> rows = new ArrayList<>(hashtagIds);
+        Timestamp createdAt = Timestamp.from(postCreatedAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, hashtagId) -> {
+            ps.setObject(1, postId);
+            ps.setObject(2, hashtagId);
+            ps.setTimestamp(3, createdAt);
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+}
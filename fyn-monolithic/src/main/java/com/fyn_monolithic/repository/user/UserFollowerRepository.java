@@ -3,7 +3,10 @@ package com.fyn_monolithic.repository.user;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.model.user.UserFollower;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +17,32 @@ public interface UserFollowerRepository extends JpaRepository<UserFollower, UUID
     List<UserFollower> findByUser(User user);
     List<UserFollower> findByFollower(User follower);
     Optional<UserFollower> findByUserAndFollower(User user, User follower);
+
+    @Query("SELECT f.follower.id FROM UserFollower f WHERE f.user.id = :userId AND f.muted = false")
+    List<UUID> findUnmutedFollowerIds(@Param("userId") UUID userId);
+
+    /**
+     * Unmuted followers of several users at once, as (user, follower) pairs.
+     */
+    @Query("""
+            SELECT f.user.id AS userId, f.follower.id AS followerId FROM UserFollower f
+            WHERE f.user.id IN :userIds AND f.muted = false
+            """)
+    List<FollowerLink> findUnmutedFollowerLinks(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Which of the given users the follower follows without muting them.
+     */
+    @Query("""
+            SELECT f.user.id FROM UserFollower f
+            WHERE f.follower.id = :followerId AND f.muted = false AND f.user.id IN :userIds
+            """)
+    List<UUID> findUnmutedFollowedIdsAmong(@Param("followerId") UUID followerId,
+                                           @Param("userIds") Collection<UUID> userIds);
+
+    interface FollowerLink {
+        UUID getUserId();
+
+        UUID getFollowerId();
+    }
 }
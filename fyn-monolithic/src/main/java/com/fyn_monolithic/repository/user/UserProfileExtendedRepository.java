@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,18 +16,57 @@ import java.util.UUID;
 public interface UserProfileExtendedRepository extends JpaRepository<UserProfileExtended, UUID> {
     Optional<UserProfileExtended> findByUserId(UUID userId);
 
+    @Query("select p from UserProfileExtended p join fetch p.user u where u.id in :userIds")
+    List<UserProfileExtended> findByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Users whose extended profile or own row changed since the watermark (delta sync of
+     * match features). One branch per table so each is an index range scan on updated_at.
+     */
+    @Query(value = """
+            SELECT p.user_id FROM user_profiles_extended p WHERE p.updated_at >= :since
+            UNION
+            SELECT p.user_id FROM users u JOIN user_profiles_extended p ON p.user_id = u.id
+            WHERE u.updated_at >= :since
+            """, nativeQuery = true)
+    List<UUID> findUserIdsChangedSince(@Param("since") Instant since);
+
+    /**
+     * Nearest active users within a radius.
+     * Only used while the in-memory geo index is not loaded yet.
+     */
     @Query(value = """
-            SELECT * FROM user_profiles_extended u
-            WHERE ST_DWithin(
-                ST_SetSRID(ST_MakePoint(u.location_lng, u.location_lat), 4326),
-                ST_SetSRID(ST_MakePoint(:lng, :lat), 4326),
-                :radiusInMeters
-            )
-            AND u.user_id != :excludeUserId
+            SELECT n.user_id AS userId, n.distance_m AS distanceMeters FROM (
+                SELECT p.user_id,
+                       ST_Distance(
+                           CAST(ST_SetSRID(ST_MakePoint(p.location_lng, p.location_lat), 4326) AS geography),
+                           CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)) AS distance_m
+                FROM user_profiles_extended p
+                JOIN users u ON u.id = p.user_id
+                WHERE u.status = 'ACTIVE'
+                  AND u.deleted_at IS NULL
+                  AND p.deleted_at IS NULL
+                  AND p.location_lat IS NOT NULL
+                  AND p.location_lng IS NOT NULL
+                  AND p.user_id <> :excludeUserId
+                  AND ST_DWithin(
+                      CAST(ST_SetSRID(ST_MakePoint(p.location_lng, p.location_lat), 4326) AS geography),
+                      CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                      :radiusInMeters)
+            ) n
+            ORDER BY n.distance_m, n.user_id
+            LIMIT :limit
             """, nativeQuery = true)
-    List<UserProfileExtended> findNearbyUsers(
+    List<NearbyUser> findNearbyUserIds(
             @Param("lat") double lat,
             @Param("lng") double lng,
             @Param("radiusInMeters") double radiusInMeters,
-            @Param("excludeUserId") UUID excludeUserId);
+            @Param("excludeUserId") UUID excludeUserId,
+            @Param("limit") int limit);
+
+    interface NearbyUser {
+        UUID getUserId();
+
+        Double getDistanceMeters();
+    }
 }
@@ -1,17 +1,144 @@
 package com.fyn_monolithic.repository.user;
 
 import com.fyn_monolithic.model.user.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     Optional<User> findByPhone(String phone);
     Optional<User> findByUsername(String username);
-    List<User> findTop20ByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCase(String username, String fullName);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"profile", "settings"})
+    @Query("SELECT u FROM User u WHERE u.id IN :ids")
+    List<User> findWithProfileByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * The user's denormalized follower count, read by primary key instead of counting
+     * user_followers.
+     */
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :id")
+    Optional<Long> findFollowerCountById(@Param("id") UUID id);
+
+    /**
+     * Those of the given users who have fewer than {@code threshold} followers.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.followerCount < :threshold")
+    List<UUID> findIdsWithFollowerCountBelow(@Param("ids") Collection<UUID> ids,
+                                             @Param("threshold") long threshold);
+
+    /**
+     * One page of users matching a search, best match first: by trigram similarity of
+     * username or full name to the query, then by follower count, then by id.
+     * <p>
+     * Only the {@code candidates} nearest usernames and the {@code candidates} nearest full
+     * names are ranked. Each set is one bounded nearest-neighbour walk of a GiST trigram
+     * index (V4__add_user_search_trigram_indexes.sql), so the cost does not grow with the
+     * number of users; results past that set are not returned. Of the candidates, those
+     * similar enough for the {@code %} operator or containing the query are kept.
+     * Trigrams need a query of three or more characters; shorter ones go to
+     * {@link #searchPageByPrefix}.
+     */
+    @Query(value = """
+            WITH candidates AS (
+                (SELECT u.id FROM users u
+                 ORDER BY lower(u.username) <-> :query
+                 LIMIT :candidates)
+                UNION
+                (SELECT u.id FROM users u
+                 WHERE u.full_name IS NOT NULL
+                 ORDER BY lower(u.full_name) <-> :query
+                 LIMIT :candidates)
+            )
+            SELECT m.id AS id, m.score AS score, m.follower_count AS followerCount
+            FROM (
+                SELECT u.id,
+                       GREATEST(similarity(lower(u.username), :query),
+                                similarity(lower(COALESCE(u.full_name, '')), :query)) AS score,
+                       u.follower_count
+                FROM candidates c
+                JOIN users u ON u.id = c.id
+                WHERE u.deleted_at IS NULL
+                  AND (lower(u.username) % :query
+                       OR lower(u.full_name) % :query
+                       OR lower(u.username) LIKE :pattern
+                       OR lower(u.full_name) LIKE :pattern)
+            ) m
+            WHERE CAST(:cursorScore AS real) IS NULL
+               OR (m.score, m.follower_count, m.id)
+                      < (CAST(:cursorScore AS real), CAST(:cursorFollowers AS bigint), CAST(:cursorId AS uuid))
+            ORDER BY m.score DESC, m.follower_count DESC, m.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSearchHit> searchPage(@Param("query") String query,
+                                   @Param("pattern") String pattern,
+                                   @Param("candidates") int candidates,
+                                   @Param("cursorScore") Float cursorScore,
+                                   @Param("cursorFollowers") Long cursorFollowers,
+                                   @Param("cursorId") UUID cursorId,
+                                   @Param("limit") int limit);
+
+    /**
+     * Search for queries too short for trigrams: users whose username or full name starts
+     * with the prefix, most followed first. Walks idx_users_follower_count in order and
+     * stops after {@code limit} matches, so a common prefix is cheap; every hit scores 0.
+     */
+    @Query(value = """
+            SELECT u.id AS id, CAST(0 AS real) AS score, u.follower_count AS followerCount
+            FROM users u
+            WHERE u.deleted_at IS NULL
+              AND (lower(u.username) LIKE :prefix OR lower(u.full_name) LIKE :prefix)
+              AND (CAST(:cursorFollowers AS bigint) IS NULL
+                   OR (u.follower_count, u.id) < (CAST(:cursorFollowers AS bigint), CAST(:cursorId AS uuid)))
+            ORDER BY u.follower_count DESC, u.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSearchHit> searchPageByPrefix(@Param("prefix") String prefix,
+                                           @Param("cursorFollowers") Long cursorFollowers,
+                                           @Param("cursorId") UUID cursorId,
+                                           @Param("limit") int limit);
+
+    /**
+     * Discover candidates for a viewer, keyset-paginated on id.
+     * Self, already swiped and blocked users are removed with anti-joins so the
+     * cost does not grow with the viewer's swipe history.
+     */
+    @Query(value = """
+            SELECT u.* FROM users u
+            WHERE u.status = 'ACTIVE'
+              AND u.deleted_at IS NULL
+              AND u.id <> :viewerId
+              AND (CAST(:afterId AS uuid) IS NULL OR u.id > CAST(:afterId AS uuid))
+              AND NOT EXISTS (
+                  SELECT 1 FROM swipe_actions s
+                  WHERE s.actor_id = :viewerId AND s.target_id = u.id)
+              AND NOT EXISTS (
+                  SELECT 1 FROM connections c
+                  WHERE c.status = 'BLOCKED'
+                    AND ((c.requester_id = :viewerId AND c.receiver_id = u.id)
+                      OR (c.requester_id = u.id AND c.receiver_id = :viewerId)))
+            ORDER BY u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<User> findDiscoverCandidates(
+            @Param("viewerId") UUID viewerId,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    interface UserSearchHit {
+        UUID getId();
+
+        float getScore();
+
+        long getFollowerCount();
+    }
+}
@@ -0,0 +1,22 @@
+package com.fyn_monolithic.repository.user;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Hands every non-deleted user's names and follower count to the consumer row by row,
+     * without mapping entities.
+     */
+    void forEachSearchName(Consumer<UserSearchName> consumer);
+
+    /**
+     * Adds {@code delta} to the user's denormalized follower count (relative update, never
+     * below zero).
+     */
+    void adjustFollowerCount(UUID userId, long delta);
+
+    record UserSearchName(UUID id, String username, String fullName, long followerCount) {
+    }
+}
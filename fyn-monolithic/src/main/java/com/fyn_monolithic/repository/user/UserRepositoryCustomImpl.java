@@ -0,0 +1,40 @@
+package com.fyn_monolithic.repository.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String SEARCH_NAMES_SQL = """
+            SELECT u.id, u.username, u.full_name, u.follower_count
+            FROM users u
+            WHERE u.deleted_at IS NULL
+            """;
+
+    private static final String ADJUST_FOLLOWER_COUNT_SQL = """
+            UPDATE users
+            SET follower_count = GREATEST(follower_count + ?, 0)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachSearchName(Consumer<UserSearchName> consumer) {
+        jdbcTemplate.query(SEARCH_NAMES_SQL, (RowCallbackHandler) rs -> consumer.accept(new UserSearchName(
+                rs.getObject("id", UUID.class),
+                rs.getString("username"),
+                rs.getString("full_name"),
+                rs.getLong("follower_count"))));
+    }
+
+    @Override
+    public void adjustFollowerCount(UUID userId, long delta) {
+        jdbcTemplate.update(ADJUST_FOLLOWER_COUNT_SQL, delta, userId);
+    }
+}
@@ -16,10 +16,12 @@ import com.fyn_monolithic.model.user.UserProfile;
 import com.fyn_monolithic.model.user.UserSettings;
 import com.fyn_monolithic.model.user.UserStatus;
 import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.service.user.UserRegisteredEvent;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -41,6 +43,7 @@ public class AuthService {
     private final UserMapper userMapper;
 
     private final JavaMailSender javaMailSender;
+    private final ApplicationEventPublisher eventPublisher;
     private final Map<String, String> otpCache = new ConcurrentHashMap<>();
 
     @Transactional
@@ -82,6 +85,7 @@ public class AuthService {
 
         // 3️⃣ Lưu User (cascade tự lưu profile & settings)
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId()));
 
         // 4️⃣ Tạo token
         TokenResponse tokenResponse = tokenService.createSession(savedUser);
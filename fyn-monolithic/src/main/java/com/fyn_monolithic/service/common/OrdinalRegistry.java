@@ -0,0 +1,139 @@
+package com.fyn_monolithic.service.common;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps UUIDs to dense int ordinals so in-memory indexes can use compact bitmaps.
+ * Assignments live in Redis (one hash per namespace) so they survive restarts and
+ * are shared between instances; each instance keeps a local read-through copy.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrdinalRegistry {
+
+    private static final String KEY_PREFIX = "ordinals:";
+    // Ids resolved per HMGET / HSETNX pipeline, so a cold start does not send one huge command
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, Map<UUID, Integer>> local = new ConcurrentHashMap<>();
+
+    public int ordinalOf(String namespace, UUID id) {
+        Map<UUID, Integer> assigned = namespace(namespace);
+        Integer cached = assigned.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        int ordinal = resolve(namespace, List.of(id)).get(id);
+        assigned.put(id, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Bulk variant of {@link #ordinalOf}; ids not cached locally are resolved in chunks,
+     * each in a fixed number of round trips however many ids are new.
+     */
+    public int[] ordinalsOf(String namespace, List<UUID> ids) {
+        Map<UUID, Integer> assigned = namespace(namespace);
+        int[] result = new int[ids.size()];
+        List<Integer> missingPositions = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Integer cached = assigned.get(ids.get(i));
+            if (cached != null) {
+                result[i] = cached;
+            } else {
+                missingPositions.add(i);
+            }
+        }
+
+        for (int from = 0; from < missingPositions.size(); from += CHUNK_SIZE) {
+            List<Integer> positions = missingPositions.subList(from, Math.min(from + CHUNK_SIZE, missingPositions.size()));
+            Map<UUID, Integer> resolved = resolve(namespace, positions.stream().map(ids::get).toList());
+            for (int position : positions) {
+                UUID id = ids.get(position);
+                int ordinal = resolved.get(id);
+                assigned.put(id, ordinal);
+                result[position] = ordinal;
+            }
+        }
+        return result;
+    }
+
+    public int size(String namespace) {
+        return namespace(namespace).size();
+    }
+
+    private Map<UUID, Integer> namespace(String namespace) {
+        return local.computeIfAbsent(namespace, key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Reads or assigns ordinals in at most four round trips: HMGET for ids already
+     * assigned, one INCRBY reserving a block of ordinals for the rest, one pipeline of
+     * HSETNX claiming them, and an HMGET for ids another instance assigned meanwhile.
+     */
+    private Map<UUID, Integer> resolve(String namespace, List<UUID> ids) {
+        String key = KEY_PREFIX + namespace;
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        List<String> fields = ids.stream().map(UUID::toString).toList();
+        List<String> stored = hash.multiGet(key, fields);
+
+        Map<UUID, Integer> result = new HashMap<>();
+        List<String> unassigned = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String value = stored != null ? stored.get(i) : null;
+            if (value != null) {
+                result.put(ids.get(i), Integer.parseInt(value));
+            } else {
+                unassigned.add(fields.get(i));
+            }
+        }
+        if (unassigned.isEmpty()) {
+            return result;
+        }
+
+        Long last = redisTemplate.opsForValue().increment(key + ":seq", unassigned.size());
+        if (last == null) {
+            throw new IllegalStateException("Unable to allocate ordinals for " + namespace);
+        }
+        long first = last - unassigned.size();
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        List<Object> claimed = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int j = 0; j < unassigned.size(); j++) {
+                connection.hashCommands().hSetNX(rawKey,
+                        unassigned.get(j).getBytes(StandardCharsets.UTF_8),
+                        String.valueOf(first + j).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        List<String> taken = new ArrayList<>();
+        for (int j = 0; j < unassigned.size(); j++) {
+            if (Boolean.TRUE.equals(claimed.get(j))) {
+                result.put(UUID.fromString(unassigned.get(j)), (int) (first + j));
+            } else {
+                taken.add(unassigned.get(j));
+            }
+        }
+        if (!taken.isEmpty()) {
+            // Another instance assigned these first; the reserved values are skipped, which is harmless
+            List<String> winners = hash.multiGet(key, taken);
+            for (int j = 0; j < taken.size(); j++) {
+                result.put(UUID.fromString(taken.get(j)), Integer.parseInt(winners.get(j)));
+            }
+        }
+        return result;
+    }
+}
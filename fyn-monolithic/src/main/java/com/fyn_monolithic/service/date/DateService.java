@@ -2,6 +2,7 @@ package com.fyn_monolithic.service.date;
 
 import com.fyn_monolithic.dto.request.date.CreateDateRequest;
 import com.fyn_monolithic.dto.request.date.ProposalRequest;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.date.DatePlanResponse;
 import com.fyn_monolithic.dto.response.date.ProposalResponse;
 import com.fyn_monolithic.exception.BadRequestException;
@@ -11,12 +12,16 @@ import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.date.DatePlanRepository;
 import com.fyn_monolithic.repository.date.DateProposalRepository;
 import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -58,14 +63,17 @@ public class DateService {
     /**
      * Get public dates for browsing
      */
-    public Page<DatePlanResponse> getPublicDates(ConnectionTypeEnum type, Pageable pageable) {
-        Page<DatePlan> dates;
-        if (type != null) {
-            dates = datePlanRepository.findPublicDatesByType(type, pageable);
-        } else {
-            dates = datePlanRepository.findPublicDates(DateStatus.OPEN, pageable);
-        }
-        return dates.map(DatePlanResponse::fromEntity);
+    public CursorPageResponse<DatePlanResponse> getPublicDates(ConnectionTypeEnum type, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<DatePlan> dates = datePlanRepository.findPublicDatesPage(
+                DateStatus.OPEN,
+                type,
+                after != null ? after.position().atZone(ZoneOffset.UTC) : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+        return CursorPageResponse.of(dates, size,
+                        date -> new KeysetCursor(date.getScheduledAt().toInstant(), date.getId()).encode())
+                .map(DatePlanResponse::fromEntity);
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.fyn_monolithic.service.date;
 
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.date.UserSummary;
 import com.fyn_monolithic.exception.BadRequestException;
 import com.fyn_monolithic.exception.ResourceNotFoundException;
@@ -8,12 +9,13 @@ import com.fyn_monolithic.model.date.MeetupStatus;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.date.MeetupRepository;
 import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
@@ -70,15 +72,17 @@ public class MeetupService {
     /**
      * Get list of open meetups
      */
-    public Page<Map<String, Object>> getMeetups(String category, Pageable pageable) {
-        Page<Meetup> meetups;
-        if (category != null && !category.isEmpty()) {
-            meetups = meetupRepository.findByCategoryAndStatusOrderByScheduledAtAsc(
-                    category, MeetupStatus.OPEN, pageable);
-        } else {
-            meetups = meetupRepository.findByStatusOrderByScheduledAtAsc(MeetupStatus.OPEN, pageable);
-        }
-        return meetups.map(this::toMeetupResponse);
+    public CursorPageResponse<Map<String, Object>> getMeetups(String category, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<Meetup> meetups = meetupRepository.findPage(
+                MeetupStatus.OPEN,
+                category != null && !category.isEmpty() ? category : null,
+                after != null ? after.position().atZone(ZoneOffset.UTC) : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+        return CursorPageResponse.of(meetups, size,
+                        meetup -> new KeysetCursor(meetup.getScheduledAt().toInstant(), meetup.getId()).encode())
+                .map(this::toMeetupResponse);
     }
 
     /**
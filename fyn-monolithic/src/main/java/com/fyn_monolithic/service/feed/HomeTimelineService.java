@@ -0,0 +1,390 @@
+package com.fyn_monolithic.service.feed;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.service.user.FollowChangedEvent;
+import com.fyn_monolithic.util.KeysetCursor;
+import com.fyn_monolithic.util.RedisUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Home timelines as Redis sorted sets ({@code timeline:{userId}}: member = post id,
+ * score = creation time in epoch millis), filled by fan-out on write.
+ * <p>
+ * A new post is pushed to the author's and their unmuted followers' timelines after the
+ * post commits, and each timeline is trimmed to {@code feed.timeline.max-length}. Only
+ * timelines that already exist are written: a timeline that was never built or has
+ * expired after {@code feed.timeline.ttl} without reads is rebuilt from the database on
+ * its next read. A sentinel member scored -inf marks a built timeline, so users who
+ * follow nobody are not rebuilt on every read. Reads keep a timeline alive, so follows
+ * and unfollows made after it was built are applied to it directly, see
+ * {@link #onFollowChanged}.
+ * <p>
+ * Authors with at least {@code feed.timeline.pull-follower-threshold} followers are not
+ * fanned out. Their posts go to {@link PullAuthorPosts} and are merged into each
+ * follower's page at read time. Those whose followers later drop below
+ * {@code feed.timeline.push-follower-threshold} are fanned out again, see
+ * {@link #demotePullAuthors}.
+ */
+@Slf4j
+@Service
+public class HomeTimelineService {
+
+    private static final String KEY_PREFIX = "timeline:";
+    private static final String BUILT = "*";
+
+    // KEYS: one timeline; ARGV: post id, score, max length. Rank 0 is the sentinel, so
+    // trimming starts at rank 1. Run once per timeline, since timelines hash to different
+    // cluster slots.
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 1, -(tonumber(ARGV[3]) + 1))
+            return 1
+            """, Long.class);
+
+    // KEYS: one timeline; ARGV: max length, then score/member pairs. PUSH_SCRIPT for many
+    // posts at once.
+    private static final RedisScript<Long> BACKFILL_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            for i = 2, #ARGV, 1000 do
+              redis.call('ZADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 1, -(tonumber(ARGV[1]) + 1))
+            return 1
+            """, Long.class);
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST =
+            Comparator.comparingDouble(TimelineEntry::score).reversed()
+                    .thenComparing(TimelineEntry::postId, Comparator.reverseOrder());
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostRepository postRepository;
+    private final UserFollowerRepository userFollowerRepository;
+    private final UserRepository userRepository;
+    private final PullAuthorPosts pullAuthorPosts;
+    private final RankedFeedService rankedFeedService;
+    private final FeedConfig feedConfig;
+    private final Timer pushFanoutTimer;
+    private final Timer pullFanoutTimer;
+    private final DistributionSummary fanoutRecipients;
+    private final Timer mergeTimer;
+
+    public HomeTimelineService(StringRedisTemplate redisTemplate,
+                               PostRepository postRepository,
+                               UserFollowerRepository userFollowerRepository,
+                               UserRepository userRepository,
+                               PullAuthorPosts pullAuthorPosts,
+                               RankedFeedService rankedFeedService,
+                               FeedConfig feedConfig,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.postRepository = postRepository;
+        this.userFollowerRepository = userFollowerRepository;
+        this.userRepository = userRepository;
+        this.pullAuthorPosts = pullAuthorPosts;
+        this.rankedFeedService = rankedFeedService;
+        this.feedConfig = feedConfig;
+
+        this.pushFanoutTimer = Timer.builder("feed.fanout")
+                .description("Time to distribute a new post to timelines")
+                .tag("mode", "push")
+                .register(meterRegistry);
+        this.pullFanoutTimer = Timer.builder("feed.fanout")
+                .description("Time to distribute a new post to timelines")
+                .tag("mode", "pull")
+                .register(meterRegistry);
+        this.fanoutRecipients = DistributionSummary.builder("feed.fanout.recipients")
+                .description("Timelines a pushed post was written to")
+                .register(meterRegistry);
+        this.mergeTimer = Timer.builder("feed.merge")
+                .description("Time to merge pull-mode authors' posts into a timeline page")
+                .register(meterRegistry);
+    }
+
+    public record TimelinePage(List<UUID> postIds, KeysetCursor nextCursor) {
+    }
+
+    // postId is kept as the Redis member string so ties order the way Redis orders them
+    private record TimelineEntry(String postId, double score) {
+
+        boolean isAfter(KeysetCursor cursor) {
+            double cursorScore = cursor.position().toEpochMilli();
+            return score < cursorScore
+                    || (score == cursorScore && postId.compareTo(cursor.id().toString()) < 0);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        UUID authorId = event.authorId();
+        long score = event.createdAt().toEpochMilli();
+        if (event.visibility() == PostVisibility.PRIVATE) {
+            push(List.of(authorId), event.postId(), score);
+            rankedFeedService.push(List.of(authorId), authorId, event.postId(), event.createdAt());
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        if (pullAuthorPosts.isPullAuthor(authorId)
+                || userRepository.findFollowerCountById(authorId).orElse(0L)
+                        >= feedConfig.getTimeline().getPullFollowerThreshold()) {
+            if (!pullAuthorPosts.isPullAuthor(authorId)) {
+                // Seeding picks up this post as well, it has committed
+                pullAuthorPosts.register(authorId);
+            }
+            pullAuthorPosts.record(authorId, event.postId(), score);
+            push(List.of(authorId), event.postId(), score);
+            rankedFeedService.push(List.of(authorId), authorId, event.postId(), event.createdAt());
+            sample.stop(pullFanoutTimer);
+            return;
+        }
+
+        List<UUID> recipients = new ArrayList<>();
+        recipients.add(authorId);
+        recipients.addAll(userFollowerRepository.findUnmutedFollowerIds(authorId));
+        push(recipients, event.postId(), score);
+        rankedFeedService.push(recipients, authorId, event.postId(), event.createdAt());
+        fanoutRecipients.record(recipients.size());
+        sample.stop(pushFanoutTimer);
+    }
+
+    /**
+     * Keeps a built timeline in step with the follow graph: a new followee's recent posts
+     * are merged in and an unfollowed author's posts are taken out. Unbuilt timelines are
+     * left alone, their rebuild reads the current follows. Posts of followed pull-mode
+     * authors are merged at read time and need no backfill.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFollowChanged(FollowChangedEvent event) {
+        FeedConfig.Timeline config = feedConfig.getTimeline();
+        String key = key(event.followerId());
+        try {
+            if (event.following()) {
+                if (pullAuthorPosts.isPullAuthor(event.followeeId())) {
+                    return;
+                }
+                List<String> args = new ArrayList<>();
+                args.add(String.valueOf(config.getMaxLength()));
+                for (PostRepository.TimelineEntry entry : postRepository.findRecentVisibleEntries(
+                        event.followeeId(), Limit.of(config.getRecentPostsPerAuthor()))) {
+                    args.add(String.valueOf(entry.getCreatedAt().toEpochMilli()));
+                    args.add(entry.getId().toString());
+                }
+                if (args.size() > 1) {
+                    redisTemplate.execute(BACKFILL_SCRIPT, List.of(key), args.toArray());
+                }
+            } else {
+                // The author's posts still in the timeline are among their newest max-length ones
+                Object[] postIds = postRepository.findRecentVisibleEntries(
+                                event.followeeId(), Limit.of(config.getMaxLength())).stream()
+                        .map(entry -> entry.getId().toString())
+                        .toArray();
+                if (postIds.length > 0) {
+                    redisTemplate.opsForZSet().remove(key, postIds);
+                }
+            }
+        } catch (RuntimeException ex) {
+            // The timeline catches up once it expires and is rebuilt
+            log.warn("Failed to apply follow change {} -> {} to the timeline",
+                    event.followerId(), event.followeeId(), ex);
+        }
+    }
+
+    /**
+     * Moves pull-mode authors who lost followers back to fan-out. A demotion begun on one
+     * run finishes on the next, by which time every instance has refreshed its pull-mode
+     * authors and fans out their new posts: the recent posts kept for merging are then
+     * pushed into the followers' timelines and dropped.
+     */
+    @Scheduled(fixedDelayString = "${feed.timeline.pull-authors-demote-interval-ms:600000}")
+    public void demotePullAuthors() {
+        for (UUID authorId : pullAuthorPosts.demoting()) {
+            try {
+                List<UUID> recipients = new ArrayList<>();
+                recipients.add(authorId);
+                recipients.addAll(userFollowerRepository.findUnmutedFollowerIds(authorId));
+                int size = feedConfig.getTimeline().getRecentPostsPerAuthor();
+                for (TimelineEntry entry : entriesAfter(PullAuthorPosts.recentKey(authorId), null, size)) {
+                    UUID postId = UUID.fromString(entry.postId());
+                    push(recipients, postId, (long) entry.score());
+                    rankedFeedService.push(recipients, authorId, postId, Instant.ofEpochMilli((long) entry.score()));
+                }
+                pullAuthorPosts.finishDemotion(authorId);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to finish moving author {} out of pull mode, retrying next run", authorId, ex);
+            }
+        }
+
+        Set<UUID> authors = pullAuthorPosts.authors();
+        if (authors.isEmpty()) {
+            return;
+        }
+        for (UUID authorId : userRepository.findIdsWithFollowerCountBelow(
+                authors, feedConfig.getTimeline().getPushFollowerThreshold())) {
+            pullAuthorPosts.beginDemotion(authorId);
+        }
+    }
+
+    /**
+     * One page of the user's home timeline, newest first, with the recent posts of
+     * followed pull-mode authors merged in. Pages are keyed by (post time, post id), the
+     * same order Redis keeps members with equal scores in.
+     */
+    public TimelinePage page(UUID userId, KeysetCursor after, int size) {
+        String key = key(userId);
+        if (!Boolean.TRUE.equals(redisTemplate.expire(key, feedConfig.getTimeline().getTtl()))) {
+            rebuild(userId);
+        }
+
+        // One extra entry tells whether another page exists
+        List<UUID> pullAuthors = pullAuthorPosts.followedBy(userId);
+        List<TimelineEntry> entries;
+        if (pullAuthors.isEmpty()) {
+            entries = entriesAfter(key, after, size + 1);
+        } else {
+            Timer.Sample sample = Timer.start();
+            List<List<TimelineEntry>> sources = new ArrayList<>();
+            sources.add(entriesAfter(key, after, size + 1));
+            for (UUID authorId : pullAuthors) {
+                sources.add(entriesAfter(PullAuthorPosts.recentKey(authorId), after, size + 1));
+            }
+            entries = mergeNewestFirst(sources, size + 1);
+            sample.stop(mergeTimer);
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<TimelineEntry> page = hasNext ? entries.subList(0, size) : entries;
+        TimelineEntry last = hasNext ? page.get(page.size() - 1) : null;
+        return new TimelinePage(
+                page.stream().map(entry -> UUID.fromString(entry.postId())).toList(),
+                last != null ? new KeysetCursor(Instant.ofEpochMilli((long) last.score()), UUID.fromString(last.postId())) : null);
+    }
+
+    /**
+     * Up to {@code limit} entries of a sorted set that come after the cursor, newest first.
+     * Entries sharing the cursor's score are read too and filtered by id, so the range read
+     * repeats in the rare case that more than a page of posts share one millisecond.
+     */
+    private List<TimelineEntry> entriesAfter(String key, KeysetCursor after, int limit) {
+        double max = after != null ? after.position().toEpochMilli() : Double.POSITIVE_INFINITY;
+        List<TimelineEntry> entries = new ArrayList<>(limit);
+        long offset = 0;
+        while (entries.size() < limit) {
+            Set<TypedTuple<String>> batch = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, max, offset, limit);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (TypedTuple<String> tuple : batch) {
+                if (BUILT.equals(tuple.getValue())) {
+                    continue;
+                }
+                TimelineEntry entry = new TimelineEntry(tuple.getValue(), tuple.getScore());
+                if ((after == null || entry.isAfter(after)) && entries.size() < limit) {
+                    entries.add(entry);
+                }
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+            offset += batch.size();
+        }
+        return entries;
+    }
+
+    /**
+     * K-way merge of newest-first sources, dropping duplicates, up to {@code limit} entries.
+     */
+    private static List<TimelineEntry> mergeNewestFirst(List<List<TimelineEntry>> sources, int limit) {
+        // Heap of (source, position) ordered by the entry at that position
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> NEWEST_FIRST.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<TimelineEntry> merged = new ArrayList<>(limit);
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<TimelineEntry> source = sources.get(head[0]);
+            TimelineEntry entry = source.get(head[1]);
+            if (head[1] + 1 < source.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+            if (seen.add(entry.postId())) {
+                merged.add(entry);
+            }
+        }
+        return merged;
+    }
+
+    private void push(List<UUID> recipients, UUID postId, long score) {
+        FeedConfig.Timeline config = feedConfig.getTimeline();
+        String[] args = {postId.toString(), String.valueOf(score), String.valueOf(config.getMaxLength())};
+        for (int from = 0; from < recipients.size(); from += config.getFanoutBatchSize()) {
+            List<List<String>> keys = recipients.subList(from, Math.min(recipients.size(), from + config.getFanoutBatchSize()))
+                    .stream()
+                    .map(recipient -> List.of(key(recipient)))
+                    .toList();
+            try {
+                RedisUtils.evalEach(redisTemplate, PUSH_SCRIPT, keys, args);
+            } catch (RuntimeException ex) {
+                // The affected timelines catch up once they expire and are rebuilt
+                log.warn("Failed to fan out post {} to {} timelines", postId, keys.size(), ex);
+            }
+        }
+    }
+
+    private void rebuild(UUID userId) {
+        FeedConfig.Timeline config = feedConfig.getTimeline();
+        Set<TypedTuple<String>> tuples = new HashSet<>();
+        for (PostRepository.TimelineEntry entry : postRepository.findTimelineEntries(userId, Limit.of(config.getMaxLength()))) {
+            tuples.add(TypedTuple.of(entry.getId().toString(), (double) entry.getCreatedAt().toEpochMilli()));
+        }
+        tuples.add(TypedTuple.of(BUILT, Double.NEGATIVE_INFINITY));
+        String key = key(userId);
+        // ZADD merges with anything pushed while the query ran
+        redisTemplate.opsForZSet().add(key, tuples);
+        redisTemplate.expire(key, config.getTtl());
+    }
+
+    private static String key(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+}
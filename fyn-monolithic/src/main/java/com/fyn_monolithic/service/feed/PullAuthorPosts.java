@@ -0,0 +1,157 @@
+package com.fyn_monolithic.service.feed;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Authors whose posts are pulled into timelines at read time rather than fanned out, and
+ * their recent posts ({@code timeline:recent:{authorId}}: member = post id, score =
+ * creation time in epoch millis, capped at {@code feed.timeline.recent-posts-per-author}).
+ * <p>
+ * The author set lives in Redis so every instance agrees on who is in pull mode; each
+ * instance keeps a copy refreshed every {@code feed.timeline.pull-authors-refresh-interval-ms}.
+ * <p>
+ * Leaving pull mode takes two steps, driven by {@link HomeTimelineService#demotePullAuthors}.
+ * {@link #beginDemotion} moves the author to a demoting set: new posts are fanned out again
+ * once every instance has refreshed, while the recent posts are still merged at read time.
+ * {@link #finishDemotion} then drops the recent posts, after they have been pushed into the
+ * followers' timelines.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PullAuthorPosts {
+
+    private static final String AUTHORS_KEY = "timeline:pull-authors";
+    private static final String DEMOTING_KEY = "timeline:pull-authors:demoting";
+    private static final String RECENT_PREFIX = "timeline:recent:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostRepository postRepository;
+    private final UserFollowerRepository userFollowerRepository;
+    private final FeedConfig feedConfig;
+    private volatile Set<UUID> authors = Set.of();
+    // authors plus those being demoted: whose recent posts are still merged at read time
+    private volatile Set<UUID> merged = Set.of();
+
+    public boolean isPullAuthor(UUID authorId) {
+        return authors.contains(authorId);
+    }
+
+    /**
+     * Switches the author to pull mode, seeding their recent posts from the database.
+     */
+    public void register(UUID authorId) {
+        Set<TypedTuple<String>> tuples = new HashSet<>();
+        List<PostRepository.TimelineEntry> entries = postRepository.findRecentVisibleEntries(
+                authorId, Limit.of(feedConfig.getTimeline().getRecentPostsPerAuthor()));
+        for (PostRepository.TimelineEntry entry : entries) {
+            tuples.add(TypedTuple.of(entry.getId().toString(), (double) entry.getCreatedAt().toEpochMilli()));
+        }
+        if (!tuples.isEmpty()) {
+            redisTemplate.opsForZSet().add(recentKey(authorId), tuples);
+        }
+        redisTemplate.opsForSet().add(AUTHORS_KEY, authorId.toString());
+        redisTemplate.opsForSet().remove(DEMOTING_KEY, authorId.toString());
+
+        Set<UUID> updated = new HashSet<>(authors);
+        updated.add(authorId);
+        authors = Set.copyOf(updated);
+        Set<UUID> updatedMerged = new HashSet<>(merged);
+        updatedMerged.add(authorId);
+        merged = Set.copyOf(updatedMerged);
+    }
+
+    /**
+     * Pull-mode authors as of the last refresh.
+     */
+    public Set<UUID> authors() {
+        return authors;
+    }
+
+    /**
+     * Authors that left pull mode but whose recent posts are still merged at read time.
+     */
+    public Set<UUID> demoting() {
+        Set<String> members = redisTemplate.opsForSet().members(DEMOTING_KEY);
+        return members == null
+                ? Set.of()
+                : members.stream().map(UUID::fromString).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Stops treating the author as pull-mode for new posts. Their recent posts keep being
+     * merged until {@link #finishDemotion}.
+     */
+    public void beginDemotion(UUID authorId) {
+        redisTemplate.opsForSet().add(DEMOTING_KEY, authorId.toString());
+        redisTemplate.opsForSet().remove(AUTHORS_KEY, authorId.toString());
+
+        Set<UUID> updated = new HashSet<>(authors);
+        updated.remove(authorId);
+        authors = Set.copyOf(updated);
+    }
+
+    /**
+     * Forgets the author's recent posts. Call once they are in the followers' timelines.
+     */
+    public void finishDemotion(UUID authorId) {
+        redisTemplate.opsForSet().remove(DEMOTING_KEY, authorId.toString());
+        redisTemplate.delete(recentKey(authorId));
+
+        Set<UUID> updated = new HashSet<>(merged);
+        updated.remove(authorId);
+        merged = Set.copyOf(updated);
+    }
+
+    public void record(UUID authorId, UUID postId, long createdAtMillis) {
+        String key = recentKey(authorId);
+        redisTemplate.opsForZSet().add(key, postId.toString(), createdAtMillis);
+        redisTemplate.opsForZSet().removeRange(key, 0, -(feedConfig.getTimeline().getRecentPostsPerAuthor() + 1));
+    }
+
+    /**
+     * Pull-mode and demoting authors the viewer follows without muting.
+     */
+    public List<UUID> followedBy(UUID viewerId) {
+        Set<UUID> current = merged;
+        if (current.isEmpty()) {
+            return List.of();
+        }
+        return userFollowerRepository.findUnmutedFollowedIdsAmong(viewerId, current);
+    }
+
+    @Scheduled(fixedDelayString = "${feed.timeline.pull-authors-refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            Set<String> members = redisTemplate.opsForSet().members(AUTHORS_KEY);
+            Set<UUID> current = members == null
+                    ? Set.of()
+                    : members.stream().map(UUID::fromString).collect(Collectors.toUnmodifiableSet());
+            Set<UUID> updatedMerged = new HashSet<>(current);
+            updatedMerged.addAll(demoting());
+            authors = current;
+            merged = Set.copyOf(updatedMerged);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh pull-mode authors", ex);
+        }
+    }
+
+    static String recentKey(UUID authorId) {
+        return RECENT_PREFIX + authorId;
+    }
+}
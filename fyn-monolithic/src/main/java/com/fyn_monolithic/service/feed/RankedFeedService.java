@@ -0,0 +1,302 @@
+package com.fyn_monolithic.service.feed;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import com.fyn_monolithic.repository.user.UserFollowerRepository.FollowerLink;
+import com.fyn_monolithic.service.post.PostEngagementFlushedEvent;
+import com.fyn_monolithic.util.RedisUtils;
+import com.fyn_monolithic.util.ScoreCursor;
+import com.fyn_monolithic.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Engagement-ranked home feeds as Redis sorted sets ({@code ranked:{<userId>}}: member =
+ * post id, score = rank score), holding the same candidates as the home timeline. The
+ * user id is the key's cluster hash tag, shared with their affinity hash
+ * ({@code affinity:{<userId>}}), so scripts can read both.
+ * <p>
+ * A post's score for a viewer is
+ * {@code age term + engagement term + affinity term}, all in units of "doublings":
+ * <ul>
+ *   <li>age: creation time divided by {@code feed.ranking.half-life}, so a post one
+ *   half-life newer ranks as high as one with twice the engagement. The term never
+ *   changes after posting, which is what lets stored scores stay valid as time passes;</li>
+ *   <li>engagement: log2(1 + likes + comment-weight x comments), rounded down to quarter
+ *   steps so a post's stored scores only need updating a few times per doubling;</li>
+ *   <li>affinity: affinity-weight x log2(1 + the viewer's likes and comments on the
+ *   author's posts), fixed when the post enters the viewer's feed.</li>
+ * </ul>
+ * Scores are maintained incrementally: new posts are added alongside the timeline
+ * fan-out, and when flushed like/comment counts move a post's engagement term between
+ * the counts before and after the write, the difference is added to that post's score
+ * in the feeds that hold it. Pull-mode authors'
+ * posts reach followers' ranked feeds when those are rebuilt, at most
+ * {@code feed.ranking.ttl} after they were built; so do affinity changes.
+ */
+@Slf4j
+@Service
+public class RankedFeedService {
+
+    private static final String KEY_PREFIX = "ranked:";
+    private static final String AFFINITY_PREFIX = "affinity:";
+    private static final String BUILT = "*";
+    private static final double ENGAGEMENT_STEPS = 4;
+
+    // KEYS: one user's ranked feed and affinity hash; ARGV: post id, score without
+    // affinity, author id, affinity weight, max length. Rank 0 is the sentinel.
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            local interactions = tonumber(redis.call('HGET', KEYS[2], ARGV[3]) or '0')
+            local score = tonumber(ARGV[2]) + tonumber(ARGV[4]) * math.log(1 + interactions) / math.log(2)
+            redis.call('ZADD', KEYS[1], score, ARGV[1])
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 1, -(tonumber(ARGV[5]) + 1))
+            return 1
+            """, Long.class);
+
+    // KEYS: one ranked feed; ARGV: post id, score change. A feed without the post is skipped.
+    private static final RedisScript<Long> RESCORE_SCRIPT = new DefaultRedisScript<>("""
+            if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+              return 0
+            end
+            redis.call('ZINCRBY', KEYS[1], ARGV[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostRepository postRepository;
+    private final UserFollowerRepository userFollowerRepository;
+    private final PullAuthorPosts pullAuthorPosts;
+    private final FeedConfig feedConfig;
+    private final Counter rescoredPosts;
+
+    public RankedFeedService(StringRedisTemplate redisTemplate,
+                             PostRepository postRepository,
+                             UserFollowerRepository userFollowerRepository,
+                             PullAuthorPosts pullAuthorPosts,
+                             FeedConfig feedConfig,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.postRepository = postRepository;
+        this.userFollowerRepository = userFollowerRepository;
+        this.pullAuthorPosts = pullAuthorPosts;
+        this.feedConfig = feedConfig;
+
+        this.rescoredPosts = Counter.builder("feed.ranking.rescores")
+                .description("Posts whose engagement term changed and were re-scored in ranked feeds")
+                .register(meterRegistry);
+    }
+
+    public record RankedPage(List<UUID> postIds, ScoreCursor nextCursor) {
+    }
+
+    /**
+     * One page of the user's ranked feed, highest score first. Scores can move between
+     * requests, so a post whose score rises past the cursor may be skipped and one that
+     * falls behind it may repeat.
+     */
+    public RankedPage page(UUID userId, ScoreCursor after, int size) {
+        String key = key(userId);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            rebuild(userId);
+        }
+
+        // One extra entry tells whether another page exists
+        int limit = size + 1;
+        double max = after != null ? after.score() : Double.POSITIVE_INFINITY;
+        List<TypedTuple<String>> entries = new ArrayList<>(limit);
+        long offset = 0;
+        while (entries.size() < limit) {
+            Set<TypedTuple<String>> batch = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, max, offset, limit);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (TypedTuple<String> tuple : batch) {
+                if (!BUILT.equals(tuple.getValue()) && isAfter(tuple, after) && entries.size() < limit) {
+                    entries.add(tuple);
+                }
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+            offset += batch.size();
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<TypedTuple<String>> page = hasNext ? entries.subList(0, size) : entries;
+        TypedTuple<String> last = hasNext ? page.get(page.size() - 1) : null;
+        return new RankedPage(
+                page.stream().map(tuple -> UUID.fromString(tuple.getValue())).toList(),
+                last != null ? new ScoreCursor(last.getScore(), UUID.fromString(last.getValue())) : null);
+    }
+
+    /**
+     * Adds a new post to the ranked feeds of the recipients that have one; called with the
+     * same recipients as the timeline fan-out.
+     */
+    public void push(List<UUID> recipients, UUID authorId, UUID postId, Instant createdAt) {
+        FeedConfig.Timeline timeline = feedConfig.getTimeline();
+        String[] args = {
+                postId.toString(),
+                String.valueOf(ageTerm(createdAt)),
+                authorId.toString(),
+                String.valueOf(feedConfig.getRanking().getAffinityWeight()),
+                String.valueOf(timeline.getMaxLength())
+        };
+        for (int from = 0; from < recipients.size(); from += timeline.getFanoutBatchSize()) {
+            List<List<String>> keys = recipients.subList(from, Math.min(recipients.size(), from + timeline.getFanoutBatchSize()))
+                    .stream()
+                    .map(recipient -> List.of(key(recipient), affinityKey(recipient)))
+                    .toList();
+            try {
+                RedisUtils.evalEach(redisTemplate, PUSH_SCRIPT, keys, args);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to add post {} to {} ranked feeds", postId, keys.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Counts a like or comment by the viewer on one of the author's posts once the
+     * surrounding transaction commits.
+     */
+    public void recordInteraction(UUID viewerId, UUID authorId) {
+        if (viewerId.equals(authorId)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            String key = affinityKey(viewerId);
+            redisTemplate.opsForHash().increment(key, authorId.toString(), 1);
+            redisTemplate.expire(key, feedConfig.getRanking().getAffinityTtl());
+        });
+    }
+
+    @Async
+    @EventListener
+    public void onEngagementFlushed(PostEngagementFlushedEvent event) {
+        List<EngagementChange> moved = event.changes().stream()
+                .filter(change -> engagementTerm(change.likesBefore(), change.commentsBefore())
+                        != engagementTerm(change.likesAfter(), change.commentsAfter()))
+                .toList();
+        if (moved.isEmpty()) {
+            return;
+        }
+
+        // Followers of every author involved in one query, rather than one per post
+        Set<UUID> fannedOutAuthors = moved.stream()
+                .filter(change -> change.visibility() != PostVisibility.PRIVATE
+                        && !pullAuthorPosts.isPullAuthor(change.authorId()))
+                .map(EngagementChange::authorId)
+                .collect(Collectors.toSet());
+        Map<UUID, List<UUID>> followers = fannedOutAuthors.isEmpty()
+                ? Map.of()
+                : userFollowerRepository.findUnmutedFollowerLinks(fannedOutAuthors).stream()
+                        .collect(Collectors.groupingBy(FollowerLink::getUserId,
+                                Collectors.mapping(FollowerLink::getFollowerId, Collectors.toList())));
+
+        for (EngagementChange change : moved) {
+            List<UUID> holders = new ArrayList<>();
+            holders.add(change.authorId());
+            if (fannedOutAuthors.contains(change.authorId())) {
+                holders.addAll(followers.getOrDefault(change.authorId(), List.of()));
+            }
+            double before = engagementTerm(change.likesBefore(), change.commentsBefore());
+            double after = engagementTerm(change.likesAfter(), change.commentsAfter());
+            rescore(holders, change.postId(), after - before);
+            rescoredPosts.increment();
+        }
+    }
+
+    private void rescore(List<UUID> holders, UUID postId, double change) {
+        int batchSize = feedConfig.getTimeline().getFanoutBatchSize();
+        String[] args = {postId.toString(), String.valueOf(change)};
+        for (int from = 0; from < holders.size(); from += batchSize) {
+            List<List<String>> keys = holders.subList(from, Math.min(holders.size(), from + batchSize)).stream()
+                    .map(holder -> List.of(key(holder)))
+                    .toList();
+            try {
+                RedisUtils.evalEach(redisTemplate, RESCORE_SCRIPT, keys, args);
+            } catch (RuntimeException ex) {
+                // The affected feeds catch up when they are rebuilt
+                log.warn("Failed to re-score post {} in {} ranked feeds", postId, keys.size(), ex);
+            }
+        }
+    }
+
+    private void rebuild(UUID userId) {
+        FeedConfig.Ranking ranking = feedConfig.getRanking();
+        Map<Object, Object> interactions = redisTemplate.opsForHash().entries(affinityKey(userId));
+        Set<TypedTuple<String>> tuples = new HashSet<>();
+        for (PostRepository.RankingEntry entry : postRepository.findRankingCandidates(
+                userId, Limit.of(feedConfig.getTimeline().getMaxLength()))) {
+            Object count = interactions.get(entry.getAuthorId().toString());
+            double affinity = count != null
+                    ? ranking.getAffinityWeight() * log2(1 + Long.parseLong(count.toString()))
+                    : 0;
+            double score = ageTerm(entry.getCreatedAt())
+                    + engagementTerm(entry.getLikeCount(), entry.getCommentCount())
+                    + affinity;
+            tuples.add(TypedTuple.of(entry.getId().toString(), score));
+        }
+        tuples.add(TypedTuple.of(BUILT, Double.NEGATIVE_INFINITY));
+        String key = key(userId);
+        // ZADD merges with anything pushed while the query ran
+        redisTemplate.opsForZSet().add(key, tuples);
+        redisTemplate.expire(key, ranking.getTtl());
+    }
+
+    private double ageTerm(Instant createdAt) {
+        return (double) createdAt.getEpochSecond() / feedConfig.getRanking().getHalfLife().toSeconds();
+    }
+
+    private double engagementTerm(long likes, long comments) {
+        double weighted = Math.max(0, likes) + feedConfig.getRanking().getCommentWeight() * Math.max(0, comments);
+        return Math.floor(log2(1 + weighted) * ENGAGEMENT_STEPS) / ENGAGEMENT_STEPS;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    // Members with equal scores come back in reverse lexicographic order, as Redis keeps them
+    private static boolean isAfter(TypedTuple<String> tuple, ScoreCursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        double score = tuple.getScore();
+        return score < cursor.score()
+                || (score == cursor.score() && tuple.getValue().compareTo(cursor.id().toString()) < 0);
+    }
+
+    private static String key(UUID userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    private static String affinityKey(UUID userId) {
+        return AFFINITY_PREFIX + "{" + userId + "}";
+    }
+}
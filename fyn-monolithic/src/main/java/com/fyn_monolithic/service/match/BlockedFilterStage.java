@@ -0,0 +1,33 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.model.connection.ConnectionStatus;
+import com.fyn_monolithic.repository.connection.ConnectionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Drops candidates with a BLOCKED connection to the viewer, in either direction.
+ */
+@Component
+@Order(20)
+@RequiredArgsConstructor
+public class BlockedFilterStage implements DiscoverStage {
+
+    private final ConnectionRepository connectionRepository;
+
+    @Override
+    public Stream<ProfileFeatures> apply(ProfileFeatures viewer, Stream<ProfileFeatures> candidates) {
+        Set<UUID> blocked = new HashSet<>(
+                connectionRepository.findCounterpartIds(viewer.userId(), ConnectionStatus.BLOCKED));
+        if (blocked.isEmpty()) {
+            return candidates;
+        }
+        return candidates.filter(candidate -> !blocked.contains(candidate.userId()));
+    }
+}
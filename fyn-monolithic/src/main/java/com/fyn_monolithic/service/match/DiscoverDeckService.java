@@ -0,0 +1,220 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.connection.ConnectionStatus;
+import com.fyn_monolithic.repository.connection.ConnectionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ready-to-serve discover decks: for each user who recently opened discover, the ids of
+ * their next ranked candidates, so a request only pops ids instead of ranking inline.
+ * <p>
+ * A deck is built synchronously on first use and refilled in the background when it
+ * drops below the low-water mark; a request finding it empty waits for a refill already
+ * running, or refills it itself, instead of coming back empty-handed. Each refill ranks
+ * afresh and skips every id the deck has queued since it was created, rather than
+ * continuing after the last queued score: scores drift between refills (activity decays,
+ * profiles change), so a score cursor would skip or repeat candidates. Swiped and queued
+ * users are excluded inside the geo walk, so they never use up its candidate limit and a
+ * heavy swiper still reaches the unswiped users further out. Once the ranking has nothing
+ * unqueued left, the deck forgets what it queued and starts over.
+ * <p>
+ * Staleness: decks live on the instance that built them, while swipes, matches and
+ * blocks may happen on any instance. Popped candidates are therefore checked again before
+ * they are served: swiped and no-longer-active users are skipped, and one query per pop
+ * drops users the viewer has since matched with or blocked. Match and block events also
+ * remove the pair from local decks right away, so the query rarely finds anything.
+ */
+@Slf4j
+@Service
+public class DiscoverDeckService {
+
+    // Connections that take a user out of the viewer's discover results
+    private static final List<ConnectionStatus> EXCLUDED_STATUSES =
+            List.of(ConnectionStatus.ACCEPTED, ConnectionStatus.BLOCKED);
+
+    private final DiscoverPipeline discoverPipeline;
+    private final GeoCandidateIndex geoCandidateIndex;
+    private final MatchScoringEngine matchScoringEngine;
+    private final ProfileFeatureStore profileFeatureStore;
+    private final SwipedSetCache swipedSetCache;
+    private final ConnectionRepository connectionRepository;
+    private final MatchingConfig matchingConfig;
+    private final TaskExecutor taskExecutor;
+    private final Counter staleSkipped;
+    private final Map<UUID, Deck> decks = new ConcurrentHashMap<>();
+
+    public DiscoverDeckService(DiscoverPipeline discoverPipeline,
+                               GeoCandidateIndex geoCandidateIndex,
+                               MatchScoringEngine matchScoringEngine,
+                               ProfileFeatureStore profileFeatureStore,
+                               SwipedSetCache swipedSetCache,
+                               ConnectionRepository connectionRepository,
+                               MatchingConfig matchingConfig,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               MeterRegistry meterRegistry) {
+        this.discoverPipeline = discoverPipeline;
+        this.geoCandidateIndex = geoCandidateIndex;
+        this.matchScoringEngine = matchScoringEngine;
+        this.profileFeatureStore = profileFeatureStore;
+        this.swipedSetCache = swipedSetCache;
+        this.connectionRepository = connectionRepository;
+        this.matchingConfig = matchingConfig;
+        this.taskExecutor = taskExecutor;
+
+        Gauge.builder("matching.deck.users", decks, Map::size)
+                .description("Users with a discover deck in memory")
+                .register(meterRegistry);
+        this.staleSkipped = Counter.builder("matching.deck.stale_skipped")
+                .description("Deck candidates skipped at pop time because they were swiped, matched, blocked or inactive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pops up to {@code count} fresh candidates from the viewer's deck, best first.
+     */
+    public List<UUID> take(ProfileFeatures viewer, int count) {
+        Deck deck = decks.computeIfAbsent(viewer.userId(), id -> new Deck());
+        deck.lastAccess = System.currentTimeMillis();
+
+        List<UUID> taken = new ArrayList<>(count);
+        boolean refilled = false;
+        while (taken.size() < count) {
+            List<UUID> popped = pop(viewer, deck, count - taken.size());
+            if (popped.isEmpty()) {
+                // Ran dry, possibly after skipping stale ids: refill once before giving up
+                if (refilled) {
+                    break;
+                }
+                refill(viewer, deck, true);
+                refilled = true;
+                continue;
+            }
+            Set<UUID> excluded = new HashSet<>(
+                    connectionRepository.findCounterpartIdsAmong(viewer.userId(), popped, EXCLUDED_STATUSES));
+            for (UUID candidateId : popped) {
+                if (excluded.contains(candidateId)) {
+                    staleSkipped.increment();
+                } else {
+                    taken.add(candidateId);
+                }
+            }
+        }
+
+        if (deck.ids.size() < matchingConfig.getDeck().getLowWaterMark()) {
+            taskExecutor.execute(() -> refill(viewer, deck, false));
+        }
+        return taken;
+    }
+
+    @EventListener
+    public void onMatchCreated(MatchCreatedEvent event) {
+        discard(event.userId1(), event.userId2());
+        discard(event.userId2(), event.userId1());
+    }
+
+    @EventListener
+    public void onMatchBlocked(MatchBlockedEvent event) {
+        discard(event.userId(), event.blockedUserId());
+        discard(event.blockedUserId(), event.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${matching.deck.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long idleCutoff = System.currentTimeMillis() - matchingConfig.getDeck().getIdleTtl().toMillis();
+        decks.values().removeIf(deck -> deck.lastAccess < idleCutoff);
+    }
+
+    /**
+     * Pops up to {@code count} candidates that are still active and not swiped by the viewer.
+     */
+    private List<UUID> pop(ProfileFeatures viewer, Deck deck, int count) {
+        List<UUID> popped = new ArrayList<>(count);
+        while (popped.size() < count) {
+            UUID next = deck.ids.pollFirst();
+            if (next == null) {
+                break;
+            }
+            if (swipedSetCache.hasSwiped(viewer.userId(), next) || profileFeatureStore.get(next) == null) {
+                staleSkipped.increment();
+                continue;
+            }
+            popped.add(next);
+        }
+        return popped;
+    }
+
+    private void discard(UUID deckOwnerId, UUID candidateId) {
+        Deck deck = decks.get(deckOwnerId);
+        if (deck != null) {
+            deck.ids.remove(candidateId);
+        }
+    }
+
+    /**
+     * Tops the deck up to its configured size. With {@code wait}, blocks until a refill
+     * already running on another thread is done and then refills only if it is still
+     * short; without, returns at once if one is running.
+     */
+    private void refill(ProfileFeatures viewer, Deck deck, boolean wait) {
+        if (wait) {
+            deck.refillLock.lock();
+        } else if (!deck.refillLock.tryLock()) {
+            return;
+        }
+        try {
+            int wanted = matchingConfig.getDeck().getSize() - deck.ids.size();
+            if (wanted <= 0) {
+                return;
+            }
+            RoaringBitmap swiped = swipedSetCache.snapshot(viewer.userId());
+            List<TopKRanker.RankedCandidate> ranked = discoverPipeline.rank(
+                    viewer,
+                    geoCandidateIndex.nearest(viewer, matchScoringEngine.searchRadiusKm(viewer),
+                            matchingConfig.getGeo().getMaxCandidates(),
+                            candidate -> !swiped.contains(candidate.ordinal())
+                                    && !deck.queued.contains(candidate.userId())),
+                    wanted);
+            for (TopKRanker.RankedCandidate candidate : ranked) {
+                deck.queued.add(candidate.userId());
+                deck.ids.addLast(candidate.userId());
+            }
+            // Fewer than asked for means the ranking is exhausted: start over next time,
+            // keeping only what is still waiting in the deck
+            if (ranked.size() < wanted) {
+                deck.queued.retainAll(deck.ids);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refill discover deck of {}", viewer.userId(), ex);
+        } finally {
+            deck.refillLock.unlock();
+        }
+    }
+
+    private static final class Deck {
+        private final ConcurrentLinkedDeque<UUID> ids = new ConcurrentLinkedDeque<>();
+        private final ReentrantLock refillLock = new ReentrantLock();
+        // Every id queued since the deck was created or last started over
+        private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+        private volatile long lastAccess = System.currentTimeMillis();
+    }
+}
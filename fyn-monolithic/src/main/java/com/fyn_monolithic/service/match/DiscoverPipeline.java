@@ -0,0 +1,27 @@
+package com.fyn_monolithic.service.match;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs generated discover candidates through every {@link DiscoverStage} bean, in order,
+ * and hands the result to the {@link TopKRanker}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiscoverPipeline {
+
+    private final List<DiscoverStage> stages;
+    private final TopKRanker topKRanker;
+
+    public List<TopKRanker.RankedCandidate> rank(ProfileFeatures viewer, Stream<ProfileFeatures> candidates, int k) {
+        Stream<ProfileFeatures> filtered = candidates;
+        for (DiscoverStage stage : stages) {
+            filtered = stage.apply(viewer, filtered);
+        }
+        return topKRanker.topK(viewer, filtered, k);
+    }
+}
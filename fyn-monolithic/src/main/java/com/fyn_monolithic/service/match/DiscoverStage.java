@@ -0,0 +1,13 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.stream.Stream;
+
+/**
+ * One step of the discover candidate pipeline between candidate generation and
+ * ranking. Stages are Spring beans applied in {@link org.springframework.core.annotation.Order}
+ * and must stay lazy: they filter or map the stream, never collect it.
+ */
+public interface DiscoverStage {
+
+    Stream<ProfileFeatures> apply(ProfileFeatures viewer, Stream<ProfileFeatures> candidates);
+}
@@ -0,0 +1,224 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.repository.user.UserProfileExtendedRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory spatial index of active users on a fixed lat/lng grid.
+ * <p>
+ * Cells are fed by {@link ProfileFeaturesChangedEvent}s from the feature store, so the
+ * index follows profile updates with the store's sync delay. Until the store has
+ * finished its first load, lookups fall back to a bounded PostGIS query.
+ * Lookups return the nearest users only, up to a limit; ranking them is left to the
+ * discover pipeline.
+ */
+@Component
+public class GeoCandidateIndex {
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // Farthest kept user on top, so the heap drops it when a nearer one turns up
+    private static final Comparator<Nearby> FARTHEST_FIRST = Comparator.comparingDouble(Nearby::distanceKm).reversed();
+
+    private final ProfileFeatureStore featureStore;
+    private final MatchScoringEngine matchScoringEngine;
+    private final UserProfileExtendedRepository profileRepository;
+    private final MatchingConfig matchingConfig;
+    private final Counter lookups;
+    private final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> cellOfUser = new ConcurrentHashMap<>();
+
+    public GeoCandidateIndex(ProfileFeatureStore featureStore,
+                             MatchScoringEngine matchScoringEngine,
+                             UserProfileExtendedRepository profileRepository,
+                             MatchingConfig matchingConfig,
+                             MeterRegistry meterRegistry) {
+        this.featureStore = featureStore;
+        this.matchScoringEngine = matchScoringEngine;
+        this.profileRepository = profileRepository;
+        this.matchingConfig = matchingConfig;
+        this.lookups = Counter.builder("matching.geo.lookups")
+                .description("Nearby candidate lookups served by the in-memory geo index")
+                .register(meterRegistry);
+        Gauge.builder("matching.geo.users", cellOfUser, Map::size)
+                .description("Users placed in the geo index")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onProfilesChanged(ProfileFeaturesChangedEvent event) {
+        for (ProfileFeatures features : event.updated()) {
+            if (features.hasLocation()) {
+                move(features.userId(), cellKey(features.lat(), features.lng()));
+            } else {
+                remove(features.userId());
+            }
+        }
+        event.removed().forEach(this::remove);
+    }
+
+    /**
+     * The {@code limit} active users nearest to the viewer within {@code radiusKm} that
+     * {@code accept} lets through, nearest first. Cells are visited in rings around the
+     * viewer's cell while a bounded max-heap keeps the nearest accepted users seen; the
+     * walk stops once the heap is full and no cell of the next ring can be nearer than the
+     * farthest user kept. Rejected users never take a place in the heap, so a viewer who
+     * has swiped everyone close by still gets the nearest users they have not.
+     */
+    public Stream<ProfileFeatures> nearest(ProfileFeatures viewer, double radiusKm, int limit,
+                                           Predicate<ProfileFeatures> accept) {
+        if (!featureStore.isLoaded()) {
+            return nearestFromDatabase(viewer, radiusKm, limit).filter(accept);
+        }
+        lookups.increment();
+        double cellSize = matchingConfig.getGeo().getCellSizeDegrees();
+        int latCells = (int) Math.ceil(180 / cellSize);
+        int lngCells = (int) Math.ceil(360 / cellSize);
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lngSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(viewer.lat()))));
+        int maxRing = (int) Math.max(Math.ceil(latSpan / cellSize), Math.min(Math.ceil(lngSpan / cellSize), lngCells / 2)) + 1;
+        int centerLat = latIndex(viewer.lat());
+        int centerLng = lngIndex(viewer.lng());
+
+        PriorityQueue<Nearby> kept = new PriorityQueue<>(limit + 1, FARTHEST_FIRST);
+        Set<Long> visited = new HashSet<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Users in ring r are at least r - 1 whole cells away from the viewer
+            if (kept.size() >= limit && (ring - 1) * minCellKm(viewer.lat(), ring) > kept.peek().distanceKm()) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                int latIdx = centerLat + dLat;
+                if (latIdx < 0 || latIdx >= latCells) {
+                    continue;
+                }
+                int lngStep = Math.abs(dLat) == ring ? 1 : Math.max(1, 2 * ring);
+                for (int dLng = -ring; dLng <= ring; dLng += lngStep) {
+                    long cell = key(latIdx, Math.floorMod(centerLng + dLng, lngCells));
+                    if (visited.add(cell)) {
+                        collect(viewer, radiusKm, limit, accept, cells.get(cell), kept);
+                    }
+                }
+            }
+        }
+
+        List<Nearby> result = new ArrayList<>(kept);
+        result.sort(FARTHEST_FIRST.reversed());
+        return result.stream().map(Nearby::features);
+    }
+
+    public int size() {
+        return cellOfUser.size();
+    }
+
+    private void collect(ProfileFeatures viewer, double radiusKm, int limit, Predicate<ProfileFeatures> accept,
+                         Set<UUID> members, PriorityQueue<Nearby> kept) {
+        if (members == null) {
+            return;
+        }
+        for (UUID userId : members) {
+            if (userId.equals(viewer.userId())) {
+                continue;
+            }
+            ProfileFeatures other = featureStore.get(userId);
+            if (other == null || !other.hasLocation() || !accept.test(other)) {
+                continue;
+            }
+            double distance = matchScoringEngine.distanceKm(viewer, other);
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (kept.size() < limit) {
+                kept.add(new Nearby(other, distance));
+            } else if (distance < kept.peek().distanceKm()) {
+                kept.poll();
+                kept.add(new Nearby(other, distance));
+            }
+        }
+    }
+
+    // Narrowest cell edge, in km, among the rows a ring around the viewer can reach
+    private double minCellKm(double lat, int ring) {
+        double cellSize = matchingConfig.getGeo().getCellSizeDegrees();
+        double farthestLat = Math.min(90, Math.abs(lat) + (ring + 1) * cellSize);
+        return cellSize * KM_PER_DEGREE_LAT * Math.max(0.0, Math.cos(Math.toRadians(farthestLat)));
+    }
+
+    // Cold start: nearest users from PostGIS, before the caller's filter
+    private Stream<ProfileFeatures> nearestFromDatabase(ProfileFeatures viewer, double radiusKm, int limit) {
+        List<UUID> ids = profileRepository.findNearbyUserIds(
+                        viewer.lat(), viewer.lng(), radiusKm * 1000, viewer.userId(), limit)
+                .stream()
+                .map(UserProfileExtendedRepository.NearbyUser::getUserId)
+                .toList();
+        return featureStore.getAll(ids).values().stream();
+    }
+
+    private void move(UUID userId, long cell) {
+        Long previous = cellOfUser.put(userId, cell);
+        if (previous != null && previous != cell) {
+            removeFromCell(previous, userId);
+        }
+        addToCell(cell, userId);
+    }
+
+    private void remove(UUID userId) {
+        Long previous = cellOfUser.remove(userId);
+        if (previous != null) {
+            removeFromCell(previous, userId);
+        }
+    }
+
+    // Adds and removals both run inside compute, so a removal emptying a cell cannot drop
+    // it from the map while an add is putting a user into that same set
+    private void addToCell(long cell, UUID userId) {
+        cells.compute(cell, (k, members) -> {
+            Set<UUID> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+            updated.add(userId);
+            return updated;
+        });
+    }
+
+    private void removeFromCell(long cell, UUID userId) {
+        cells.computeIfPresent(cell, (k, members) -> {
+            members.remove(userId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private long cellKey(double lat, double lng) {
+        int lngCells = (int) Math.ceil(360 / matchingConfig.getGeo().getCellSizeDegrees());
+        return key(latIndex(lat), Math.floorMod(lngIndex(lng), lngCells));
+    }
+
+    private int latIndex(double lat) {
+        return (int) Math.floor((lat + 90) / matchingConfig.getGeo().getCellSizeDegrees());
+    }
+
+    private int lngIndex(double lng) {
+        return (int) Math.floor((lng + 180) / matchingConfig.getGeo().getCellSizeDegrees());
+    }
+
+    private static long key(int latIdx, int lngIdx) {
+        return ((long) latIdx << 32) | (lngIdx & 0xffffffffL);
+    }
+
+    private record Nearby(ProfileFeatures features, double distanceKm) {
+    }
+}
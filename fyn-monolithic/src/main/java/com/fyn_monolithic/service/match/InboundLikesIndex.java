@@ -0,0 +1,300 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.match.SwipeType;
+import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import com.fyn_monolithic.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Likes a user has received and not answered yet, as a Redis sorted set per liked user
+ * ({@code likes:in:{userId}}: member = liker id, score = like time in epoch millis).
+ * <p>
+ * Match detection: the first like of a pair is parked under a per-pair key
+ * ({@code likes:pair:{low:high}}) for {@code matching.inbound-likes.pair-ttl}, and one
+ * script per like checks for the other side's like and parks its own. Two crossing likes
+ * on different instances therefore run one after the other and the second sees the
+ * first; only likes older than the pair TTL, which have reached the sets and
+ * swipe_actions by then, are looked up with ZMSCORE.
+ * <p>
+ * "Who liked me" pages through the set newest first, keyed by (like time, liker id) so
+ * likes sharing a millisecond are neither skipped nor repeated. A set is seeded on first
+ * use and marked with a sentinel member; after that it is kept current by
+ * {@link MatchingService#swipe}: likes are added, and a user's own swipe on a liker
+ * removes that liker. Sets expire after {@code matching.inbound-likes.idle-ttl} without
+ * likes or reads and are seeded again on next use. If Redis is down, match detection
+ * falls back to swipe_actions.
+ * <p>
+ * Seeding reads the write-behind stream and then swipe_actions, so likes and answers
+ * not written yet are applied on top of the table. Removals bump a per-user counter
+ * ({@code :answers}), and {@link MatchingService#swipe} removes a like only after its
+ * swipe is in the stream. A seed stores its result only if the counter has not moved
+ * since before it read the stream: any answer it could have missed forces another try,
+ * so an answered like is never put back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InboundLikesIndex {
+
+    private static final String KEY_PREFIX = "likes:in:";
+    private static final String PAIR_KEY_PREFIX = "likes:pair:";
+    // Sentinel member (score 0) marking a set as seeded from the database
+    private static final String SEEDED = "*";
+    private static final int SEED_ATTEMPTS = 3;
+    private static final List<SwipeType> LIKE_TYPES = List.of(SwipeType.LIKE, SwipeType.SUPERLIKE);
+
+    // KEYS: pair; ARGV: actor id, pair ttl ms. Returns 1 if the other side's like is parked
+    // (and clears the pair, now matched), else parks the actor's like and returns 0.
+    private static final RedisScript<Long> PAIR_SCRIPT = new DefaultRedisScript<>("""
+            local first = redis.call('GET', KEYS[1])
+            if first and first ~= ARGV[1] then
+              redis.call('DEL', KEYS[1])
+              return 1
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 0
+            """, Long.class);
+
+    // KEYS: pair; ARGV: actor id. Unparks the actor's like, leaving the other side's alone.
+    private static final RedisScript<Long> UNPARK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    // KEYS: set, answers counter; ARGV: liker id, idle ttl ms
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            return redis.call('ZREM', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    // KEYS: set, answers counter; ARGV: counter seen before reading, idle ttl ms, then
+    // score/member pairs. Merges into likes recorded meanwhile.
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('ZADD', KEYS[1], 0, '*')
+            for i = 3, #ARGV, 1000 do
+              redis.call('ZADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final SwipeActionRepository swipeActionRepository;
+    private final SwipeWriteBehindQueue swipeWriteBehindQueue;
+    private final StringRedisTemplate redisTemplate;
+    private final MatchingConfig matchingConfig;
+
+    public record InboundLike(UUID likerId, Instant likedAt) {
+    }
+
+    public record InboundLikePage(List<InboundLike> likes, String nextCursor, boolean hasNext) {
+    }
+
+    /**
+     * Registers the actor's like in the pair's match check and tells whether the target
+     * has liked the actor, i.e. whether the like makes a match. Call once per like, before
+     * the like is accepted.
+     */
+    public boolean checkAndRecordLike(UUID actorId, UUID targetId) {
+        try {
+            Long parked = redisTemplate.execute(PAIR_SCRIPT, List.of(pairKey(actorId, targetId)),
+                    actorId.toString(),
+                    String.valueOf(matchingConfig.getInboundLikes().getPairTtl().toMillis()));
+            if (parked != null && parked == 1) {
+                return true;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Pair check unavailable for {} -> {}", actorId, targetId, ex);
+        }
+        return hasLiked(targetId, actorId);
+    }
+
+    public boolean hasLiked(UUID likerId, UUID likedId) {
+        try {
+            ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+            List<Double> scores = zset.score(key(likedId), likerId.toString(), SEEDED);
+            if (scores.get(1) == null) {
+                if (!seed(likedId)) {
+                    return swipeActionRepository.existsByActorIdAndTargetIdAndActionTypeIn(likerId, likedId, LIKE_TYPES);
+                }
+                return zset.score(key(likedId), likerId.toString()) != null;
+            }
+            return scores.get(0) != null;
+        } catch (RuntimeException ex) {
+            log.warn("Inbound likes unavailable for {}, checking swipe_actions", likedId, ex);
+            return swipeActionRepository.existsByActorIdAndTargetIdAndActionTypeIn(likerId, likedId, LIKE_TYPES);
+        }
+    }
+
+    public void recordLike(UUID likerId, UUID likedId, Instant likedAt) {
+        try {
+            redisTemplate.opsForZSet().add(key(likedId), likerId.toString(), likedAt.toEpochMilli());
+            touch(likedId);
+        } catch (RuntimeException ex) {
+            // Seeding after Redis recovers picks the like up from swipe_actions
+            log.warn("Failed to index like {} -> {}", likerId, likedId, ex);
+        }
+    }
+
+    /**
+     * Forgets a like once the liked user has answered it: swiped on, matched or blocked the
+     * liker. A swipe's answer must already be in the write-behind stream.
+     */
+    public void removeLike(UUID likerId, UUID likedId) {
+        try {
+            redisTemplate.execute(REMOVE_SCRIPT, List.of(key(likedId), answersKey(likedId)),
+                    likerId.toString(), String.valueOf(idleTtlMillis()));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to drop like {} -> {}", likerId, likedId, ex);
+        }
+    }
+
+    /**
+     * A like that was never written to swipe_actions must not answer a later like back.
+     */
+    @EventListener
+    public void onSwipeDropped(SwipeDroppedEvent event) {
+        removeLike(event.actorId(), event.targetId());
+        try {
+            redisTemplate.execute(UNPARK_SCRIPT, List.of(pairKey(event.actorId(), event.targetId())),
+                    event.actorId().toString());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to unpark like {} -> {}", event.actorId(), event.targetId(), ex);
+        }
+    }
+
+    /**
+     * Likers newest first, after {@code after} when given. Redis orders likes of the same
+     * millisecond by member, descending, so the cursor is (like time, liker id).
+     */
+    public InboundLikePage page(UUID likedId, KeysetCursor after, int size) {
+        String key = key(likedId);
+        ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+        if (zset.score(key, SEEDED) == null) {
+            seed(likedId);
+        } else {
+            touch(likedId);
+        }
+
+        List<TypedTuple<String>> rows = new ArrayList<>(size + 1);
+        double max = Double.POSITIVE_INFINITY;
+        if (after != null) {
+            double position = after.position().toEpochMilli();
+            String afterMember = after.id().toString();
+            // Rest of the cursor's millisecond first, then strictly older likes
+            Set<TypedTuple<String>> ties = zset.reverseRangeByScoreWithScores(key, position, position);
+            if (ties != null) {
+                for (TypedTuple<String> tie : ties) {
+                    if (rows.size() <= size && tie.getValue().compareTo(afterMember) < 0) {
+                        rows.add(tie);
+                    }
+                }
+            }
+            max = position - 1;
+        }
+        if (rows.size() <= size) {
+            // min 1 keeps the sentinel (score 0) out
+            Set<TypedTuple<String>> older = zset.reverseRangeByScoreWithScores(key, 1, max, 0, size + 1 - rows.size());
+            if (older != null) {
+                rows.addAll(older);
+            }
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<InboundLike> likes = (hasNext ? rows.subList(0, size) : rows).stream()
+                .map(t -> new InboundLike(UUID.fromString(t.getValue()), Instant.ofEpochMilli(t.getScore().longValue())))
+                .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            InboundLike last = likes.get(likes.size() - 1);
+            nextCursor = new KeysetCursor(last.likedAt(), last.likerId()).encode();
+        }
+        return new InboundLikePage(likes, nextCursor, hasNext);
+    }
+
+    /**
+     * Seeds the set from the swipes still in the stream and swipe_actions, retrying when
+     * the liked user answers a like meanwhile. Returns whether the seed was stored.
+     */
+    private boolean seed(UUID likedId) {
+        for (int attempt = 0; attempt < SEED_ATTEMPTS; attempt++) {
+            String answers = redisTemplate.opsForValue().get(answersKey(likedId));
+            List<PendingSwipe> pending = swipeWriteBehindQueue.pendingSwipes(
+                    swipe -> swipe.targetId().equals(likedId) || swipe.actorId().equals(likedId));
+
+            Map<String, Long> likes = new HashMap<>();
+            for (SwipeActionRepository.InboundLike like : swipeActionRepository.findUnansweredLikes(likedId, LIKE_TYPES)) {
+                likes.put(like.getActorId().toString(), like.getCreatedAt().toEpochMilli());
+            }
+            for (PendingSwipe swipe : pending) {
+                if (swipe.targetId().equals(likedId) && swipe.isLike()) {
+                    likes.putIfAbsent(swipe.actorId().toString(), swipe.createdAt().toEpochMilli());
+                }
+            }
+            for (PendingSwipe swipe : pending) {
+                if (swipe.actorId().equals(likedId)) {
+                    likes.remove(swipe.targetId().toString());
+                }
+            }
+
+            List<String> args = new ArrayList<>(2 * likes.size() + 2);
+            args.add(answers != null ? answers : "0");
+            args.add(String.valueOf(idleTtlMillis()));
+            likes.forEach((likerId, likedAt) -> {
+                args.add(String.valueOf(likedAt));
+                args.add(likerId);
+            });
+            Long stored = redisTemplate.execute(SEED_SCRIPT, List.of(key(likedId), answersKey(likedId)), args.toArray());
+            if (stored != null && stored == 1) {
+                return true;
+            }
+        }
+        log.debug("Inbound likes of {} kept changing, left unseeded", likedId);
+        return false;
+    }
+
+    private void touch(UUID likedId) {
+        redisTemplate.expire(key(likedId), matchingConfig.getInboundLikes().getIdleTtl());
+    }
+
+    private long idleTtlMillis() {
+        return matchingConfig.getInboundLikes().getIdleTtl().toMillis();
+    }
+
+    private static String key(UUID likedId) {
+        return KEY_PREFIX + "{" + likedId + "}";
+    }
+
+    private static String answersKey(UUID likedId) {
+        return key(likedId) + ":answers";
+    }
+
+    // Same key whichever side swipes
+    private static String pairKey(UUID userId1, UUID userId2) {
+        boolean ordered = userId1.compareTo(userId2) < 0;
+        return PAIR_KEY_PREFIX + "{" + (ordered ? userId1 : userId2) + ":" + (ordered ? userId2 : userId1) + "}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.Arrays;
+
+/**
+ * Operations on interest bitsets ({@code long[]} words, bit n = dictionary code n).
+ * Arrays may differ in length; missing words count as zero.
+ */
+public final class InterestBits {
+
+    public static final long[] EMPTY = new long[0];
+
+    private InterestBits() {
+    }
+
+    /**
+     * Sets bit {@code code}, in place when {@code bits} is long enough, otherwise on a grown copy.
+     */
+    public static long[] set(long[] bits, int code) {
+        int word = code / Long.SIZE;
+        long[] result = word < bits.length ? bits : Arrays.copyOf(bits, word + 1);
+        result[word] |= 1L << (code % Long.SIZE);
+        return result;
+    }
+
+    public static long[] and(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = a[i] & b[i];
+        }
+        return result;
+    }
+
+    public static int intersectionCount(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Jaccard similarity |a ∩ b| / |a ∪ b|, 0 when both sets are empty.
+     */
+    public static double jaccard(long[] a, int cardinalityA, long[] b, int cardinalityB) {
+        int shared = intersectionCount(a, b);
+        int union = cardinalityA + cardinalityB - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+}
@@ -0,0 +1,72 @@
+package com.fyn_monolithic.service.match;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary from normalized interest strings to small dense ints,
+ * so profile interests can be held as bitsets. Codes are only meaningful inside
+ * this instance; they are never persisted.
+ */
+@Component
+public class InterestDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<String> terms = new ArrayList<>();
+
+    public static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int codeOf(String term) {
+        String normalized = normalize(term);
+        Integer code = codes.get(normalized);
+        return code != null ? code : assign(normalized);
+    }
+
+    public long[] encode(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return InterestBits.EMPTY;
+        }
+        long[] bits = InterestBits.EMPTY;
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                bits = InterestBits.set(bits, codeOf(value));
+            }
+        }
+        return bits;
+    }
+
+    public List<String> decode(long[] bits) {
+        List<String> decoded = new ArrayList<>(InterestBits.cardinality(bits));
+        synchronized (terms) {
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    decoded.add(terms.get(word * Long.SIZE + Long.numberOfTrailingZeros(remaining)));
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+        return decoded;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private int assign(String normalized) {
+        synchronized (terms) {
+            return codes.computeIfAbsent(normalized, key -> {
+                terms.add(key);
+                return terms.size() - 1;
+            });
+        }
+    }
+}
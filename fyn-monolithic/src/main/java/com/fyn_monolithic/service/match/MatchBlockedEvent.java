@@ -0,0 +1,9 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link MatchingService#blockMatch} when a user blocks another.
+ */
+public record MatchBlockedEvent(UUID userId, UUID blockedUserId) {
+}
@@ -0,0 +1,9 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link SwipeWriter} when a swipe completes a match.
+ */
+public record MatchCreatedEvent(UUID userId1, UUID userId2) {
+}
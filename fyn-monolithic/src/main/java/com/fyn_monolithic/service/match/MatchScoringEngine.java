@@ -0,0 +1,402 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.match.MatchScore;
+import com.fyn_monolithic.repository.match.MatchScoreRepository;
+import com.fyn_monolithic.repository.match.MatchScoreRepository.StoredPair;
+import com.fyn_monolithic.repository.match.MatchScoreRepositoryCustom.ScoredPair;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes compatibility scores between two users from their {@link ProfileFeatures}.
+ * <p>
+ * Scores are stored once per unordered pair in match_scores. Nearby pairs of active users
+ * are scored by a fork-join batch job ({@link #recomputeAll}), which also deletes the pairs
+ * it no longer scores; between runs, the stored pairs of users whose features change are
+ * rescored as the feature store syncs ({@link #onProfilesChanged}). Discover only reads them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchScoringEngine {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // Profiles handled by one fork-join leaf before it stops splitting
+    private static final int LEAF_SIZE = 64;
+
+    private final ProfileFeatureStore featureStore;
+    private final InterestDictionary interestDictionary;
+    private final MatchScoreRepository matchScoreRepository;
+    private final MatchingConfig matchingConfig;
+
+    /**
+     * What discover shows for a candidate: stored total score, shared interests and distance.
+     */
+    public record DiscoverScore(Double matchScore, List<String> commonInterests, Double distanceKm) {
+    }
+
+    public ScoredPair score(ProfileFeatures a, ProfileFeatures b) {
+        if (a.userId().compareTo(b.userId()) > 0) {
+            ProfileFeatures swap = a;
+            a = b;
+            b = swap;
+        }
+        double interestScore = interestScore(a, b);
+        double locationScore = locationScore(a, b);
+        double activityScore = activityScore(a, b);
+        double total = total(a, b, interestScore, locationScore, activityScore);
+
+        return new ScoredPair(a.userId(), b.userId(),
+                round(total), round(interestScore), round(locationScore), round(activityScore),
+                commonInterests(a, b));
+    }
+
+    /**
+     * Unrounded total score of a pair, without decoding shared interests; used to rank
+     * many candidates per request.
+     */
+    public double rankScore(ProfileFeatures viewer, ProfileFeatures candidate) {
+        return total(viewer, candidate,
+                interestScore(viewer, candidate), locationScore(viewer, candidate), activityScore(viewer, candidate));
+    }
+
+    public List<String> commonInterests(ProfileFeatures a, ProfileFeatures b) {
+        List<String> common = interestDictionary.decode(InterestBits.and(a.interestBits(), b.interestBits()));
+        common.sort(null);
+        return common;
+    }
+
+    public Double distanceKm(ProfileFeatures a, ProfileFeatures b) {
+        if (!a.hasLocation() || !b.hasLocation()) {
+            return null;
+        }
+        double dLat = Math.toRadians(b.lat() - a.lat());
+        double dLng = Math.toRadians(b.lng() - a.lng());
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(a.lat())) * Math.cos(Math.toRadians(b.lat()))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(h));
+    }
+
+    /**
+     * Incremental path: rescores the stored pairs of users whose features changed, so an
+     * edited profile shows in discover before the next batch run. Pairs with a side that
+     * is no longer active are left for the batch job to prune. Skipped for the initial
+     * load, which changes every profile at once.
+     */
+    @EventListener
+    public void onProfilesChanged(ProfileFeaturesChangedEvent event) {
+        if (!featureStore.isLoaded() || event.updated().isEmpty()) {
+            return;
+        }
+        int batchSize = matchingConfig.getScoring().getBatchUpsertSize();
+        List<UUID> changed = event.updated().stream().map(ProfileFeatures::userId).toList();
+        Set<String> seen = new HashSet<>();
+        List<ScoredPair> buffer = new ArrayList<>(batchSize);
+        int rescored = 0;
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            List<UUID> chunk = changed.subList(from, Math.min(from + batchSize, changed.size()));
+            for (StoredPair stored : matchScoreRepository.findPairsOf(chunk)) {
+                ProfileFeatures a = featureStore.get(stored.getUserId1());
+                ProfileFeatures b = featureStore.get(stored.getUserId2());
+                // A pair of two changed users comes back for each of them
+                if (a == null || b == null || !seen.add(stored.getUserId1() + ":" + stored.getUserId2())) {
+                    continue;
+                }
+                buffer.add(score(a, b));
+                if (buffer.size() >= batchSize) {
+                    matchScoreRepository.upsertAll(buffer);
+                    rescored += buffer.size();
+                    buffer.clear();
+                }
+            }
+        }
+        matchScoreRepository.upsertAll(buffer);
+        rescored += buffer.size();
+        log.debug("Rescored {} stored pairs of {} changed profiles", rescored, changed.size());
+    }
+
+    /**
+     * Scores of a viewer against a page of candidates, keyed by candidate id.
+     * Pairs the batch job has not reached yet are scored from the feature store
+     * on the fly, without being stored.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, DiscoverScore> discoverScores(UUID viewerId, Collection<UUID> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, MatchScore> stored = new HashMap<>();
+        for (MatchScore score : matchScoreRepository.findForViewer(viewerId, candidateIds)) {
+            UUID other = score.getUser1().getId().equals(viewerId)
+                    ? score.getUser2().getId()
+                    : score.getUser1().getId();
+            stored.put(other, score);
+        }
+
+        List<UUID> profileIds = new ArrayList<>(candidateIds);
+        profileIds.add(viewerId);
+        Map<UUID, ProfileFeatures> profiles = featureStore.getAll(profileIds);
+        ProfileFeatures viewer = profiles.get(viewerId);
+
+        Map<UUID, DiscoverScore> result = new HashMap<>();
+        for (UUID candidateId : candidateIds) {
+            ProfileFeatures candidate = profiles.get(candidateId);
+            Double distance = viewer != null && candidate != null ? distanceKm(viewer, candidate) : null;
+            MatchScore score = stored.get(candidateId);
+            if (score != null) {
+                result.put(candidateId, new DiscoverScore(score.getTotalScore(),
+                        score.getCommonInterests() != null ? score.getCommonInterests() : List.of(),
+                        distance != null ? round(distance) : null));
+            } else if (viewer != null && candidate != null) {
+                ScoredPair pair = score(viewer, candidate);
+                result.put(candidateId, new DiscoverScore(pair.totalScore(), pair.commonInterests(),
+                        distance != null ? round(distance) : null));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Batch path: scores each active, located user against at most
+     * {@code matching.scoring.batch-max-pairs-per-user} of their nearest users within
+     * {@code matching.scoring.batch-max-distance-km}, so the work stays linear in users
+     * however dense an area gets. A pair is kept if either side has the other among its
+     * nearest, and written once.
+     * <p>
+     * Profiles are sorted by latitude so each one only walks the band of neighbours that
+     * can possibly be in range. A first pass records every profile's farthest kept
+     * neighbour; the second pass scores a kept neighbour unless that neighbour also keeps
+     * this profile and comes first in the sort, in which case it writes the pair itself.
+     * Once all pairs are written, rows the run did not refresh are deleted.
+     */
+    @Scheduled(cron = "${matching.scoring.batch-cron:0 30 3 * * *}")
+    public void recomputeAll() {
+        long started = System.nanoTime();
+        Instant runStartedAt = matchScoreRepository.databaseNow();
+        featureStore.sync();
+        List<ProfileFeatures> profiles = featureStore.all().stream()
+                .filter(ProfileFeatures::hasLocation)
+                .sorted(Comparator.comparingDouble(ProfileFeatures::lat))
+                .toList();
+        double[] lats = profiles.stream().mapToDouble(ProfileFeatures::lat).toArray();
+        Neighbour[] farthestKept = new Neighbour[profiles.size()];
+
+        ForkJoinPool pool = new ForkJoinPool(matchingConfig.getScoring().getBatchParallelism());
+        int written;
+        try {
+            pool.invoke(new RangeTask(0, profiles.size(), (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    farthestKept[i] = farthestKept(nearest(profiles, lats, i));
+                }
+                return 0;
+            }));
+            written = pool.invoke(new RangeTask(0, profiles.size(),
+                    (from, to) -> scoreRange(profiles, lats, farthestKept, from, to)));
+        } finally {
+            pool.shutdown();
+        }
+
+        int pruned = 0;
+        int chunk = matchingConfig.getScoring().getBatchPruneSize();
+        int deleted;
+        do {
+            deleted = matchScoreRepository.deleteNotUpdatedSince(runStartedAt, chunk);
+            pruned += deleted;
+        } while (deleted == chunk);
+        log.info("Match scoring batch: {} profiles, {} pairs upserted, {} stale pairs deleted in {} ms",
+                profiles.size(), written, pruned, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private int scoreRange(List<ProfileFeatures> profiles, double[] lats, Neighbour[] farthestKept, int from, int to) {
+        int batchSize = matchingConfig.getScoring().getBatchUpsertSize();
+        List<ScoredPair> buffer = new ArrayList<>(batchSize);
+        int written = 0;
+        for (int i = from; i < to; i++) {
+            for (Neighbour neighbour : nearest(profiles, lats, i)) {
+                int j = neighbour.index();
+                // A neighbour sorted earlier that keeps this profile too writes the pair itself
+                if (j < i && keeps(farthestKept[j], new Neighbour(i, neighbour.distanceKm()))) {
+                    continue;
+                }
+                buffer.add(score(profiles.get(i), profiles.get(j)));
+                if (buffer.size() >= batchSize) {
+                    matchScoreRepository.upsertAll(buffer);
+                    written += buffer.size();
+                    buffer.clear();
+                }
+            }
+        }
+        matchScoreRepository.upsertAll(buffer);
+        return written + buffer.size();
+    }
+
+    /**
+     * The nearest in-range neighbours of {@code profiles[i]}, at most the per-user pair
+     * limit, as a max-heap on (distance, index) so the farthest kept one is on top.
+     */
+    private PriorityQueue<Neighbour> nearest(List<ProfileFeatures> profiles, double[] lats, int i) {
+        MatchingConfig.Scoring config = matchingConfig.getScoring();
+        int limit = config.getBatchMaxPairsPerUser();
+        double bandDegrees = config.getBatchMaxDistanceKm() / KM_PER_DEGREE_LAT;
+        ProfileFeatures a = profiles.get(i);
+        PriorityQueue<Neighbour> kept = new PriorityQueue<>(limit + 1, Neighbour.NEAREST_FIRST.reversed());
+        for (int j = lowerBound(lats, a.lat() - bandDegrees); j < lats.length && lats[j] <= a.lat() + bandDegrees; j++) {
+            if (j == i) {
+                continue;
+            }
+            ProfileFeatures b = profiles.get(j);
+            // Measured in sort order so both sides of a pair see the same distance
+            double distance = i < j ? distanceKm(a, b) : distanceKm(b, a);
+            if (distance > Math.min(maxDistanceKm(a, b), config.getBatchMaxDistanceKm())) {
+                continue;
+            }
+            Neighbour candidate = new Neighbour(j, distance);
+            if (kept.size() < limit) {
+                kept.add(candidate);
+            } else if (Neighbour.NEAREST_FIRST.compare(candidate, kept.peek()) < 0) {
+                kept.poll();
+                kept.add(candidate);
+            }
+        }
+        return kept;
+    }
+
+    private Neighbour farthestKept(PriorityQueue<Neighbour> kept) {
+        // Fewer neighbours than the limit means every in-range one was kept
+        return kept.size() < matchingConfig.getScoring().getBatchMaxPairsPerUser() ? null : kept.peek();
+    }
+
+    // Whether a profile whose farthest kept neighbour is farthest also keeps candidate
+    private static boolean keeps(Neighbour farthest, Neighbour candidate) {
+        return farthest == null || Neighbour.NEAREST_FIRST.compare(candidate, farthest) <= 0;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Neighbour(int index, double distanceKm) {
+        static final Comparator<Neighbour> NEAREST_FIRST = Comparator.comparingDouble(Neighbour::distanceKm)
+                .thenComparingInt(Neighbour::index);
+    }
+
+    @FunctionalInterface
+    private interface RangeWork {
+        int run(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveTask<Integer> {
+        private final int from;
+        private final int to;
+        private final RangeWork work;
+
+        private RangeTask(int from, int to, RangeWork work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                RangeTask left = new RangeTask(from, mid, work);
+                left.fork();
+                int right = new RangeTask(mid, to, work).compute();
+                return left.join() + right;
+            }
+            return work.run(from, to);
+        }
+    }
+
+    /**
+     * The user's own max distance, or the configured default when unset.
+     */
+    public double searchRadiusKm(ProfileFeatures profile) {
+        return profile.maxDistanceKm() != null && profile.maxDistanceKm() > 0
+                ? profile.maxDistanceKm()
+                : matchingConfig.getScoring().getDefaultMaxDistanceKm();
+    }
+
+    private double maxDistanceKm(ProfileFeatures a, ProfileFeatures b) {
+        return Math.min(searchRadiusKm(a), searchRadiusKm(b));
+    }
+
+    private double interestScore(ProfileFeatures a, ProfileFeatures b) {
+        return 100.0 * InterestBits.jaccard(a.interestBits(), a.interestCount(), b.interestBits(), b.interestCount());
+    }
+
+    private double locationScore(ProfileFeatures a, ProfileFeatures b) {
+        Double distance = distanceKm(a, b);
+        return distance == null ? 0 : 100.0 * Math.max(0, 1 - distance / maxDistanceKm(a, b));
+    }
+
+    private double activityScore(ProfileFeatures a, ProfileFeatures b) {
+        return Math.min(activity(a.lastActiveAt()), activity(b.lastActiveAt()));
+    }
+
+    private double total(ProfileFeatures a, ProfileFeatures b,
+                         double interestScore, double locationScore, double activityScore) {
+        MatchingConfig.Scoring config = matchingConfig.getScoring();
+        double weights = config.getInterestWeight() + config.getLocationWeight() + config.getActivityWeight();
+        double total = (config.getInterestWeight() * interestScore
+                + config.getLocationWeight() * locationScore
+                + config.getActivityWeight() * activityScore) / weights;
+        return total * preferenceFactor(a, b) * preferenceFactor(b, a);
+    }
+
+    private double activity(Instant lastActiveAt) {
+        if (lastActiveAt == null) {
+            return 0;
+        }
+        double halfLifeHours = matchingConfig.getScoring().getActivityHalfLife().toMinutes() / 60.0;
+        double hoursSince = Math.max(0, Duration.between(lastActiveAt, Instant.now()).toMinutes() / 60.0);
+        return 100.0 * Math.pow(0.5, hoursSince / halfLifeHours);
+    }
+
+    // Penalises the pair when {@code viewer}'s age/gender preferences exclude {@code other}
+    private double preferenceFactor(ProfileFeatures viewer, ProfileFeatures other) {
+        boolean genderMiss = !viewer.preferredGenders().isEmpty()
+                && (other.gender() == null || !viewer.preferredGenders().contains(other.gender()));
+        boolean ageMiss = other.age() != null
+                && ((viewer.preferredAgeMin() != null && other.age() < viewer.preferredAgeMin())
+                || (viewer.preferredAgeMax() != null && other.age() > viewer.preferredAgeMax()));
+        return genderMiss || ageMiss ? matchingConfig.getScoring().getPreferenceMismatchFactor() : 1.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
@@ -1,23 +1,25 @@
 package com.fyn_monolithic.service.match;
 
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.match.DiscoverProfileResponse;
 import com.fyn_monolithic.model.connection.Connection;
 import com.fyn_monolithic.model.connection.ConnectionStatus;
-import com.fyn_monolithic.model.connection.ConnectionType;
-import com.fyn_monolithic.model.match.SwipeAction;
 import com.fyn_monolithic.model.match.SwipeType;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.connection.ConnectionRepository;
-import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
 import com.fyn_monolithic.repository.user.UserRepository;
 import com.fyn_monolithic.exception.ResourceNotFoundException;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,133 +27,204 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MatchingService {
 
-    private final SwipeActionRepository swipeActionRepository;
     private final ConnectionRepository connectionRepository;
     private final UserRepository userRepository;
+    private final SwipedSetCache swipedSetCache;
+    private final MatchScoringEngine matchScoringEngine;
+    private final ProfileFeatureStore profileFeatureStore;
+    private final DiscoverDeckService discoverDeckService;
+    private final InboundLikesIndex inboundLikesIndex;
+    private final SwipeWriteBehindQueue swipeWriteBehindQueue;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get potential matches for the discover screen
-     * Excludes: current user, already swiped users, blocked users
+     * Excludes: current user, already swiped users, blocked users.
+     * Viewers with a location are served from their precomputed deck of nearby users,
+     * ranked by match score, and simply request again for more; others get all active
+     * users ordered by id, keyset-paginated by passing the last returned userId as {@code after}.
+     * When the deck cannot fill the page (everyone nearby swiped), the rest of the page
+     * comes from that keyset path, so the feed only ends once both are exhausted.
      */
-    public Page<DiscoverProfileResponse> getDiscoverProfiles(UUID userId, String connectionType, Pageable pageable) {
-        // Get users already swiped by this user
-        Set<UUID> swipedUserIds = swipeActionRepository.findByActorId(userId)
-                .stream()
-                .map(action -> action.getTarget().getId())
-                .collect(Collectors.toSet());
-        swipedUserIds.add(userId); // Exclude self
+    @Transactional(readOnly = true)
+    public Slice<DiscoverProfileResponse> getDiscoverProfiles(UUID userId, String connectionType, UUID after, int size) {
+        ProfileFeatures viewer = profileFeatureStore.getAll(List.of(userId)).get(userId);
+        List<User> candidates = new ArrayList<>(size);
+        Set<UUID> served = new HashSet<>();
+        if (viewer != null && viewer.hasLocation()) {
+            List<UUID> ids = discoverDeckService.take(viewer, size);
+            candidates.addAll(findUsersInOrder(ids));
+            served.addAll(ids);
+        }
 
-        // Get all active users except swiped ones
-        Page<User> potentialMatches = userRepository.findAll(pageable);
+        boolean hasNext = true;
+        int remaining = size - candidates.size();
+        if (remaining > 0) {
+            // Fetch one extra row to know whether another page exists, plus room for
+            // users the deck already put on this page
+            List<User> more = userRepository.findDiscoverCandidates(userId, after, remaining + served.size() + 1)
+                    .stream()
+                    .filter(user -> !served.contains(user.getId()))
+                    .toList();
+            hasNext = more.size() > remaining;
+            candidates.addAll(more.subList(0, Math.min(remaining, more.size())));
+        }
 
-        List<DiscoverProfileResponse> profiles = potentialMatches.getContent().stream()
-                .filter(user -> !swipedUserIds.contains(user.getId()))
-                .map(user -> mapToDiscoverProfile(user, userId))
-                .collect(Collectors.toList());
+        List<DiscoverProfileResponse> profiles = mapToDiscoverProfiles(candidates, userId);
 
-        return new PageImpl<>(profiles, pageable, profiles.size());
+        return new SliceImpl<>(profiles, PageRequest.of(0, size), hasNext);
+    }
+
+    private List<User> findUsersInOrder(List<UUID> ids) {
+        Map<UUID, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Get user's matches (mutual likes)
+     * Get user's matches (mutual likes), newest first.
+     * Filtering, the counterpart's profile and paging all happen in one query;
+     * pass the returned nextCursor back as {@code cursor} for the next page.
      */
-    public Page<DiscoverProfileResponse> getMatches(UUID userId, String status, Pageable pageable) {
-        // Get connections where user is requester or receiver and status is ACCEPTED
-        Page<Connection> connections = connectionRepository.findByRequesterIdOrReceiverId(
-                userId, userId, pageable);
-
-        List<DiscoverProfileResponse> matches = connections.getContent().stream()
-                .filter(c -> c.getStatus() == ConnectionStatus.ACCEPTED)
-                .filter(c -> "SWIPE".equals(c.getMatchSource()))
-                .map(connection -> {
-                    // Get the other user in the connection
-                    User other = connection.getRequester().getId().equals(userId)
-                            ? connection.getReceiver()
-                            : connection.getRequester();
-                    return mapToDiscoverProfile(other, userId);
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DiscoverProfileResponse> getMatches(UUID userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<ConnectionRepository.MatchRow> rows = connectionRepository.findSwipeMatches(
+                userId,
+                after != null ? after.position() : null,
+                after != null ? after.id() : null,
+                size + 1);
+
+        Map<UUID, MatchScoringEngine.DiscoverScore> scores = matchScoringEngine.discoverScores(
+                userId, rows.stream().limit(size).map(ConnectionRepository.MatchRow::getUserId).toList());
+        List<DiscoverProfileResponse> matches = rows.stream()
+                .map(row -> {
+                    MatchScoringEngine.DiscoverScore score = scores.get(row.getUserId());
+                    return DiscoverProfileResponse.builder()
+                            .userId(row.getUserId())
+                            .username(row.getUsername())
+                            .fullName(row.getFullName())
+                            .bio(row.getBio())
+                            .photos(row.getAvatarObjectKey() != null
+                                    ? List.of("/api/v1/files/" + row.getAvatarObjectKey())
+                                    : List.of())
+                            .matchScore(score != null ? score.matchScore() : null)
+                            .commonInterests(score != null ? score.commonInterests() : List.of())
+                            .distanceKm(score != null ? score.distanceKm() : null)
+                            .matchId(row.getConnectionId())
+                            .matchedAt(row.getMatchedAt())
+                            .build();
                 })
                 .collect(Collectors.toList());
 
-        return new PageImpl<>(matches, pageable, matches.size());
+        return CursorPageResponse.of(matches, size,
+                match -> new KeysetCursor(match.getMatchedAt(), match.getMatchId()).encode());
     }
 
     /**
-     * Swipe on a user
+     * Users who liked the given user and have not been swiped on, matched or blocked by
+     * them yet, newest first. Pass the returned nextCursor back as {@code cursor} for the
+     * next page. A page may hold fewer than {@code size} likes when some were filtered out.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DiscoverProfileResponse> getLikesReceived(UUID userId, String cursor, int size) {
+        InboundLikesIndex.InboundLikePage page = inboundLikesIndex.page(userId, KeysetCursor.decode(cursor), size);
+        List<UUID> likerIds = page.likes().stream().map(InboundLikesIndex.InboundLike::likerId).toList();
+        Set<UUID> answered = likerIds.isEmpty() ? Set.of() : new HashSet<>(connectionRepository.findCounterpartIdsAmong(
+                userId, likerIds, List.of(ConnectionStatus.ACCEPTED, ConnectionStatus.BLOCKED)));
+        // A match or block answers the like too, so the index forgets it
+        answered.forEach(likerId -> inboundLikesIndex.removeLike(likerId, userId));
+
+        Map<UUID, User> users = userRepository.findAllById(likerIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        List<InboundLikesIndex.InboundLike> likes = page.likes().stream()
+                .filter(like -> users.containsKey(like.likerId()) && !answered.contains(like.likerId()))
+                .toList();
+
+        List<DiscoverProfileResponse> profiles = mapToDiscoverProfiles(
+                likes.stream().map(like -> users.get(like.likerId())).collect(Collectors.toList()), userId);
+        for (int i = 0; i < profiles.size(); i++) {
+            profiles.get(i).setLikedAt(likes.get(i).likedAt());
+        }
+        return CursorPageResponse.<DiscoverProfileResponse>builder()
+                .content(profiles)
+                .size(profiles.size())
+                .nextCursor(page.nextCursor())
+                .hasNext(page.hasNext())
+                .build();
+    }
+
+    /**
+     * Swipe on a user.
+     * The swipe is accepted into the write-behind queue and the match answer comes from
+     * the inbound-likes index; the database write happens in the background.
      */
-    @Transactional
     public boolean swipe(UUID actorId, UUID targetId, SwipeType swipeType) {
         if (actorId.equals(targetId)) {
             throw new IllegalArgumentException("Cannot swipe on yourself");
         }
+        if (profileFeatureStore.get(targetId) == null && !userRepository.existsById(targetId)) {
+            throw new ResourceNotFoundException("Target not found");
+        }
 
-        User actor = userRepository.findById(actorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Actor not found"));
-        User target = userRepository.findById(targetId)
-                .orElseThrow(() -> new ResourceNotFoundException("Target not found"));
-
-        // Check if already swiped
-        if (swipeActionRepository.existsByActorIdAndTargetId(actorId, targetId)) {
+        // Claims the pair atomically, so concurrent duplicate swipes are answered once
+        if (!swipedSetCache.recordSwipe(actorId, targetId)) {
             return false; // Already swiped
         }
 
-        // Save swipe action
-        SwipeAction action = new SwipeAction();
-        action.setActor(actor);
-        action.setTarget(target);
-        action.setActionType(swipeType);
-        swipeActionRepository.save(action);
-
-        // Check for match
-        if (swipeType == SwipeType.LIKE || swipeType == SwipeType.SUPERLIKE) {
-            boolean isMatch = swipeActionRepository.existsByActorIdAndTargetIdAndActionType(
-                    targetId, actorId, SwipeType.LIKE) ||
-                    swipeActionRepository.existsByActorIdAndTargetIdAndActionType(
-                            targetId, actorId, SwipeType.SUPERLIKE);
-
-            if (isMatch) {
-                _createMatch(actor, target);
-                return true;
-            }
+        // Check for match: one atomic step per pair, so of two crossing likes the second sees the first
+        Instant now = Instant.now();
+        boolean isLike = swipeType == SwipeType.LIKE || swipeType == SwipeType.SUPERLIKE;
+        boolean isMatch = isLike && inboundLikesIndex.checkAndRecordLike(actorId, targetId);
+
+        swipeWriteBehindQueue.accept(new PendingSwipe(actorId, targetId, swipeType, now));
+
+        // Only once the swipe is in the stream, so a concurrent seed of either set sees it
+        // or starts over. Any swipe answers the target's like on the actor.
+        inboundLikesIndex.removeLike(targetId, actorId);
+        if (isLike && !isMatch) {
+            inboundLikesIndex.recordLike(actorId, targetId, now);
         }
-        return false;
+        return isMatch;
     }
 
     /**
-     * Block a match (removes connection)
+     * Block a match (connection is kept as BLOCKED so discover keeps excluding the pair)
      */
     @Transactional
     public void blockMatch(UUID userId, UUID matchId) {
-        // Find and delete the connection
         connectionRepository.findByRequesterIdAndReceiverId(userId, matchId)
-                .ifPresent(connectionRepository::delete);
+                .ifPresent(this::_block);
         connectionRepository.findByRequesterIdAndReceiverId(matchId, userId)
-                .ifPresent(connectionRepository::delete);
+                .ifPresent(this::_block);
+        eventPublisher.publishEvent(new MatchBlockedEvent(userId, matchId));
     }
 
-    private void _createMatch(User u1, User u2) {
-        // Check if connection already exists
-        if (connectionRepository.existsByRequesterIdAndReceiverId(u1.getId(), u2.getId()) ||
-                connectionRepository.existsByRequesterIdAndReceiverId(u2.getId(), u1.getId())) {
-            return;
-        }
+    private void _block(Connection connection) {
+        connection.setStatus(ConnectionStatus.BLOCKED);
+        connectionRepository.save(connection);
+    }
 
-        // Create mutual connection
-        Connection c1 = new Connection();
-        c1.setRequester(u1);
-        c1.setReceiver(u2);
-        c1.setConnectionType(ConnectionType.FRIEND);
-        c1.setStatus(ConnectionStatus.ACCEPTED);
-        c1.setMatchSource("SWIPE");
-        connectionRepository.save(c1);
+    /**
+     * Map user entities to discover profile responses, reading precomputed match scores
+     * for the whole page at once
+     */
+    private List<DiscoverProfileResponse> mapToDiscoverProfiles(List<User> users, UUID viewerId) {
+        Map<UUID, MatchScoringEngine.DiscoverScore> scores = matchScoringEngine.discoverScores(
+                viewerId, users.stream().map(User::getId).toList());
+        return users.stream()
+                .map(user -> mapToDiscoverProfile(user, scores.get(user.getId())))
+                .collect(Collectors.toList());
     }
 
     /**
      * Map user entity to discover profile response
      */
-    private DiscoverProfileResponse mapToDiscoverProfile(User user, UUID viewerId) {
-        // Calculate mock match score (in real app, use matching algorithm)
-        double matchScore = 50 + (Math.random() * 50); // 50-100%
-
+    private DiscoverProfileResponse mapToDiscoverProfile(User user, MatchScoringEngine.DiscoverScore score) {
         // Get profile data safely
         String bio = null;
         String avatarUrl = null;
@@ -168,9 +241,9 @@ public class MatchingService {
                 .fullName(user.getFullName())
                 .bio(bio)
                 .photos(avatarUrl != null ? List.of(avatarUrl) : List.of())
-                .matchScore(Math.round(matchScore * 10.0) / 10.0)
-                .commonInterests(List.of()) // Would be calculated from user interests
-                .distanceKm(Math.round(Math.random() * 50 * 10.0) / 10.0) // Mock distance
+                .matchScore(score != null ? score.matchScore() : null)
+                .commonInterests(score != null ? score.commonInterests() : List.of())
+                .distanceKm(score != null ? score.distanceKm() : null)
                 .build();
     }
 }
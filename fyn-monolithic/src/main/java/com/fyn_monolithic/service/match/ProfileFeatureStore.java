@@ -0,0 +1,179 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.user.UserProfileExtended;
+import com.fyn_monolithic.repository.user.UserProfileExtendedRepository;
+import com.fyn_monolithic.service.common.OrdinalRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link ProfileFeatures} of active users, used for scoring without
+ * touching the database. Loaded once the application is ready and then kept
+ * current by a delta sync on the profiles'/users' updated_at watermark.
+ * Every sync that changes something publishes a {@link ProfileFeaturesChangedEvent}.
+ * <p>
+ * updated_at is stamped when a transaction writes, not when it commits, so a row may
+ * become visible after rows stamped later than it. Each sync therefore reads from
+ * {@code matching.features.sync-overlap} before the watermark and skips rows whose
+ * stamp it has already applied.
+ */
+@Slf4j
+@Component
+public class ProfileFeatureStore {
+
+    // Profiles loaded per query during a sync
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final UserProfileExtendedRepository profileRepository;
+    private final InterestDictionary interestDictionary;
+    private final OrdinalRegistry ordinalRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchingConfig matchingConfig;
+    private final Map<UUID, ProfileFeatures> features = new ConcurrentHashMap<>();
+    // Stamp of the last applied change per user within the overlap window; guarded by sync()
+    private final Map<UUID, Instant> appliedStamps = new HashMap<>();
+    private volatile Instant watermark = Instant.EPOCH;
+    private volatile boolean loaded;
+
+    public ProfileFeatureStore(UserProfileExtendedRepository profileRepository,
+                               InterestDictionary interestDictionary,
+                               OrdinalRegistry ordinalRegistry,
+                               ApplicationEventPublisher eventPublisher,
+                               MatchingConfig matchingConfig,
+                               MeterRegistry meterRegistry) {
+        this.profileRepository = profileRepository;
+        this.interestDictionary = interestDictionary;
+        this.ordinalRegistry = ordinalRegistry;
+        this.eventPublisher = eventPublisher;
+        this.matchingConfig = matchingConfig;
+
+        Gauge.builder("matching.features.profiles", features, Map::size)
+                .description("Active profiles held in the match feature store")
+                .register(meterRegistry);
+        Gauge.builder("matching.features.interest_terms", interestDictionary, InterestDictionary::size)
+                .description("Distinct interests in the dictionary")
+                .register(meterRegistry);
+    }
+
+    public ProfileFeatures get(UUID userId) {
+        return features.get(userId);
+    }
+
+    /**
+     * Features for the given users; ids not in the store (not yet synced) are read
+     * from the database in one query.
+     */
+    public Map<UUID, ProfileFeatures> getAll(Collection<UUID> userIds) {
+        Map<UUID, ProfileFeatures> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID userId : userIds) {
+            ProfileFeatures cached = features.get(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ProfileFeatures loaded : toFeatures(profileRepository.findByUserIdIn(missing))) {
+                result.put(loaded.userId(), loaded);
+            }
+        }
+        return result;
+    }
+
+    public Collection<ProfileFeatures> all() {
+        return features.values();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+        loaded = true;
+        log.info("Match feature store loaded: {} profiles, {} interest terms",
+                features.size(), interestDictionary.size());
+    }
+
+    /**
+     * Applies profiles changed since the last sync, re-reading the overlap window before
+     * the watermark; rows already applied with the same stamp are skipped.
+     */
+    @Scheduled(fixedDelayString = "${matching.features.sync-interval-ms:10000}",
+            initialDelayString = "${matching.features.sync-interval-ms:10000}")
+    public synchronized void sync() {
+        Duration overlap = matchingConfig.getFeatures().getSyncOverlap();
+        Instant since = watermark.equals(Instant.EPOCH) ? watermark : watermark.minus(overlap);
+        Instant next = watermark;
+        List<ProfileFeatures> updated = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        List<UserProfileExtended> changed = new ArrayList<>();
+        for (UserProfileExtended profile : findChangedSince(since)) {
+            Instant stamp = latest(latest(Instant.EPOCH, profile.getUpdatedAt()), profile.getUser().getUpdatedAt());
+            next = latest(next, stamp);
+            if (!stamp.equals(appliedStamps.put(profile.getUser().getId(), stamp))) {
+                changed.add(profile);
+            }
+        }
+        for (ProfileFeatures current : toFeatures(changed)) {
+            if (current.active()) {
+                features.put(current.userId(), current);
+                updated.add(current);
+            } else if (features.remove(current.userId()) != null) {
+                removed.add(current.userId());
+            }
+        }
+        watermark = next;
+        // Stamps older than the next window can no longer be read again
+        Instant forgetBefore = next.minus(overlap);
+        appliedStamps.values().removeIf(stamp -> stamp.isBefore(forgetBefore));
+        if (!updated.isEmpty() || !removed.isEmpty()) {
+            eventPublisher.publishEvent(new ProfileFeaturesChangedEvent(updated, removed));
+        }
+    }
+
+    // Ids through the updated_at indexes first, then the rows with their users in chunks
+    private List<UserProfileExtended> findChangedSince(Instant since) {
+        List<UUID> userIds = profileRepository.findUserIdsChangedSince(since);
+        List<UserProfileExtended> profiles = new ArrayList<>(userIds.size());
+        for (int from = 0; from < userIds.size(); from += LOAD_CHUNK_SIZE) {
+            profiles.addAll(profileRepository.findByUserIdIn(
+                    userIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, userIds.size()))));
+        }
+        return profiles;
+    }
+
+    private List<ProfileFeatures> toFeatures(List<UserProfileExtended> profiles) {
+        int[] ordinals = ordinalRegistry.ordinalsOf(SwipedSetCache.USER_ORDINALS,
+                profiles.stream().map(p -> p.getUser().getId()).toList());
+        List<ProfileFeatures> result = new ArrayList<>(profiles.size());
+        for (int i = 0; i < profiles.size(); i++) {
+            result.add(ProfileFeatures.of(profiles.get(i), ordinals[i], interestDictionary));
+        }
+        return result;
+    }
+
+    private static Instant latest(Instant current, Instant candidate) {
+        return candidate != null && candidate.isAfter(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,73 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.model.user.UserProfileExtended;
+import com.fyn_monolithic.model.user.UserStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the profile fields that take part in matching, with interests
+ * dictionary-encoded as a bitset and the user's ordinal for bitmap lookups.
+ */
+public record ProfileFeatures(UUID userId,
+                              int ordinal,
+                              long[] interestBits,
+                              int interestCount,
+                              Double lat,
+                              Double lng,
+                              Instant lastActiveAt,
+                              Integer age,
+                              String gender,
+                              Integer preferredAgeMin,
+                              Integer preferredAgeMax,
+                              Set<String> preferredGenders,
+                              Integer maxDistanceKm,
+                              boolean active) {
+
+    public static ProfileFeatures of(UserProfileExtended profile, int ordinal, InterestDictionary dictionary) {
+        long[] interests = dictionary.encode(profile.getInterests());
+        return new ProfileFeatures(
+                profile.getUser().getId(),
+                ordinal,
+                interests,
+                InterestBits.cardinality(interests),
+                profile.getLocationLat(),
+                profile.getLocationLng(),
+                profile.getLastActiveAt() != null
+                        ? profile.getLastActiveAt().atZone(ZoneId.systemDefault()).toInstant()
+                        : null,
+                profile.getDateOfBirth() != null
+                        ? Period.between(profile.getDateOfBirth(), LocalDate.now()).getYears()
+                        : null,
+                profile.getGender() != null ? profile.getGender().toLowerCase(Locale.ROOT) : null,
+                profile.getPreferredAgeMin(),
+                profile.getPreferredAgeMax(),
+                normalize(profile.getPreferredGenders()),
+                profile.getMaxDistanceKm(),
+                profile.getDeletedAt() == null
+                        && profile.getUser().getDeletedAt() == null
+                        && profile.getUser().getStatus() == UserStatus.ACTIVE);
+    }
+
+    public boolean hasLocation() {
+        return lat != null && lng != null;
+    }
+
+    private static Set<String> normalize(List<String> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        return values.stream()
+                .filter(v -> v != null && !v.isBlank())
+                .map(InterestDictionary::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
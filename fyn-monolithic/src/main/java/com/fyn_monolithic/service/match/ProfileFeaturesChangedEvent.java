@@ -0,0 +1,13 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@link ProfileFeatureStore} after each sync that changed something.
+ *
+ * @param updated features of profiles that were added or changed
+ * @param removed users that are no longer active
+ */
+public record ProfileFeaturesChangedEvent(List<ProfileFeatures> updated, List<UUID> removed) {
+}
@@ -0,0 +1,10 @@
+package com.fyn_monolithic.service.match;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link SwipeWriteBehindQueue} when an accepted swipe is dead-lettered
+ * instead of written, so the actor's claim on the target can be released.
+ */
+public record SwipeDroppedEvent(UUID actorId, UUID targetId) {
+}
@@ -0,0 +1,327 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.match.SwipeType;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind ingestion of swipes into swipe_actions, through one Redis stream shared by
+ * all instances ({@code swipes:stream}) and read by the {@code swipe-writers} consumer group.
+ * <p>
+ * Durability: a swipe is added to the stream (XADD) before it is acknowledged to the
+ * client, and an entry is only acknowledged and deleted (XACK, XDEL) once the batch
+ * holding it has committed, so the stream never loses an entry nobody wrote. Entries a
+ * consumer read but did not acknowledge, because its write failed or the instance died,
+ * stay pending in the group; every {@code matching.swipes.reclaim-idle} any live instance
+ * claims those idle that long and writes them again, so nothing depends on an instance
+ * coming back under the same name. If Redis is unavailable, the swipe is written
+ * synchronously instead.
+ * <p>
+ * Failures: a swipe the database rejects outright, or one still failing after
+ * {@code matching.swipes.max-attempts} deliveries, is moved to the dead-letter stream
+ * {@code swipes:dead} with the reason, and a {@link SwipeDroppedEvent} releases the
+ * actor's claim on the target so they can swipe again.
+ * <p>
+ * Ordering: the stream has one order across instances and each writer flushes what it
+ * reads FIFO. Retried entries and synchronous fallback writes may overtake others.
+ * <p>
+ * Idempotency: inserts use ON CONFLICT (actor_id, target_id) DO NOTHING and matches
+ * ON CONFLICT on the unordered pair, so writing an entry twice, e.g. when an instance
+ * dies between commit and XACK, keeps the first swipe and creates at most one match.
+ */
+@Slf4j
+@Component
+public class SwipeWriteBehindQueue {
+
+    static final String STREAM_KEY = "swipes:stream";
+    static final String DEAD_LETTER_KEY = "swipes:dead";
+    private static final String GROUP = "swipe-writers";
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final SwipeWriter swipeWriter;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchingConfig.Swipes config;
+    private final Consumer consumer;
+    private final Counter syncWrites;
+    private final Counter droppedSwipes;
+    private final Counter reclaimedSwipes;
+    private final Timer flushTimer;
+    private volatile boolean running;
+    private Thread writer;
+
+    public SwipeWriteBehindQueue(SwipeWriter swipeWriter,
+                                 StringRedisTemplate redisTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MatchingConfig matchingConfig,
+                                 MeterRegistry meterRegistry) {
+        this.swipeWriter = swipeWriter;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.config = matchingConfig.getSwipes();
+        this.consumer = Consumer.from(GROUP, config.getInstanceId());
+
+        this.syncWrites = Counter.builder("matching.swipes.sync_writes")
+                .description("Swipes written synchronously because Redis failed")
+                .register(meterRegistry);
+        this.droppedSwipes = Counter.builder("matching.swipes.dropped")
+                .description("Swipes moved to the dead-letter stream")
+                .register(meterRegistry);
+        this.reclaimedSwipes = Counter.builder("matching.swipes.reclaimed")
+                .description("Pending swipes claimed from a consumer that did not acknowledge them")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("matching.swipes.flush")
+                .description("Time to write one batch of swipes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            stream().createGroup(STREAM_KEY, ReadOffset.from("0"), GROUP);
+        } catch (RuntimeException ex) {
+            // BUSYGROUP: another instance, or an earlier run, created it
+            log.debug("Swipe consumer group {} not created", GROUP, ex);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("swipe-writer").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void accept(PendingSwipe swipe) {
+        try {
+            stream().add(MapRecord.create(STREAM_KEY, encode(swipe)));
+            return;
+        } catch (RuntimeException ex) {
+            log.warn("Swipe stream unavailable, writing synchronously", ex);
+        }
+        syncWrites.increment();
+        swipeWriter.write(List.of(swipe));
+    }
+
+    /**
+     * The swipes matching the filter that are still in the stream: accepted but not
+     * written yet, or written but not yet acknowledged. Lets caches seeded from
+     * swipe_actions add what the table does not show yet. Reads the stream in pages; it
+     * only holds what the writers have not caught up with.
+     */
+    public List<PendingSwipe> pendingSwipes(Predicate<PendingSwipe> filter) {
+        List<PendingSwipe> matching = new ArrayList<>();
+        Range<String> range = Range.unbounded();
+        while (true) {
+            List<MapRecord<String, Object, Object>> page = stream().range(
+                    STREAM_KEY, range, Limit.limit().count(config.getBatchSize()));
+            if (page == null || page.isEmpty()) {
+                return matching;
+            }
+            for (MapRecord<String, Object, Object> record : page) {
+                try {
+                    PendingSwipe swipe = decode(record.getValue());
+                    if (filter.test(swipe)) {
+                        matching.add(swipe);
+                    }
+                } catch (RuntimeException ex) {
+                    // Unreadable entries are dead-lettered by the writer
+                    log.debug("Skipping unreadable swipe entry {}", record.getId(), ex);
+                }
+            }
+            if (page.size() < config.getBatchSize()) {
+                return matching;
+            }
+            range = Range.rightUnbounded(Range.Bound.exclusive(page.get(page.size() - 1).getId().getValue()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainLoop() {
+        long nextReclaim = 0;
+        while (running) {
+            try {
+                if (System.currentTimeMillis() >= nextReclaim) {
+                    reclaim();
+                    nextReclaim = System.currentTimeMillis() + config.getReclaimIdle().toMillis() / 2;
+                }
+                List<MapRecord<String, Object, Object>> records = stream().read(
+                        consumer,
+                        StreamReadOptions.empty()
+                                .count(config.getBatchSize())
+                                .block(config.getWriterPollInterval()),
+                        StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+                if (records != null && !records.isEmpty()) {
+                    write(records);
+                }
+            } catch (RuntimeException ex) {
+                // Unacknowledged entries stay pending and are reclaimed later
+                log.warn("Swipe writer iteration failed, retrying in {} ms", RETRY_BACKOFF_MS, ex);
+                backOff();
+            }
+        }
+    }
+
+    /**
+     * Claims entries that have been pending for at least {@code reclaim-idle}, from this
+     * or any other consumer, and writes them again; those out of attempts are dead-lettered.
+     */
+    private void reclaim() {
+        PendingMessages pending = stream().pending(STREAM_KEY, GROUP, Range.unbounded(), config.getBatchSize());
+        Map<RecordId, Long> deliveries = new HashMap<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(config.getReclaimIdle()) >= 0) {
+                deliveries.put(message.getId(), message.getTotalDeliveryCount());
+            }
+        }
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        List<MapRecord<String, Object, Object>> claimed = stream().claim(
+                STREAM_KEY, GROUP, consumer.getName(), config.getReclaimIdle(),
+                deliveries.keySet().toArray(RecordId[]::new));
+        reclaimedSwipes.increment(claimed.size());
+
+        List<MapRecord<String, Object, Object>> retry = new ArrayList<>(claimed.size());
+        for (MapRecord<String, Object, Object> record : claimed) {
+            long attempts = deliveries.getOrDefault(record.getId(), 0L);
+            if (attempts >= config.getMaxAttempts()) {
+                deadLetter(record, "gave up after " + attempts + " attempts");
+            } else {
+                retry.add(record);
+            }
+        }
+        if (!retry.isEmpty()) {
+            write(retry);
+        }
+    }
+
+    /**
+     * Writes a batch, falling back to one swipe at a time when the batch fails. Swipes the
+     * database rejects outright are dead-lettered; those failing otherwise stay pending.
+     */
+    private void write(List<MapRecord<String, Object, Object>> records) {
+        Map<RecordId, PendingSwipe> swipes = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                swipes.put(record.getId(), decode(record.getValue()));
+            } catch (RuntimeException ex) {
+                deadLetter(record, "unreadable entry: " + ex.getMessage());
+            }
+        }
+        if (swipes.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> swipeWriter.write(List.copyOf(swipes.values())));
+            acknowledge(swipes.keySet().toArray(RecordId[]::new));
+            return;
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} swipes failed, retrying one by one", swipes.size(), ex);
+        }
+
+        boolean failed = false;
+        for (MapRecord<String, Object, Object> record : records) {
+            PendingSwipe swipe = swipes.get(record.getId());
+            if (swipe == null) {
+                continue;
+            }
+            try {
+                swipeWriter.write(List.of(swipe));
+                acknowledge(record.getId());
+            } catch (DataIntegrityViolationException ex) {
+                log.error("Dropping swipe {} -> {}", swipe.actorId(), swipe.targetId(), ex);
+                deadLetter(record, String.valueOf(ex.getMostSpecificCause().getMessage()));
+            } catch (RuntimeException ex) {
+                log.warn("Swipe {} -> {} failed, left pending for a later attempt", swipe.actorId(), swipe.targetId(), ex);
+                failed = true;
+            }
+        }
+        if (failed) {
+            backOff();
+        }
+    }
+
+    // Only entries whose write committed reach here, so XDEL never removes an unwritten swipe
+    private void acknowledge(RecordId... ids) {
+        stream().acknowledge(STREAM_KEY, GROUP, ids);
+        stream().delete(STREAM_KEY, ids);
+    }
+
+    private void deadLetter(MapRecord<String, Object, Object> record, String reason) {
+        Map<Object, Object> entry = new HashMap<>(record.getValue());
+        entry.put("reason", reason);
+        entry.put("sourceId", record.getId().getValue());
+        stream().add(MapRecord.create(DEAD_LETTER_KEY, entry));
+        acknowledge(record.getId());
+        droppedSwipes.increment();
+        try {
+            PendingSwipe swipe = decode(record.getValue());
+            eventPublisher.publishEvent(new SwipeDroppedEvent(swipe.actorId(), swipe.targetId()));
+        } catch (RuntimeException ex) {
+            log.warn("Dead-lettered swipe {} has no readable pair, no claim released", record.getId(), ex);
+        }
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private StreamOperations<String, Object, Object> stream() {
+        return redisTemplate.opsForStream();
+    }
+
+    private static Map<String, String> encode(PendingSwipe swipe) {
+        return Map.of(
+                "actor", swipe.actorId().toString(),
+                "target", swipe.targetId().toString(),
+                "type", swipe.type().name(),
+                "at", String.valueOf(swipe.createdAt().toEpochMilli()));
+    }
+
+    private static PendingSwipe decode(Map<Object, Object> fields) {
+        return new PendingSwipe(
+                UUID.fromString(fields.get("actor").toString()),
+                UUID.fromString(fields.get("target").toString()),
+                SwipeType.valueOf(fields.get("type").toString()),
+                Instant.ofEpochMilli(Long.parseLong(fields.get("at").toString())));
+    }
+}
@@ -0,0 +1,44 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.repository.connection.ConnectionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Persists accepted swipes and creates the matches they complete.
+ */
+@Component
+@RequiredArgsConstructor
+public class SwipeWriter {
+
+    private final SwipeActionRepository swipeActionRepository;
+    private final ConnectionRepository connectionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Inserts the batch (duplicates ignored) in one transaction, then creates the match of
+     * every like whose target has liked the actor back.
+     * <p>
+     * The reverse likes are looked up only once the batch has committed. Of two crossing
+     * likes written by different consumers, the one committing second then sees the first,
+     * so a mutual pair is never missed under READ COMMITTED. A match is one
+     * INSERT ... ON CONFLICT on the unordered pair, so when both sides find it only one
+     * connection is created and only its creator publishes {@link MatchCreatedEvent}.
+     * Safe to call again with the same swipes, including after a failure between the steps.
+     */
+    public void write(List<PendingSwipe> swipes) {
+        transactionTemplate.executeWithoutResult(status -> swipeActionRepository.insertIgnoringDuplicates(swipes));
+        for (PendingSwipe like : swipeActionRepository.findReciprocatedLikes(swipes)) {
+            if (connectionRepository.insertMatchIfAbsent(like.actorId(), like.targetId())) {
+                eventPublisher.publishEvent(new MatchCreatedEvent(like.actorId(), like.targetId()));
+            }
+        }
+    }
+}
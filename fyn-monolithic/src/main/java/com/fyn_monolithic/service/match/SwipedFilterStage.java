@@ -0,0 +1,25 @@
+package com.fyn_monolithic.service.match;
+
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Drops candidates the viewer has already swiped.
+ */
+@Component
+@Order(10)
+@RequiredArgsConstructor
+public class SwipedFilterStage implements DiscoverStage {
+
+    private final SwipedSetCache swipedSetCache;
+
+    @Override
+    public Stream<ProfileFeatures> apply(ProfileFeatures viewer, Stream<ProfileFeatures> candidates) {
+        RoaringBitmap swiped = swipedSetCache.snapshot(viewer.userId());
+        return candidates.filter(candidate -> !swiped.contains(candidate.ordinal()));
+    }
+}
@@ -0,0 +1,321 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import com.fyn_monolithic.service.common.OrdinalRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-user set of swiped target users, shared by all instances through Redis and cached
+ * in the heap as a compressed bitmap of user ordinals.
+ * <p>
+ * Redis holds the authoritative set ({@code swiped:set:{<userId>}}, target ordinals). A
+ * swipe claims its target with one script that adds the ordinal and reports whether it
+ * was new, so of two instances accepting the same swipe at once exactly one wins, and
+ * claims made through different instances add up instead of overwriting each other.
+ * <p>
+ * A set is seeded on first use from the swipes still in the write-behind stream and then
+ * swipe_actions, in that order: a swipe written and removed from the stream in between
+ * is in the table by then. A marker member records that the set is seeded; claiming on
+ * an unseeded set seeds it first, so a claim never succeeds for a target swiped before
+ * the set expired. The set expires {@code matching.swiped-set.redis-ttl} after the last
+ * swipe.
+ * <p>
+ * Each instance keeps a bitmap copy for testing candidates without a round trip. It is
+ * read again after {@code matching.swiped-set.refresh-after}, to pick up swipes made
+ * through other instances, and evicted after {@code matching.swiped-set.idle-ttl}. A
+ * stale copy can only let an already swiped candidate through to the claim, which
+ * rejects it.
+ */
+@Slf4j
+@Component
+public class SwipedSetCache {
+
+    static final String USER_ORDINALS = "users";
+    private static final String KEY_PREFIX = "swiped:set:";
+    // Member present once the set has been seeded; ordinals are never negative
+    private static final String SEEDED = "-1";
+    private static final long NOT_SEEDED = -1;
+
+    // KEYS: set; ARGV: target ordinal, ttl ms. Returns 1 if claimed, 0 if already
+    // swiped, -1 if the set must be seeded first.
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('SISMEMBER', KEYS[1], '-1') == 0 then
+              return -1
+            end
+            local added = redis.call('SADD', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return added
+            """, Long.class);
+
+    // KEYS: set; ARGV: ttl ms, target ordinals. Adds to whatever is there, so concurrent
+    // seeds and claims all survive.
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SADD', KEYS[1], '-1')
+            for i = 2, #ARGV, 1000 do
+              redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final SwipeActionRepository swipeActionRepository;
+    private final SwipeWriteBehindQueue swipeWriteBehindQueue;
+    private final OrdinalRegistry ordinalRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final MatchingConfig matchingConfig;
+    private final Counter seeds;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public SwipedSetCache(SwipeActionRepository swipeActionRepository,
+                          SwipeWriteBehindQueue swipeWriteBehindQueue,
+                          OrdinalRegistry ordinalRegistry,
+                          StringRedisTemplate redisTemplate,
+                          MatchingConfig matchingConfig,
+                          MeterRegistry meterRegistry) {
+        this.swipeActionRepository = swipeActionRepository;
+        this.swipeWriteBehindQueue = swipeWriteBehindQueue;
+        this.ordinalRegistry = ordinalRegistry;
+        this.redisTemplate = redisTemplate;
+        this.matchingConfig = matchingConfig;
+
+        this.seeds = Counter.builder("matching.swiped_set.seeds")
+                .description("Shared swiped sets seeded from swipe_actions and the swipe stream")
+                .register(meterRegistry);
+        Gauge.builder("matching.swiped_set.users", entries, Map::size)
+                .description("Users with a swiped set in memory")
+                .register(meterRegistry);
+        Gauge.builder("matching.swiped_set.bytes", this, SwipedSetCache::totalBytes)
+                .description("Heap used by in-memory swiped sets")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("matching.swiped_set.bytes_per_user", this, SwipedSetCache::averageBytes)
+                .description("Average heap used per cached swiped set")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean hasSwiped(UUID actorId, UUID targetId) {
+        int target = ordinalRegistry.ordinalOf(USER_ORDINALS, targetId);
+        return withEntry(actorId, entry -> entry.swiped.contains(target));
+    }
+
+    /**
+     * Claims the target for the actor in the shared set; returns false if the actor had
+     * already swiped it, through this instance or any other.
+     */
+    public boolean recordSwipe(UUID actorId, UUID targetId) {
+        int target = ordinalRegistry.ordinalOf(USER_ORDINALS, targetId);
+        long claimed = claim(actorId, target);
+        if (claimed == NOT_SEEDED) {
+            seed(actorId);
+            claimed = claim(actorId, target);
+        }
+        if (claimed == NOT_SEEDED) {
+            throw new IllegalStateException("Swiped set of " + actorId + " expired while being claimed");
+        }
+        withEntry(actorId, entry -> {
+            entry.swiped.add(target);
+            return null;
+        });
+        return claimed == 1;
+    }
+
+    /**
+     * Releases the actor's claim on a target whose swipe was never written, so the target
+     * can be shown and swiped again.
+     */
+    @EventListener
+    public void onSwipeDropped(SwipeDroppedEvent event) {
+        int target = ordinalRegistry.ordinalOf(USER_ORDINALS, event.targetId());
+        redisTemplate.opsForSet().remove(key(event.actorId()), String.valueOf(target));
+        Entry entry = entries.get(event.actorId());
+        if (entry != null) {
+            synchronized (entry) {
+                entry.swiped.remove(target);
+            }
+        }
+    }
+
+    /**
+     * Copy of the actor's swiped ordinals, for testing many candidates without
+     * taking the entry lock each time.
+     */
+    public RoaringBitmap snapshot(UUID actorId) {
+        return withEntry(actorId, entry -> entry.swiped.clone());
+    }
+
+    /**
+     * Keeps only candidates the actor has not swiped yet, preserving order.
+     */
+    public List<UUID> filterUnswiped(UUID actorId, List<UUID> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return candidateIds;
+        }
+        int[] ordinals = ordinalRegistry.ordinalsOf(USER_ORDINALS, candidateIds);
+        return withEntry(actorId, entry -> {
+            List<UUID> unswiped = new ArrayList<>(candidateIds.size());
+            for (int i = 0; i < ordinals.length; i++) {
+                if (!entry.swiped.contains(ordinals[i])) {
+                    unswiped.add(candidateIds.get(i));
+                }
+            }
+            return unswiped;
+        });
+    }
+
+    /**
+     * Evicts in-memory sets idle longer than the configured TTL. Nothing is lost: every
+     * claim is in Redis before it reaches the copy.
+     */
+    @Scheduled(fixedDelayString = "${matching.swiped-set.evict-interval-ms:5000}")
+    public void evictIdle() {
+        long idleCutoff = System.currentTimeMillis() - matchingConfig.getSwipedSet().getIdleTtl().toMillis();
+        entries.forEach((userId, entry) -> {
+            if (entry.lastAccess < idleCutoff) {
+                evict(userId, entry, idleCutoff);
+            }
+        });
+    }
+
+    /**
+     * Removes an idle entry unless it was used again meanwhile. Runs under the entry lock
+     * and marks the entry evicted, so a caller that looked it up just before the removal
+     * sees the mark in {@link #withEntry} and loads a fresh entry instead.
+     */
+    private void evict(UUID userId, Entry entry, long idleCutoff) {
+        synchronized (entry) {
+            if (entry.lastAccess >= idleCutoff) {
+                return;
+            }
+            entry.evicted = true;
+            entries.remove(userId, entry);
+        }
+    }
+
+    /**
+     * Runs the action on the user's cached entry under its lock, loading the entry first
+     * if needed, refreshing it from Redis once it is older than {@code refresh-after}, and
+     * retrying if it was evicted between the lookup and the lock.
+     */
+    private <T> T withEntry(UUID userId, Function<Entry, T> action) {
+        while (true) {
+            Entry entry = entries.computeIfAbsent(userId, id -> new Entry(read(id)));
+            long now = System.currentTimeMillis();
+            entry.lastAccess = now;
+            if (now - entry.loadedAt > matchingConfig.getSwipedSet().getRefreshAfter().toMillis()) {
+                refresh(userId, entry, now);
+            }
+            synchronized (entry) {
+                if (!entry.evicted) {
+                    return action.apply(entry);
+                }
+            }
+        }
+    }
+
+    // Callers arriving while a refresh runs keep using the current copy
+    private void refresh(UUID userId, Entry entry, long now) {
+        entry.loadedAt = now;
+        try {
+            RoaringBitmap fresh = read(userId);
+            synchronized (entry) {
+                entry.swiped = fresh;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh swiped set of {}, keeping the cached copy", userId, ex);
+        }
+    }
+
+    // The shared set as a bitmap, seeding it first if needed
+    private RoaringBitmap read(UUID userId) {
+        Set<String> members = redisTemplate.opsForSet().members(key(userId));
+        if (members == null || !members.contains(SEEDED)) {
+            seed(userId);
+            members = redisTemplate.opsForSet().members(key(userId));
+        }
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (members != null) {
+            for (String member : members) {
+                if (!SEEDED.equals(member)) {
+                    bitmap.add(Integer.parseInt(member));
+                }
+            }
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    private void seed(UUID userId) {
+        seeds.increment();
+        List<UUID> targets = new ArrayList<>();
+        for (PendingSwipe swipe : swipeWriteBehindQueue.pendingSwipes(swipe -> swipe.actorId().equals(userId))) {
+            targets.add(swipe.targetId());
+        }
+        targets.addAll(swipeActionRepository.findTargetIdsByActorId(userId));
+
+        int[] ordinals = ordinalRegistry.ordinalsOf(USER_ORDINALS, targets);
+        List<String> args = new ArrayList<>(ordinals.length + 1);
+        args.add(String.valueOf(matchingConfig.getSwipedSet().getRedisTtl().toMillis()));
+        for (int ordinal : ordinals) {
+            args.add(String.valueOf(ordinal));
+        }
+        redisTemplate.execute(SEED_SCRIPT, List.of(key(userId)), args.toArray());
+    }
+
+    private long claim(UUID actorId, int target) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, List.of(key(actorId)),
+                String.valueOf(target), String.valueOf(matchingConfig.getSwipedSet().getRedisTtl().toMillis()));
+        return result != null ? result : NOT_SEEDED;
+    }
+
+    private static String key(UUID userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    private double totalBytes() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                total += entry.swiped.getLongSizeInBytes();
+            }
+        }
+        return total;
+    }
+
+    private double averageBytes() {
+        int users = entries.size();
+        return users == 0 ? 0 : totalBytes() / users;
+    }
+
+    private static final class Entry {
+        // Replaced wholesale on refresh; read and changed under the entry lock
+        private RoaringBitmap swiped;
+        private boolean evicted;
+        private volatile long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(RoaringBitmap swiped) {
+            this.swiped = swiped;
+        }
+    }
+}
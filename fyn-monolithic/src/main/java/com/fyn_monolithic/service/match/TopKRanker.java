@@ -0,0 +1,65 @@
+package com.fyn_monolithic.service.match;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Final discover stage: scores streamed candidates against the viewer and keeps the
+ * best {@code k} in a bounded min-heap, so memory is O(k) and the candidate stream is
+ * never collected or sorted as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopKRanker {
+
+    /**
+     * Best first; ties broken on the id so the order is total.
+     */
+    public static final Comparator<RankedCandidate> BEST_FIRST = Comparator
+            .comparingDouble(RankedCandidate::score).reversed()
+            .thenComparing(RankedCandidate::userId, TopKRanker::compareUuids);
+
+    private static final Comparator<RankedCandidate> WORST_FIRST = BEST_FIRST.reversed();
+
+    private final MatchScoringEngine matchScoringEngine;
+
+    public record RankedCandidate(UUID userId, double score) {
+    }
+
+    /**
+     * The {@code k} best candidates, best first.
+     */
+    public List<RankedCandidate> topK(ProfileFeatures viewer, Stream<ProfileFeatures> candidates, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // Head is the weakest candidate kept so far
+        PriorityQueue<RankedCandidate> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        candidates.forEach(candidate -> {
+            RankedCandidate ranked = new RankedCandidate(
+                    candidate.userId(), matchScoringEngine.rankScore(viewer, candidate));
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (BEST_FIRST.compare(ranked, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        });
+
+        List<RankedCandidate> result = new ArrayList<>(heap);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    private static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -1,7 +1,7 @@
 package com.fyn_monolithic.service.message;
 
 import com.fyn_monolithic.dto.request.message.SendMessageRequest;
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.message.MessageResponse;
 import com.fyn_monolithic.mapper.MessageMapper;
 import com.fyn_monolithic.model.message.Conversation;
@@ -14,13 +14,14 @@ import com.fyn_monolithic.repository.message.MessageMediaRepository;
 import com.fyn_monolithic.service.notification.NotificationService;
 import com.fyn_monolithic.service.storage.MinioService;
 import com.fyn_monolithic.service.user.UserService;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -88,20 +89,22 @@ public class MessageService {
         return mapMediaUrl(response);
     }
 
+    /**
+     * Messages of a conversation, newest first; pass the returned nextCursor back as
+     * {@code cursor} to load older messages.
+     */
     @Transactional(readOnly = true)
-    public PageResponse<MessageResponse> getMessages(UUID conversationId, int page, int size) {
+    public CursorPageResponse<MessageResponse> getMessages(UUID conversationId, String cursor, int size) {
         Conversation conversation = conversationService.getConversation(conversationId);
-        Page<Message> result = messageRepository.findByConversation(conversation, PageRequest.of(page, size));
-        return PageResponse.<MessageResponse>builder()
-                .content(result.getContent().stream()
-                        .map(messageMapper::toMessageResponse)
-                        .map(this::mapMediaUrl)
-                        .toList())
-                .page(page)
-                .size(size)
-                .totalElements(result.getTotalElements())
-                .totalPages(result.getTotalPages())
-                .build();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<Message> messages = messageRepository.findPageByConversation(
+                conversation.getId(),
+                after != null ? after.position() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+        return CursorPageResponse.of(messages, size,
+                        message -> new KeysetCursor(message.getCreatedAt(), message.getId()).encode())
+                .map(message -> mapMediaUrl(messageMapper.toMessageResponse(message)));
     }
 
     private MessageResponse mapMediaUrl(MessageResponse response) {
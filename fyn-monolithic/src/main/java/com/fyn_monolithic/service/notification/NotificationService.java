@@ -1,6 +1,6 @@
 package com.fyn_monolithic.service.notification;
 
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.notification.NotificationResponse;
 import com.fyn_monolithic.mapper.NotificationMapper;
 import com.fyn_monolithic.model.notification.Notification;
@@ -9,12 +9,13 @@ import com.fyn_monolithic.model.notification.NotificationStatus;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.notification.NotificationRepository;
 import com.fyn_monolithic.service.user.UserService;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -27,16 +28,17 @@ public class NotificationService {
     private final org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
 
     @Transactional(readOnly = true)
-    public PageResponse<NotificationResponse> list(int page, int size) {
+    public CursorPageResponse<NotificationResponse> list(String cursor, int size) {
         User user = userService.getCurrentUser();
-        Page<Notification> result = notificationRepository.findByRecipient(user, PageRequest.of(page, size));
-        return PageResponse.<NotificationResponse>builder()
-                .content(result.getContent().stream().map(notificationMapper::toResponse).toList())
-                .page(page)
-                .size(size)
-                .totalElements(result.getTotalElements())
-                .totalPages(result.getTotalPages())
-                .build();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<Notification> notifications = notificationRepository.findPageByRecipient(
+                user.getId(),
+                after != null ? after.position() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+        return CursorPageResponse.of(notifications, size,
+                        notification -> new KeysetCursor(notification.getCreatedAt(), notification.getId()).encode())
+                .map(notificationMapper::toResponse);
     }
 
     @Transactional
@@ -1,7 +1,9 @@
 package com.fyn_monolithic.service.post;
 
 import com.fyn_monolithic.dto.request.post.CreateCommentRequest;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.CommentResponse;
+import com.fyn_monolithic.exception.BadRequestException;
 import com.fyn_monolithic.exception.ResourceNotFoundException;
 import com.fyn_monolithic.mapper.PostMapper;
 import com.fyn_monolithic.model.post.Post;
@@ -9,22 +11,32 @@ import com.fyn_monolithic.model.post.PostComment;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.post.PostCommentRepository;
 import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.service.feed.RankedFeedService;
 import com.fyn_monolithic.service.user.UserService;
+import com.fyn_monolithic.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CommentService {
 
+    // Replies returned inline with each top-level comment; the rest load through getReplies
+    private static final int PREFETCHED_REPLIES = 3;
+
     private final PostRepository postRepository;
     private final PostCommentRepository commentRepository;
     private final UserService userService;
     private final PostMapper postMapper;
+    private final PostEngagementCounters engagementCounters;
+    private final RankedFeedService rankedFeedService;
 
     @Transactional
     public CommentResponse addComment(UUID postId, CreateCommentRequest request) {
@@ -38,30 +50,85 @@ public class CommentService {
         if (request.getParentCommentId() != null) {
             PostComment parent = commentRepository.findById(request.getParentCommentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found"));
+            if (!parent.getPost().getId().equals(post.getId())) {
+                throw new BadRequestException("Parent comment belongs to another post");
+            }
             comment.setParentComment(parent);
+            commentRepository.adjustReplyCount(parent.getId(), 1);
         }
         PostComment saved = commentRepository.save(comment);
-        post.increaseCommentCount();
-        postRepository.save(post);
+        engagementCounters.recordComment(post.getId(), 1);
+        rankedFeedService.recordInteraction(author.getId(), post.getAuthor().getId());
         return postMapper.toCommentResponse(saved);
     }
 
+    /**
+     * One page of the post's top-level comments, oldest first, each with its reply count
+     * and first few replies. Pass the returned nextCursor back as {@code cursor} for the
+     * next page; further replies are paged with {@link #getReplies}.
+     */
     @Transactional(readOnly = true)
-    public List<CommentResponse> getComments(UUID postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
-        return commentRepository.findByPostOrderByCreatedAtAsc(post).stream()
-                .map(postMapper::toCommentResponse)
-                .toList();
+    public CursorPageResponse<CommentResponse> getComments(UUID postId, String cursor, int size) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        CursorPageResponse<PostComment> page = CursorPageResponse.of(
+                commentRepository.findTopLevelPage(
+                        postId,
+                        after != null ? after.position() : null,
+                        after != null ? after.id() : null,
+                        Limit.of(size + 1)),
+                size,
+                comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()).encode());
+
+        List<UUID> replyIds = commentRepository.findFirstReplyIds(
+                page.getContent().stream()
+                        .filter(comment -> comment.getReplyCount() > 0)
+                        .map(PostComment::getId)
+                        .toList(),
+                PREFETCHED_REPLIES);
+        Map<UUID, List<CommentResponse>> replies = replyIds.isEmpty()
+                ? Map.of()
+                : commentRepository.findWithAuthorByIdIn(replyIds).stream()
+                        .collect(Collectors.groupingBy(reply -> reply.getParentComment().getId(),
+                                Collectors.mapping(postMapper::toCommentResponse, Collectors.toList())));
+
+        return page.map(comment -> postMapper.toCommentResponse(comment).toBuilder()
+                .replies(replies.getOrDefault(comment.getId(), List.of()))
+                .build());
+    }
+
+    /**
+     * One page of a comment's direct replies, oldest first. Works at any depth: each reply
+     * carries its own reply count for expanding it further.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentResponse> getReplies(UUID postId, UUID commentId, String cursor, int size) {
+        if (!commentRepository.existsById(commentId)) {
+            throw new ResourceNotFoundException("Comment not found");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return CursorPageResponse.of(
+                        commentRepository.findRepliesPage(
+                                postId,
+                                commentId,
+                                after != null ? after.position() : null,
+                                after != null ? after.id() : null,
+                                Limit.of(size + 1)),
+                        size,
+                        reply -> new KeysetCursor(reply.getCreatedAt(), reply.getId()).encode())
+                .map(postMapper::toCommentResponse);
     }
 
     @Transactional
     public void deleteComment(UUID commentId) {
         PostComment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-        Post post = comment.getPost();
         commentRepository.delete(comment);
-        post.decreaseCommentCount();
-        postRepository.save(post);
+        if (comment.getParentComment() != null) {
+            commentRepository.adjustReplyCount(comment.getParentComment().getId(), -1);
+        }
+        engagementCounters.recordComment(comment.getPost().getId(), -1);
     }
 }
@@ -7,6 +7,7 @@ import com.fyn_monolithic.model.post.PostLike;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.post.PostLikeRepository;
 import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.service.feed.RankedFeedService;
 import com.fyn_monolithic.service.notification.NotificationService;
 import com.fyn_monolithic.service.user.UserService;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,9 @@ public class LikeService {
     private final PostLikeRepository likeRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final PostEngagementCounters engagementCounters;
+    private final RecentLikesCache recentLikesCache;
+    private final RankedFeedService rankedFeedService;
 
     @Transactional
     public PostReactionResponse like(UUID postId) {
@@ -36,11 +40,14 @@ public class LikeService {
         like.setPost(post);
         like.setUser(user);
         likeRepository.save(like);
-        post.increaseLikeCount();
-        postRepository.save(post);
+        engagementCounters.recordLike(post.getId(), 1);
+        recentLikesCache.recordLike(user.getId(), post.getId());
 
         // Tạo thông báo cho tác giả bài viết (nếu không phải tự like bài mình)
         User author = post.getAuthor();
+        if (author != null) {
+            rankedFeedService.recordInteraction(user.getId(), author.getId());
+        }
         if (author != null && !author.getId().equals(user.getId())) {
             notificationService.notifyPostLiked(author, user, post.getId());
         }
@@ -55,16 +62,16 @@ public class LikeService {
         likeRepository.findByPostAndUser(post, user)
                 .ifPresent(like -> {
                     likeRepository.delete(like);
-                    post.decreaseLikeCount();
+                    engagementCounters.recordLike(post.getId(), -1);
+                    recentLikesCache.recordUnlike(user.getId(), post.getId());
                 });
-        postRepository.save(post);
         return buildReaction(post, false);
     }
 
     private PostReactionResponse buildReaction(Post post, boolean liked) {
         return PostReactionResponse.builder()
                 .postId(post.getId())
-                .likeCount(post.getLikeCount())
+                .likeCount(engagementCounters.likeCount(post))
                 .likedByCurrentUser(liked)
                 .build();
     }
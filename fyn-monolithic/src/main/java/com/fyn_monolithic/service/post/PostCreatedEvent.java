@@ -0,0 +1,15 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.model.post.PostVisibility;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by {@link PostService#createPost}; listeners that touch other stores should
+ * wait for the commit. {@code hashtags} holds the normalized tags attached to the post.
+ */
+public record PostCreatedEvent(UUID postId, UUID authorId, PostVisibility visibility, Instant createdAt,
+                               Set<String> hashtags) {
+}
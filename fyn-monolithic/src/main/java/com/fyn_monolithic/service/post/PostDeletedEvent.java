@@ -0,0 +1,10 @@
+package com.fyn_monolithic.service.post;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link PostService#deletePost}; listeners that touch other stores should
+ * wait for the commit.
+ */
+public record PostDeletedEvent(UUID postId, UUID authorId) {
+}
@@ -0,0 +1,191 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementDelta;
+import com.fyn_monolithic.util.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind like and comment counters for posts.
+ * <p>
+ * Likes and comments add to a per-post {@link LongAdder} instead of updating the post
+ * row, so concurrent engagement on a viral post neither contends on the row nor trips
+ * the entity's optimistic lock. Deltas are flushed every
+ * {@code feed.engagement.flush-interval-ms} with relative updates
+ * ({@code like_count = like_count + ?}), and reads add the pending deltas to the stored
+ * counts, so a user sees their own like or comment counted right away.
+ * <p>
+ * Deltas are kept in generations: increments go to the active map, and each flush seals
+ * it and writes the generation sealed on the previous flush. Writing only maps that
+ * stopped receiving increments a full interval ago means no increment can land in a map
+ * after it was written. A delta recorded inside a transaction that rolls back is
+ * subtracted again.
+ */
+@Slf4j
+@Component
+public class PostEngagementCounters {
+
+    private final PostRepository postRepository;
+    private final FeedConfig feedConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer flushTimer;
+
+    private volatile Map<UUID, Deltas> active = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Deltas> sealed = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Deltas> flushing = Map.of();
+
+    public PostEngagementCounters(PostRepository postRepository,
+                                  FeedConfig feedConfig,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.feedConfig = feedConfig;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("posts.engagement.pending_posts", this, counters -> counters.active.size() + counters.sealed.size())
+                .description("Posts with like/comment deltas not yet flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("posts.engagement.flush")
+                .description("Time to write one generation of like/comment deltas")
+                .register(meterRegistry);
+    }
+
+    public void recordLike(UUID postId, long delta) {
+        record(postId, delta, 0);
+    }
+
+    public void recordComment(UUID postId, long delta) {
+        record(postId, 0, delta);
+    }
+
+    public long likeCount(Post post) {
+        return likeCount(post.getId(), post.getLikeCount());
+    }
+
+    public long commentCount(Post post) {
+        return commentCount(post.getId(), post.getCommentCount());
+    }
+
+    /**
+     * Like count of a post whose stored count is already known, e.g. from a cached response.
+     */
+    public long likeCount(UUID postId, long storedCount) {
+        return Math.max(0, storedCount + pending(postId, true));
+    }
+
+    public long commentCount(UUID postId, long storedCount) {
+        return Math.max(0, storedCount + pending(postId, false));
+    }
+
+    @Scheduled(fixedDelayString = "${feed.engagement.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        Map<UUID, Deltas> toWrite = sealed;
+        // Publish the generation being written before it leaves sealed, so reads keep seeing it
+        flushing = toWrite;
+        sealed = active;
+        active = new ConcurrentHashMap<>();
+        try {
+            write(toWrite);
+        } finally {
+            flushing = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flushAll() {
+        flush();
+        flush();
+    }
+
+    private void record(UUID postId, long likes, long comments) {
+        add(postId, likes, comments);
+        TransactionUtils.afterRollback(() -> add(postId, -likes, -comments));
+    }
+
+    private void add(UUID postId, long likes, long comments) {
+        Deltas deltas = active.computeIfAbsent(postId, id -> new Deltas());
+        if (likes != 0) {
+            deltas.likes.add(likes);
+        }
+        if (comments != 0) {
+            deltas.comments.add(comments);
+        }
+    }
+
+    private long pending(UUID postId, boolean likes) {
+        long sum = 0;
+        for (Map<UUID, Deltas> generation : List.of(active, sealed, flushing)) {
+            Deltas deltas = generation.get(postId);
+            if (deltas != null) {
+                sum += likes ? deltas.likes.sum() : deltas.comments.sum();
+            }
+        }
+        return sum;
+    }
+
+    private void write(Map<UUID, Deltas> generation) {
+        if (generation.isEmpty()) {
+            return;
+        }
+        List<EngagementDelta> batch = new ArrayList<>();
+        int batchSize = feedConfig.getEngagement().getFlushBatchSize();
+        Timer.Sample sample = Timer.start();
+        for (Map.Entry<UUID, Deltas> entry : generation.entrySet()) {
+            long likes = entry.getValue().likes.sum();
+            long comments = entry.getValue().comments.sum();
+            if (likes != 0 || comments != 0) {
+                batch.add(new EngagementDelta(entry.getKey(), likes, comments));
+            }
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        writeBatch(batch);
+        sample.stop(flushTimer);
+    }
+
+    private void writeBatch(List<EngagementDelta> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<EngagementChange> changes;
+        try {
+            // One transaction, so a failure part-way through the batch rolls back the rows
+            // already updated and re-adding the whole batch cannot count any of them twice
+            changes = transactionTemplate.execute(status -> postRepository.applyEngagementDeltas(batch));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush engagement counts for {} posts, retrying next flush", batch.size(), ex);
+            // Back into the active generation, to be written again two flushes from now
+            batch.forEach(delta -> add(delta.postId(), delta.likes(), delta.comments()));
+            return;
+        }
+        eventPublisher.publishEvent(new PostEngagementFlushedEvent(changes));
+    }
+
+    private static final class Deltas {
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+    }
+}
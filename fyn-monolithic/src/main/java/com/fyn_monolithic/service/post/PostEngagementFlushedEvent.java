@@ -0,0 +1,12 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+
+import java.util.List;
+
+/**
+ * Published by {@link PostEngagementCounters} after a batch of like/comment deltas has
+ * been written, with each post's stored counts right before and after the write.
+ */
+public record PostEngagementFlushedEvent(List<EngagementChange> changes) {
+}
@@ -0,0 +1,54 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.model.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Turns a page of post ids into responses in a fixed number of queries, whatever the page
+ * size. Viewer-independent bodies come from {@link PostResponseCache}, which loads the
+ * posts it misses with their authors, profiles, settings and media in one query. On top
+ * of those go the not-yet-flushed like/comment counts and the viewer's likes, which need
+ * one more query only when the page has posts older than {@link RecentLikesCache} covers.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostFeedHydrator {
+
+    private final PostResponseCache postResponseCache;
+    private final RecentLikesCache recentLikesCache;
+    private final PostEngagementCounters engagementCounters;
+
+    /**
+     * Responses in the order of {@code postIds}; ids of posts deleted meanwhile are skipped.
+     */
+    public List<PostResponse> hydrate(List<UUID> postIds, User viewer) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PostResponse> cached = postResponseCache.getAll(postIds);
+        List<PostResponse> posts = postIds.stream()
+                .map(cached::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> likedPostIds = recentLikesCache.likedAmong(viewer, posts);
+        return posts.stream()
+                .map(post -> post.toBuilder()
+                        .likeCount(engagementCounters.likeCount(post.getId(), post.getLikeCount()))
+                        .commentCount(engagementCounters.commentCount(post.getId(), post.getCommentCount()))
+                        .likedByCurrentUser(likedPostIds.contains(post.getId()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.model.storage.MediaType;
+import com.fyn_monolithic.service.storage.MinioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Uploads a post's media files to object storage concurrently, one virtual thread per
+ * file, so a post with several photos takes about as long as its largest upload.
+ * Meant to run before the post's transaction opens; if the transaction then fails, the
+ * caller removes the uploaded objects with {@link #deleteQuietly}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostMediaUploader {
+
+    private final MinioService minioService;
+
+    public record UploadedMedia(String objectKey, MediaType mediaType) {
+    }
+
+    /**
+     * Uploads every file; if any upload fails, the ones that succeeded are deleted and
+     * the first failure is rethrown.
+     */
+    public List<UploadedMedia> uploadAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        List<UploadedMedia> uploaded = new ArrayList<>(files.size());
+        RuntimeException failure = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<UploadedMedia>> futures = files.stream()
+                    .map(file -> executor.submit(() ->
+                            new UploadedMedia(minioService.upload(file), minioService.detectMediaType(file))))
+                    .toList();
+            // Wait for every upload, even after a failure, so none is left behind untracked
+            for (Future<UploadedMedia> future : futures) {
+                try {
+                    uploaded.add(future.get());
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause() instanceof RuntimeException runtime
+                                ? runtime
+                                : new IllegalStateException("Failed to upload file", ex.getCause());
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (failure == null) {
+                        failure = new IllegalStateException("Interrupted while uploading media", ex);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            deleteQuietly(uploaded);
+            throw failure;
+        }
+        return uploaded;
+    }
+
+    /**
+     * Best-effort removal of uploaded objects whose post was not saved.
+     */
+    public void deleteQuietly(List<UploadedMedia> media) {
+        for (UploadedMedia item : media) {
+            try {
+                minioService.delete(item.objectKey());
+            } catch (RuntimeException ex) {
+                log.warn("Failed to delete orphaned media object {}", item.objectKey(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.fyn_monolithic.service.post;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.mapper.PostMapper;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+import com.fyn_monolithic.service.user.UserProfileChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Viewer-independent post responses (author, media, stored counts) in two tiers: a
+ * bounded Caffeine cache per instance in front of Redis ({@code post:response:v1:{postId}},
+ * JSON), in front of the database.
+ * <p>
+ * Entries are dropped when the post is deleted, when its like/comment counts are
+ * flushed, and when its author's profile changes. Other instances' heap copies are not
+ * told and expire after {@code feed.response-cache.local-ttl}. Viewer-specific fields and
+ * not-yet-flushed counts are overlaid by {@link PostFeedHydrator} on every read.
+ */
+@Slf4j
+@Component
+public class PostResponseCache {
+
+    // The version segment changes whenever PostResponse changes shape, so entries
+    // written by older code are never read back
+    private static final String KEY_PREFIX = "post:response:v1:";
+
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final FeedConfig feedConfig;
+    private final Cache<UUID, PostResponse> local;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Timer loadTimer;
+
+    public PostResponseCache(PostRepository postRepository,
+                             PostMapper postMapper,
+                             StringRedisTemplate redisTemplate,
+                             ObjectMapper objectMapper,
+                             FeedConfig feedConfig,
+                             MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.feedConfig = feedConfig;
+
+        FeedConfig.ResponseCache config = feedConfig.getResponseCache();
+        this.local = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getLocalTtl())
+                .recordStats()
+                .build();
+        // Hit/miss counts, evictions and size of the heap tier
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "posts.responses");
+        this.redisHits = Counter.builder("posts.responses.redis")
+                .description("Post responses looked up in Redis after missing the heap cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("posts.responses.redis")
+                .description("Post responses looked up in Redis after missing the heap cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("posts.responses.load")
+                .description("Time to load and map posts missing from both cache tiers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached responses for the given ids, loading the rest in one query. Ids of posts that
+     * no longer exist are absent from the result.
+     */
+    public Map<UUID, PostResponse> getAll(Collection<UUID> postIds) {
+        Map<UUID, PostResponse> found = new HashMap<>(local.getAllPresent(postIds));
+        List<UUID> missing = postIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<UUID> notInRedis = new ArrayList<>();
+        List<String> stored = readRedis(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            PostResponse response = stored != null ? parse(stored.get(i)) : null;
+            if (response != null) {
+                found.put(missing.get(i), response);
+                local.put(missing.get(i), response);
+            } else {
+                notInRedis.add(missing.get(i));
+            }
+        }
+        redisHits.increment(missing.size() - notInRedis.size());
+        redisMisses.increment(notInRedis.size());
+        if (notInRedis.isEmpty()) {
+            return found;
+        }
+
+        Map<UUID, PostResponse> loaded = loadTimer.record(() -> load(notInRedis));
+        local.putAll(loaded);
+        writeRedis(loaded);
+        found.putAll(loaded);
+        return found;
+    }
+
+    public void evict(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        local.invalidateAll(postIds);
+        try {
+            redisTemplate.delete(postIds.stream().map(PostResponseCache::key).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to evict {} post responses from Redis", postIds.size(), ex);
+        }
+    }
+
+    @EventListener
+    public void onEngagementFlushed(PostEngagementFlushedEvent event) {
+        evict(event.changes().stream().map(EngagementChange::postId).toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostDeleted(PostDeletedEvent event) {
+        evict(List.of(event.postId()));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        evict(postRepository.findIdsByAuthorId(event.userId()));
+    }
+
+    private Map<UUID, PostResponse> load(List<UUID> postIds) {
+        Map<UUID, PostResponse> loaded = new HashMap<>();
+        postRepository.findWithFeedGraphByIdIn(postIds)
+                .forEach(post -> loaded.put(post.getId(), postMapper.toPostResponse(post)));
+        return loaded;
+    }
+
+    private List<String> readRedis(List<UUID> postIds) {
+        try {
+            return redisTemplate.opsForValue().multiGet(postIds.stream().map(PostResponseCache::key).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to read {} post responses from Redis", postIds.size(), ex);
+            return null;
+        }
+    }
+
+    private void writeRedis(Map<UUID, PostResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(feedConfig.getResponseCache().getRedisTtl());
+        try {
+            Map<byte[], byte[]> encoded = new HashMap<>();
+            for (Map.Entry<UUID, PostResponse> entry : responses.entrySet()) {
+                encoded.put(key(entry.getKey()).getBytes(StandardCharsets.UTF_8),
+                        objectMapper.writeValueAsBytes(entry.getValue()));
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                encoded.forEach((key, value) -> connection.stringCommands()
+                        .set(key, value, expiration, RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Failed to write {} post responses to Redis", responses.size(), ex);
+        }
+    }
+
+    private PostResponse parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, PostResponse.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable cached post response", ex);
+            return null;
+        }
+    }
+
+    private static String key(UUID postId) {
+        return KEY_PREFIX + postId;
+    }
+}
@@ -1,7 +1,7 @@
 package com.fyn_monolithic.service.post;
 
 import com.fyn_monolithic.dto.request.post.CreatePostRequest;
-import com.fyn_monolithic.dto.response.common.PageResponse;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.PostResponse;
 import com.fyn_monolithic.dto.response.user.UserResponse;
 import com.fyn_monolithic.exception.ResourceNotFoundException;
@@ -9,25 +9,25 @@ import com.fyn_monolithic.mapper.PostMapper;
 import com.fyn_monolithic.mapper.UserMapper;
 import com.fyn_monolithic.model.post.Post;
 import com.fyn_monolithic.model.post.PostMedia;
-import com.fyn_monolithic.model.search.Hashtag;
-import com.fyn_monolithic.model.search.PostHashtag;
 import com.fyn_monolithic.model.user.User;
-import com.fyn_monolithic.repository.post.PostLikeRepository;
 import com.fyn_monolithic.repository.post.PostMediaRepository;
 import com.fyn_monolithic.repository.post.PostRepository;
-import com.fyn_monolithic.repository.search.HashtagRepository;
-import com.fyn_monolithic.repository.search.PostHashtagRepository;
-import com.fyn_monolithic.service.storage.MinioService;
+import com.fyn_monolithic.service.feed.HomeTimelineService;
+import com.fyn_monolithic.service.feed.RankedFeedService;
+import com.fyn_monolithic.service.search.HashtagWriter;
 import com.fyn_monolithic.service.user.UserService;
+import com.fyn_monolithic.util.KeysetCursor;
+import com.fyn_monolithic.util.ScoreCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -36,62 +36,113 @@ public class PostService {
 
     private final PostRepository postRepository;
     private final PostMediaRepository postMediaRepository;
-    private final HashtagRepository hashtagRepository;
-    private final PostHashtagRepository postHashtagRepository;
+    private final HashtagWriter hashtagWriter;
     private final PostMapper postMapper;
     private final UserMapper userMapper;
     private final UserService userService;
-    private final MinioService minioService;
-    private final PostLikeRepository postLikeRepository;
+    private final PostMediaUploader postMediaUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final PostFeedHydrator postFeedHydrator;
+    private final HomeTimelineService homeTimelineService;
+    private final RankedFeedService rankedFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
+    /**
+     * Media is uploaded in parallel before the transaction opens, so no database
+     * connection is held during uploads; if saving the post then fails, the uploaded
+     * objects are deleted again.
+     */
     public PostResponse createPost(CreatePostRequest request, List<MultipartFile> mediaFiles) {
         User author = userService.getCurrentUser();
+        List<PostMediaUploader.UploadedMedia> uploaded = postMediaUploader.uploadAll(mediaFiles);
+        try {
+            return transactionTemplate.execute(status -> savePost(author, request, uploaded));
+        } catch (RuntimeException ex) {
+            postMediaUploader.deleteQuietly(uploaded);
+            throw ex;
+        }
+    }
+
+    private PostResponse savePost(User author, CreatePostRequest request, List<PostMediaUploader.UploadedMedia> uploaded) {
         Post post = new Post();
         post.setAuthor(author);
         post.setContent(request.getContent());
         post.setVisibility(request.getVisibility());
         Post saved = postRepository.save(post);
 
-        if (mediaFiles != null) {
-            mediaFiles.forEach(file -> {
-                String objectKey = minioService.upload(file);
-                PostMedia media = new PostMedia();
-                media.setPost(saved);
-                media.setObjectKey(objectKey);
-                media.setMediaType(minioService.detectMediaType(file));
-                postMediaRepository.save(media);
-            });
-        }
+        List<PostMedia> media = uploaded.stream()
+                .map(item -> {
+                    PostMedia entity = new PostMedia();
+                    entity.setPost(saved);
+                    entity.setObjectKey(item.objectKey());
+                    entity.setMediaType(item.mediaType());
+                    return entity;
+                })
+                .toList();
+        saved.getMedia().addAll(postMediaRepository.saveAll(media));
 
-        upsertHashtags(saved, request.getHashtags());
+        Map<String, UUID> hashtags = hashtagWriter.attach(saved, request.getHashtags());
+        eventPublisher.publishEvent(new PostCreatedEvent(
+                saved.getId(), author.getId(), saved.getVisibility(), saved.getCreatedAt(), hashtags.keySet()));
         return postMapper.toPostResponse(saved).toBuilder()
                 .likedByCurrentUser(false)
                 .build();
     }
 
+    /**
+     * Home timeline of the current user: their own posts and those of the users they
+     * follow, newest first, read from the precomputed timeline.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PostResponse> getFeed(String cursor, int size) {
+        User currentUser = userService.getCurrentUser();
+        HomeTimelineService.TimelinePage timeline =
+                homeTimelineService.page(currentUser.getId(), KeysetCursor.decode(cursor), size);
+        List<PostResponse> posts = postFeedHydrator.hydrate(timeline.postIds(), currentUser);
+        return CursorPageResponse.<PostResponse>builder()
+                .content(posts)
+                .size(posts.size())
+                .nextCursor(timeline.nextCursor() != null ? timeline.nextCursor().encode() : null)
+                .hasNext(timeline.nextCursor() != null)
+                .build();
+    }
+
+    /**
+     * The same posts as {@link #getFeed}, ordered by engagement, recency and the current
+     * user's affinity with each author, read from the precomputed ranked feed.
+     */
     @Transactional(readOnly = true)
-    public PageResponse<PostResponse> getFeed(int page, int size) {
-        Page<Post> result = postRepository.findAll(PageRequest.of(page, size));
-        return PageResponse.<PostResponse>builder()
-                .content(applyUserContext(result.getContent()))
-                .page(page)
-                .size(size)
-                .totalElements(result.getTotalElements())
-                .totalPages(result.getTotalPages())
+    public CursorPageResponse<PostResponse> getRankedFeed(String cursor, int size) {
+        User currentUser = userService.getCurrentUser();
+        RankedFeedService.RankedPage ranked =
+                rankedFeedService.page(currentUser.getId(), ScoreCursor.decode(cursor), size);
+        List<PostResponse> posts = postFeedHydrator.hydrate(ranked.postIds(), currentUser);
+        return CursorPageResponse.<PostResponse>builder()
+                .content(posts)
+                .size(posts.size())
+                .nextCursor(ranked.nextCursor() != null ? ranked.nextCursor().encode() : null)
+                .hasNext(ranked.nextCursor() != null)
                 .build();
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<PostResponse> getPostsOfUser(UUID userId, int page, int size) {
+    public CursorPageResponse<PostResponse> getPostsOfUser(UUID userId, String cursor, int size) {
         User user = userService.findEntity(userId);
-        Page<Post> result = postRepository.findByAuthor(user, PageRequest.of(page, size));
-        return PageResponse.<PostResponse>builder()
-                .content(applyUserContext(result.getContent()))
-                .page(page)
-                .size(size)
-                .totalElements(result.getTotalElements())
-                .totalPages(result.getTotalPages())
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<PostRepository.TimelineEntry> entries = postRepository.findPageByAuthor(
+                user.getId(),
+                after != null ? after.position() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+        CursorPageResponse<PostRepository.TimelineEntry> page = CursorPageResponse.of(entries, size,
+                entry -> new KeysetCursor(entry.getCreatedAt(), entry.getId()).encode());
+        return CursorPageResponse.<PostResponse>builder()
+                .content(postFeedHydrator.hydrate(
+                        page.getContent().stream().map(PostRepository.TimelineEntry::getId).toList(),
+                        userService.getCurrentUser()))
+                .size(page.getSize())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
                 .build();
     }
 
@@ -100,6 +151,7 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostDeletedEvent(post.getId(), post.getAuthor().getId()));
     }
 
     @Transactional(readOnly = true)
@@ -108,40 +160,4 @@ public class PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
         return userMapper.toUserResponse(post.getAuthor());
     }
-
-    private void upsertHashtags(Post saved, Set<String> hashtags) {
-        if (hashtags == null) {
-            return;
-        }
-        hashtags.forEach(tag -> {
-            Hashtag hashtag = hashtagRepository.findByTag(tag.toLowerCase())
-                    .orElseGet(() -> {
-                        Hashtag created = new Hashtag();
-                        created.setTag(tag.toLowerCase());
-                        return hashtagRepository.save(created);
-                    });
-            hashtag.setUsageCount(hashtag.getUsageCount() + 1);
-            hashtagRepository.save(hashtag);
-            PostHashtag relation = new PostHashtag();
-            relation.setPost(saved);
-            relation.setHashtag(hashtag);
-            postHashtagRepository.save(relation);
-        });
-    }
-
-    private List<PostResponse> applyUserContext(List<Post> posts) {
-        if (posts.isEmpty()) {
-            return List.of();
-        }
-        User currentUser = userService.getCurrentUser();
-        Set<UUID> likedPostIds = postLikeRepository.findPostIdsLikedByUser(currentUser, posts);
-        return posts.stream()
-                .map(post -> {
-                    PostResponse base = postMapper.toPostResponse(post);
-                    return base.toBuilder()
-                            .likedByCurrentUser(likedPostIds.contains(post.getId()))
-                            .build();
-                })
-                .toList();
-    }
 }
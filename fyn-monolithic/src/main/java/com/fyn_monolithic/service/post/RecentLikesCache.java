@@ -0,0 +1,227 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.repository.post.PostLikeRepository;
+import com.fyn_monolithic.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-user set of recently liked posts in Redis ({@code likes:recent:{<userId>}}), so
+ * {@code likedByCurrentUser} for a feed page needs no database round-trip.
+ * <p>
+ * A set is loaded from post_likes when a user becomes active and covers every post
+ * created since {@code feed.recent-likes.window} before the load; the start of that
+ * window is kept next to it ({@code :from}). Once each like or unlike commits,
+ * {@link LikeService} adds or removes the post on whichever instance served it, so every
+ * instance reads the same set. Posts older than the window are checked in the database.
+ * Sets expire after {@code feed.recent-likes.idle-ttl} without feed reads.
+ * <p>
+ * Each write also bumps a per-user version ({@code :version}). A load notes the version
+ * before querying the database and only stores its result if the version is unchanged,
+ * so a like or unlike committing while the query runs is never overwritten by the
+ * query's older view; the next read loads again instead.
+ */
+@Slf4j
+@Component
+public class RecentLikesCache {
+
+    private static final String KEY_PREFIX = "likes:recent:";
+
+    // KEYS: set, window start; ARGV: idle ttl ms, post ids. Returns the window start in
+    // epoch millis (false when not loaded) followed by 1/0 membership per post id.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            local from = redis.call('GET', KEYS[2])
+            if not from then
+              return {false}
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            local result = {from}
+            for i = 2, #ARGV do
+              result[i] = redis.call('SISMEMBER', KEYS[1], ARGV[i])
+            end
+            return result
+            """, List.class);
+
+    // KEYS: set, window start, version; ARGV: version seen before the query, window start,
+    // idle ttl ms, post ids
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 4, #ARGV, 1000 do
+              redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // KEYS: set, window start, version; ARGV: post id, 1 to add or 0 to remove, idle ttl ms.
+    // An unloaded set is left alone; the version bump stops a load in flight from storing.
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[3])
+            redis.call('PEXPIRE', KEYS[3], ARGV[3])
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+              return 0
+            end
+            if ARGV[2] == '1' then
+              redis.call('SADD', KEYS[1], ARGV[1])
+            else
+              redis.call('SREM', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private final PostLikeRepository postLikeRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final FeedConfig feedConfig;
+    private final Counter databaseChecks;
+    private final Counter loads;
+
+    public RecentLikesCache(PostLikeRepository postLikeRepository,
+                            StringRedisTemplate redisTemplate,
+                            FeedConfig feedConfig,
+                            MeterRegistry meterRegistry) {
+        this.postLikeRepository = postLikeRepository;
+        this.redisTemplate = redisTemplate;
+        this.feedConfig = feedConfig;
+
+        this.databaseChecks = Counter.builder("posts.recent_likes.database_checks")
+                .description("Pages that had posts too old for the cached likes and asked the database")
+                .register(meterRegistry);
+        this.loads = Counter.builder("posts.recent_likes.loads")
+                .description("Recent-likes sets loaded from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ids of the given posts the viewer has liked.
+     */
+    public Set<UUID> likedAmong(User viewer, List<PostResponse> posts) {
+        UUID userId = viewer.getId();
+        List<String> args = new ArrayList<>(posts.size() + 1);
+        args.add(String.valueOf(idleTtlMillis()));
+        posts.forEach(post -> args.add(post.getId().toString()));
+        List<?> result;
+        try {
+            result = redisTemplate.execute(READ_SCRIPT, List.of(key(userId), fromKey(userId)), args.toArray());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to read cached likes of user {}, asking the database", userId, ex);
+            databaseChecks.increment();
+            return new HashSet<>(postLikeRepository.findPostIdsLikedByUser(
+                    viewer, posts.stream().map(PostResponse::getId).toList()));
+        }
+
+        if (result == null || result.isEmpty() || result.get(0) == null) {
+            return loadAndCheck(viewer, posts);
+        }
+
+        Instant coveredFrom = Instant.ofEpochMilli(Long.parseLong(result.get(0).toString()));
+        Set<UUID> liked = new HashSet<>();
+        List<UUID> older = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+            PostResponse post = posts.get(i);
+            if (post.getCreatedAt().isBefore(coveredFrom)) {
+                older.add(post.getId());
+            } else if (Long.valueOf(1).equals(result.get(i + 1))) {
+                liked.add(post.getId());
+            }
+        }
+        if (!older.isEmpty()) {
+            databaseChecks.increment();
+            liked.addAll(postLikeRepository.findPostIdsLikedByUser(viewer, older));
+        }
+        return liked;
+    }
+
+    public void recordLike(UUID userId, UUID postId) {
+        TransactionUtils.afterCommit(() -> write(userId, postId, true));
+    }
+
+    public void recordUnlike(UUID userId, UUID postId) {
+        TransactionUtils.afterCommit(() -> write(userId, postId, false));
+    }
+
+    private void write(UUID userId, UUID postId, boolean liked) {
+        try {
+            redisTemplate.execute(WRITE_SCRIPT,
+                    List.of(key(userId), fromKey(userId), versionKey(userId)),
+                    postId.toString(), liked ? "1" : "0", String.valueOf(idleTtlMillis()));
+        } catch (RuntimeException ex) {
+            // The set may now be wrong; dropping it makes the next read load it again
+            log.warn("Failed to record like change of user {} on post {}, dropping their cached likes", userId, postId, ex);
+            redisTemplate.delete(List.of(key(userId), fromKey(userId)));
+        }
+    }
+
+    /**
+     * Loads the user's set and answers this page from the loaded likes, whether or not
+     * the set could be stored.
+     */
+    private Set<UUID> loadAndCheck(User viewer, List<PostResponse> posts) {
+        loads.increment();
+        UUID userId = viewer.getId();
+        String version = redisTemplate.opsForValue().get(versionKey(userId));
+        Instant coveredFrom = Instant.now().minus(feedConfig.getRecentLikes().getWindow());
+        List<UUID> likedSince = postLikeRepository.findPostIdsLikedByUserSince(userId, coveredFrom);
+
+        List<String> args = new ArrayList<>(likedSince.size() + 3);
+        args.add(version != null ? version : "0");
+        args.add(String.valueOf(coveredFrom.toEpochMilli()));
+        args.add(String.valueOf(idleTtlMillis()));
+        likedSince.forEach(postId -> args.add(postId.toString()));
+        redisTemplate.execute(LOAD_SCRIPT,
+                List.of(key(userId), fromKey(userId), versionKey(userId)), args.toArray());
+
+        Set<UUID> likedRecently = new HashSet<>(likedSince);
+        Set<UUID> liked = new HashSet<>();
+        List<UUID> older = new ArrayList<>();
+        for (PostResponse post : posts) {
+            if (post.getCreatedAt().isBefore(coveredFrom)) {
+                older.add(post.getId());
+            } else if (likedRecently.contains(post.getId())) {
+                liked.add(post.getId());
+            }
+        }
+        if (!older.isEmpty()) {
+            databaseChecks.increment();
+            liked.addAll(postLikeRepository.findPostIdsLikedByUser(viewer, older));
+        }
+        return liked;
+    }
+
+    private long idleTtlMillis() {
+        return feedConfig.getRecentLikes().getIdleTtl().toMillis();
+    }
+
+    // The user id is the cluster hash tag, so the scripts may touch all three keys
+    private static String key(UUID userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    private static String fromKey(UUID userId) {
+        return key(userId) + ":from";
+    }
+
+    private static String versionKey(UUID userId) {
+        return key(userId) + ":version";
+    }
+}
@@ -0,0 +1,359 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.dto.response.search.SuggestionResponse;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.search.HashtagRepository;
+import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.service.user.UserProfileChangedEvent;
+import com.fyn_monolithic.service.user.UserRegisteredEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory type-ahead over usernames, full names and hashtags, weighted by popularity
+ * (follower count for users, usage count for hashtags).
+ * <p>
+ * The bulk of the index is an immutable snapshot: every lower-cased key (username, full
+ * name, each later word of the full name, and each tag both bare and with its '#') in one
+ * sorted array, with a max segment tree over the key weights. A prefix selects a
+ * contiguous range by binary search, and the heaviest entries of that range come out of
+ * the tree in O(limit x log n) however many keys share the prefix. The snapshot is rebuilt
+ * from the database every {@code search.autocomplete.rebuild-interval-ms}.
+ * <p>
+ * Between rebuilds, registrations, profile changes and new hashtags go to a small sorted
+ * overlay. A changed user is also tombstoned so their snapshot keys stop matching. Each
+ * rebuild drops overlay entries it has absorbed.
+ */
+@Slf4j
+@Component
+public class AutocompleteIndex {
+
+    public static final int MAX_LIMIT = 10;
+
+    private final UserRepository userRepository;
+    private final HashtagRepository hashtagRepository;
+    private final Timer rebuildTimer;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // key + '\0' + entity -> entry, for range scans by prefix
+    private final ConcurrentSkipListMap<String, OverlayEntry> overlay = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> overlayKeysByEntity = new ConcurrentHashMap<>();
+    // entity -> sequence of the change that hid its snapshot keys
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AutocompleteIndex(UserRepository userRepository,
+                             HashtagRepository hashtagRepository,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hashtagRepository = hashtagRepository;
+
+        Gauge.builder("search.autocomplete.keys", this, index -> index.snapshot.keys.length)
+                .description("Keys in the autocomplete snapshot")
+                .register(meterRegistry);
+        Gauge.builder("search.autocomplete.overlay", overlay, Map::size)
+                .description("Autocomplete keys added since the last rebuild")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("search.autocomplete.rebuild")
+                .description("Time to rebuild the autocomplete snapshot from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The most popular users and hashtags with a key starting with {@code prefix}.
+     */
+    public List<SuggestionResponse> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int bounded = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Candidate> best = new HashMap<>();
+        snapshot.top(normalized, bounded, tombstones, best);
+        for (OverlayEntry entry : overlay.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            best.merge(entry.entity(), new Candidate(entry.suggestion(), entry.weight()),
+                    (a, b) -> a.weight() >= b.weight() ? a : b);
+        }
+        return best.values().stream()
+                .sorted(Comparator.comparingLong(Candidate::weight).reversed())
+                .limit(bounded)
+                .map(Candidate::suggestion)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${search.autocomplete.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        long startedAt = sequence.get();
+        Timer.Sample sample = Timer.start();
+        List<Item> items = new ArrayList<>();
+        userRepository.forEachSearchName(user ->
+                addUserKeys(items, user.id(), user.username(), user.fullName(), user.followerCount()));
+        hashtagRepository.forEachTag(tag -> addTagKeys(items, tag.tag(), tag.usageCount()));
+        items.sort(Comparator.comparing(Item::key));
+        snapshot = new Snapshot(items);
+        sample.stop(rebuildTimer);
+
+        // Changes recorded before the database was read are part of the new snapshot
+        synchronized (this) {
+            tombstones.values().removeIf(seq -> seq <= startedAt);
+            overlay.values().removeIf(entry -> {
+                if (entry.seq() > startedAt) {
+                    return false;
+                }
+                overlayKeysByEntity.remove(entry.entity());
+                return true;
+            });
+        }
+        log.debug("Rebuilt autocomplete index with {} keys", items.size());
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        refreshUser(event.userId());
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        refreshUser(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (event.visibility() != PostVisibility.PUBLIC) {
+            return;
+        }
+        for (String tag : event.hashtags()) {
+            String entity = tagEntity(tag);
+            synchronized (this) {
+                List<String> keys = overlayKeysByEntity.get(entity);
+                if (keys != null) {
+                    // Already overlaid: count this use too
+                    List<Item> items = new ArrayList<>();
+                    addTagKeys(items, tag, overlay.get(keys.get(0)).weight() + 1);
+                    replaceOverlay(entity, items);
+                } else if (!snapshot.containsKey("#" + tag, entity)) {
+                    List<Item> items = new ArrayList<>();
+                    addTagKeys(items, tag, 1);
+                    replaceOverlay(entity, items);
+                }
+            }
+        }
+    }
+
+    private void refreshUser(UUID userId) {
+        userRepository.findById(userId).ifPresent(user -> {
+            List<Item> items = new ArrayList<>();
+            addUserKeys(items, user.getId(), user.getUsername(), user.getFullName(), user.getFollowerCount());
+            String entity = userEntity(userId);
+            synchronized (this) {
+                tombstones.put(entity, sequence.incrementAndGet());
+                replaceOverlay(entity, items);
+            }
+        });
+    }
+
+    private void replaceOverlay(String entity, List<Item> items) {
+        long seq = sequence.incrementAndGet();
+        List<String> previous = overlayKeysByEntity.remove(entity);
+        if (previous != null) {
+            previous.forEach(overlay::remove);
+        }
+        List<String> keys = new ArrayList<>(items.size());
+        for (Item item : items) {
+            String key = item.key() + '\0' + entity;
+            overlay.put(key, new OverlayEntry(entity, item.suggestion(), item.weight(), seq));
+            keys.add(key);
+        }
+        overlayKeysByEntity.put(entity, keys);
+    }
+
+    private static void addUserKeys(List<Item> items, UUID id, String username, String fullName, long followers) {
+        String entity = userEntity(id);
+        SuggestionResponse suggestion = SuggestionResponse.builder()
+                .type(SuggestionResponse.Type.USER)
+                .id(id)
+                .text(username)
+                .detail(fullName)
+                .build();
+        Map<String, Boolean> keys = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            keys.put(normalize(username), true);
+        }
+        if (fullName != null && !fullName.isBlank()) {
+            // "Anna Maria Lee" is found by "anna", "maria" and "lee"
+            String name = normalize(fullName);
+            keys.put(name, true);
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                keys.put(name.substring(i + 1), true);
+            }
+        }
+        keys.keySet().forEach(key -> items.add(new Item(key, entity, suggestion, followers)));
+    }
+
+    private static void addTagKeys(List<Item> items, String tag, long usage) {
+        String entity = tagEntity(tag);
+        SuggestionResponse suggestion = SuggestionResponse.builder()
+                .type(SuggestionResponse.Type.HASHTAG)
+                .text(tag)
+                .build();
+        items.add(new Item(tag, entity, suggestion, usage));
+        items.add(new Item("#" + tag, entity, suggestion, usage));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String userEntity(UUID id) {
+        return "U:" + id;
+    }
+
+    private static String tagEntity(String tag) {
+        return "H:" + tag;
+    }
+
+    private record Item(String key, String entity, SuggestionResponse suggestion, long weight) {
+    }
+
+    private record OverlayEntry(String entity, SuggestionResponse suggestion, long weight, long seq) {
+    }
+
+    private record Candidate(SuggestionResponse suggestion, long weight) {
+    }
+
+    /**
+     * Sorted keys with their entries, plus a bottom-up segment tree holding, for each
+     * node, the position of the heaviest key below it.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(List.of());
+
+        private final String[] keys;
+        private final String[] entities;
+        private final SuggestionResponse[] suggestions;
+        private final long[] weights;
+        private final int[] tree;
+
+        Snapshot(List<Item> sorted) {
+            int n = sorted.size();
+            keys = new String[n];
+            entities = new String[n];
+            suggestions = new SuggestionResponse[n];
+            weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                Item item = sorted.get(i);
+                keys[i] = item.key();
+                entities[i] = item.entity();
+                suggestions[i] = item.suggestion();
+                weights[i] = item.weight();
+            }
+            tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = heavier(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        boolean containsKey(String key, String entity) {
+            for (int i = lowerBound(key); i < keys.length && keys[i].equals(key); i++) {
+                if (entities[i].equals(entity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds up to {@code limit} distinct, non-tombstoned entities matching the prefix to
+         * {@code best}, heaviest first.
+         */
+        void top(String prefix, int limit, Map<String, Long> tombstones, Map<String, Candidate> best) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            if (from >= to) {
+                return;
+            }
+            // Ranges ordered by the weight of their heaviest key; popping one emits that key
+            // and splits the range around it
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    Comparator.comparingLong((int[] range) -> weights[range[2]]).reversed());
+            ranges.add(new int[]{from, to, heaviestIn(from, to)});
+            int found = 0;
+            while (!ranges.isEmpty() && found < limit) {
+                int[] range = ranges.poll();
+                int position = range[2];
+                if (range[0] < position) {
+                    ranges.add(new int[]{range[0], position, heaviestIn(range[0], position)});
+                }
+                if (position + 1 < range[1]) {
+                    ranges.add(new int[]{position + 1, range[1], heaviestIn(position + 1, range[1])});
+                }
+                String entity = entities[position];
+                if (!tombstones.containsKey(entity)
+                        && best.putIfAbsent(entity, new Candidate(suggestions[position], weights[position])) == null) {
+                    found++;
+                }
+            }
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Heaviest position in [from, to)
+        private int heaviestIn(int from, int to) {
+            int n = keys.length;
+            int result = from;
+            for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    result = heavier(result, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    result = heavier(result, tree[--r]);
+                }
+            }
+            return result;
+        }
+
+        private int heavier(int a, int b) {
+            return weights[a] >= weights[b] ? a : b;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.fyn_monolithic.service.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency estimator: {@link #estimate} never undercounts, and overcounts by
+ * at most about e/width of everything added with probability 1 - e^-depth.
+ * Each row hashes the key's UTF-8 bytes with murmur3 under its own seed, so rows collide
+ * independently. Sketches of equal dimensions can be summed with {@link #addFrom}.
+ * Not thread-safe; callers synchronize.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    void add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + column(bytes, row)]++;
+        }
+    }
+
+    long estimate(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + column(bytes, row)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        for (int counter : counters) {
+            out.writeInt(counter);
+        }
+    }
+
+    /**
+     * Adds the counters of a sketch written by {@link #writeTo} with the same dimensions.
+     */
+    void addFrom(DataInputStream in) throws IOException {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += in.readInt();
+        }
+    }
+
+    void skip(DataInputStream in) throws IOException {
+        in.skipNBytes((long) counters.length * Integer.BYTES);
+    }
+
+    private int column(byte[] key, int row) {
+        return Integer.remainderUnsigned(murmur3(key, 0x9747B28C + row * 0x9E3779B9), width);
+    }
+
+    // MurmurHash3 x86 32-bit
+    private static int murmur3(byte[] data, int seed) {
+        final int c1 = 0xCC9E2D51;
+        final int c2 = 0x1B873593;
+        int h = seed;
+        int blocks = data.length / 4;
+        for (int i = 0; i < blocks; i++) {
+            int k = (data[i * 4] & 0xFF)
+                    | (data[i * 4 + 1] & 0xFF) << 8
+                    | (data[i * 4 + 2] & 0xFF) << 16
+                    | (data[i * 4 + 3] & 0xFF) << 24;
+            k *= c1;
+            k = Integer.rotateLeft(k, 15);
+            k *= c2;
+            h ^= k;
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xE6546B64;
+        }
+        int tail = blocks * 4;
+        int k = 0;
+        switch (data.length & 3) {
+            case 3:
+                k ^= (data[tail + 2] & 0xFF) << 16;
+            case 2:
+                k ^= (data[tail + 1] & 0xFF) << 8;
+            case 1:
+                k ^= data[tail] & 0xFF;
+                k *= c1;
+                k = Integer.rotateLeft(k, 15);
+                k *= c2;
+                h ^= k;
+            default:
+        }
+        h ^= data.length;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
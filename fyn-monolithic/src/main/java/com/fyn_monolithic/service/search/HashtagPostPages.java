@@ -0,0 +1,76 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.config.SearchConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.search.PostHashtagRepository;
+import com.fyn_monolithic.repository.search.PostHashtagRepository.TaggedPost;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.util.KeysetCursor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keyset pages of the public posts carrying a tag, newest first.
+ * <p>
+ * Popular tags are requested far more often than they gain posts, and almost always from
+ * the top, so each instance keeps the newest {@code search.hashtag-pages.first-page-size}
+ * entries of the most requested tags in a bounded Caffeine cache. A tag's entry is
+ * dropped when a public post with that tag commits here; other instances' posts and any
+ * deletions show up within {@code search.hashtag-pages.ttl}, and deleted posts are
+ * skipped at hydration anyway. Later pages always go to the database.
+ */
+@Component
+public class HashtagPostPages {
+
+    private final PostHashtagRepository postHashtagRepository;
+    private final SearchConfig searchConfig;
+    private final Cache<String, List<TaggedPost>> firstPages;
+
+    public HashtagPostPages(PostHashtagRepository postHashtagRepository,
+                            SearchConfig searchConfig,
+                            MeterRegistry meterRegistry) {
+        this.postHashtagRepository = postHashtagRepository;
+        this.searchConfig = searchConfig;
+
+        SearchConfig.HashtagPages config = searchConfig.getHashtagPages();
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTags())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, firstPages, "search.hashtag.pages");
+    }
+
+    /**
+     * Up to {@code limit} entries after {@code after}, or from the newest when it is null.
+     * {@code tag} must already be normalized.
+     */
+    public List<TaggedPost> page(String tag, KeysetCursor after, int limit) {
+        int cached = searchConfig.getHashtagPages().getFirstPageSize();
+        if (after == null && limit <= cached) {
+            List<TaggedPost> newest = firstPages.get(tag, key -> List.copyOf(
+                    postHashtagRepository.findPageByTag(key, null, null, Limit.of(cached))));
+            return newest.subList(0, Math.min(limit, newest.size()));
+        }
+        return postHashtagRepository.findPageByTag(
+                tag,
+                after != null ? after.position() : null,
+                after != null ? after.id() : null,
+                Limit.of(limit));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (event.visibility() == PostVisibility.PUBLIC) {
+            firstPages.invalidateAll(event.hashtags());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.repository.search.HashtagRepository;
+import com.fyn_monolithic.repository.search.PostHashtagRepository;
+import com.fyn_monolithic.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Attaches hashtags to a new post with a fixed number of statements: an insert of its new
+ * tags, a lookup of the existing ones, and one batch of post_hashtags rows.
+ * <p>
+ * Usage counts are not updated per post. Once the post commits, each tag's increment is
+ * added to an in-memory total, and the totals are written every
+ * {@code search.hashtags.usage-flush-interval-ms} as relative updates, so popular tags
+ * neither contend on their row nor lose increments to concurrent read-modify-writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HashtagWriter {
+
+    private final HashtagRepository hashtagRepository;
+    private final PostHashtagRepository postHashtagRepository;
+    private final Map<UUID, Long> pendingUsage = new ConcurrentHashMap<>();
+
+    /**
+     * Links the post to the given tags, creating missing ones. Returns tag to hashtag id.
+     */
+    public Map<String, UUID> attach(Post post, Set<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> normalized = tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        if (normalized.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, UUID> hashtagIds = hashtagRepository.upsertTags(normalized);
+        postHashtagRepository.insertAll(post.getId(), post.getCreatedAt(), hashtagIds.values());
+        TransactionUtils.afterCommit(() -> hashtagIds.values().forEach(id -> pendingUsage.merge(id, 1L, Long::sum)));
+        return hashtagIds;
+    }
+
+    @Scheduled(fixedDelayString = "${search.hashtags.usage-flush-interval-ms:5000}")
+    public void flushUsage() {
+        if (pendingUsage.isEmpty()) {
+            return;
+        }
+        // remove() hands over each total atomically; increments after it start a new total
+        Map<UUID, Long> deltas = new HashMap<>();
+        for (UUID hashtagId : pendingUsage.keySet()) {
+            Long delta = pendingUsage.remove(hashtagId);
+            if (delta != null) {
+                deltas.put(hashtagId, delta);
+            }
+        }
+        try {
+            hashtagRepository.incrementUsage(deltas);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush usage counts for {} hashtags, retrying next flush", deltas.size(), ex);
+            deltas.forEach((id, delta) -> pendingUsage.merge(id, delta, Long::sum));
+        }
+    }
+}
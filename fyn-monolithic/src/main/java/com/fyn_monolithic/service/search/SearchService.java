@@ -1,49 +1,117 @@
 package com.fyn_monolithic.service.search;
 
+import com.fyn_monolithic.config.SearchConfig;
+import com.fyn_monolithic.dto.response.common.CursorPageResponse;
 import com.fyn_monolithic.dto.response.post.PostResponse;
 import com.fyn_monolithic.dto.response.user.UserResponse;
-import com.fyn_monolithic.mapper.PostMapper;
 import com.fyn_monolithic.mapper.UserMapper;
-import com.fyn_monolithic.model.search.PostHashtag;
-import com.fyn_monolithic.repository.search.HashtagRepository;
-import com.fyn_monolithic.repository.search.PostHashtagRepository;
+import com.fyn_monolithic.repository.search.PostHashtagRepository.TaggedPost;
+import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.service.post.PostFeedHydrator;
+import com.fyn_monolithic.service.user.UserService;
+import com.fyn_monolithic.util.KeysetCursor;
+import com.fyn_monolithic.util.SearchCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
-    private final HashtagRepository hashtagRepository;
-    private final PostHashtagRepository postHashtagRepository;
-    private final PostMapper postMapper;
+    private final HashtagPostPages hashtagPostPages;
+    private final PostFeedHydrator postFeedHydrator;
+    private final UserService userService;
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final SearchConfig searchConfig;
 
+    /**
+     * Public posts carrying the tag (with or without its '#'), newest first. Pass the
+     * returned nextCursor back as {@code cursor} for the next page.
+     */
     @Transactional(readOnly = true)
-    public List<PostResponse> searchByHashtag(String tag) {
-        return hashtagRepository.findByTag(tag.toLowerCase())
-                .map(found -> postHashtagRepository.findByHashtag(found).stream()
-                        .map(PostHashtag::getPost)
-                        .map(postMapper::toPostResponse)
-                        .toList())
-                .orElse(List.of());
+    public CursorPageResponse<PostResponse> searchByHashtag(String tag, String cursor, int size) {
+        String normalized = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("#")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.isEmpty()) {
+            return CursorPageResponse.<PostResponse>builder().content(List.of()).build();
+        }
+        List<TaggedPost> rows = hashtagPostPages.page(normalized, KeysetCursor.decode(cursor), size + 1);
+        CursorPageResponse<TaggedPost> page = CursorPageResponse.of(rows, size,
+                row -> new KeysetCursor(row.getCreatedAt(), row.getPostId()).encode());
+        return CursorPageResponse.<PostResponse>builder()
+                .content(postFeedHydrator.hydrate(
+                        page.getContent().stream().map(TaggedPost::getPostId).toList(),
+                        userService.getCurrentUser()))
+                .size(page.getSize())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .build();
     }
 
+    /**
+     * Users whose username or full name resembles the query, best match first, then the
+     * most followed. Queries shorter than {@code search.users.min-trigram-length} match
+     * username and name prefixes instead, most followed first. Pass the returned
+     * nextCursor back as {@code cursor} for the next page.
+     */
     @Transactional(readOnly = true)
-    public List<UserResponse> searchUsers(String query) {
-        final String keyword = query == null ? "" : query.trim();
+    public CursorPageResponse<UserResponse> searchUsers(String query, String cursor, int size) {
+        final String keyword = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
         if (keyword.isEmpty()) {
-            return List.of();
+            return CursorPageResponse.<UserResponse>builder().content(List.of()).build();
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        SearchConfig.Users config = searchConfig.getUsers();
+        List<UserRepository.UserSearchHit> hits;
+        if (keyword.codePointCount(0, keyword.length()) < config.getMinTrigramLength()) {
+            hits = userRepository.searchPageByPrefix(
+                    escapeLike(keyword) + "%",
+                    after != null ? after.popularity() : null,
+                    after != null ? after.id() : null,
+                    size + 1);
+        } else {
+            hits = userRepository.searchPage(
+                    keyword,
+                    "%" + escapeLike(keyword) + "%",
+                    config.getCandidates(),
+                    after != null ? after.score() : null,
+                    after != null ? after.popularity() : null,
+                    after != null ? after.id() : null,
+                    size + 1);
         }
-        return userRepository
-                .findTop20ByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCase(keyword, keyword)
+        CursorPageResponse<UserRepository.UserSearchHit> page = CursorPageResponse.of(hits, size,
+                hit -> new SearchCursor(hit.getScore(), hit.getFollowerCount(), hit.getId()).encode());
+
+        Map<UUID, User> users = userRepository.findWithProfileByIdIn(
+                        page.getContent().stream().map(UserRepository.UserSearchHit::getId).toList())
                 .stream()
-                .map(userMapper::toUserResponse)
-                .toList();
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return CursorPageResponse.<UserResponse>builder()
+                .content(page.getContent().stream()
+                        .map(hit -> users.get(hit.getId()))
+                        .filter(Objects::nonNull)
+                        .map(userMapper::toUserResponse)
+                        .toList())
+                .size(page.getSize())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .build();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
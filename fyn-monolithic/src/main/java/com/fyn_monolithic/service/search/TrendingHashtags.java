@@ -0,0 +1,403 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.config.SearchConfig;
+import com.fyn_monolithic.dto.response.search.TrendingHashtagResponse;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trending hashtags over sliding windows, counted in memory from post creation.
+ * <p>
+ * Each {@link TrendingWindow} is a ring of slots with one count-min sketch each, so memory
+ * is fixed no matter how many distinct tags are used. Alongside the sketches a bounded
+ * candidate set keeps the tags with the highest estimates (the heavy hitters); trending
+ * requests rank those candidates by their current window estimate. Only public posts count.
+ * <p>
+ * Each instance counts only the posts it served and snapshots its windows to its own
+ * Redis keys ({@code trending:hashtags:{<instanceId>}:<window>}) every
+ * {@code search.trending.snapshot-interval-ms} and on shutdown, restoring them on startup.
+ * On the same schedule it sums the other instances' snapshots, listed in
+ * {@code trending:hashtags:instances}, into a merged view; trending requests add this
+ * instance's live counts to that view. Sketches of equal dimensions add up exactly, so
+ * the result is what one instance counting every post would report, at most one
+ * interval behind for other instances' posts. Snapshots of stopped instances keep
+ * counting until their slots leave the window or the snapshot expires.
+ */
+@Slf4j
+@Component
+public class TrendingHashtags {
+
+    private static final String KEY_PREFIX = "trending:hashtags:";
+    private static final String INSTANCES_KEY = KEY_PREFIX + "instances";
+
+    private final StringRedisTemplate redisTemplate;
+    private final SearchConfig searchConfig;
+    // This instance's counts
+    private final Map<TrendingWindow, Window> windows;
+    // Sum of the other instances' latest snapshots, replaced on each merge
+    private volatile Map<TrendingWindow, Window> others;
+
+    public TrendingHashtags(StringRedisTemplate redisTemplate,
+                            SearchConfig searchConfig,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.searchConfig = searchConfig;
+        this.windows = newWindows();
+        this.others = newWindows();
+
+        Gauge.builder("search.trending.candidates", windows, TrendingHashtags::candidateCount)
+                .description("Heavy-hitter candidate tags tracked across trending windows")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (event.visibility() != PostVisibility.PUBLIC || event.hashtags().isEmpty()) {
+            return;
+        }
+        long at = event.createdAt().toEpochMilli();
+        for (Window window : windows.values()) {
+            window.add(event.hashtags(), at);
+        }
+    }
+
+    /**
+     * Candidates of this instance and of the merged view, ranked by their combined estimate.
+     */
+    public List<TrendingHashtagResponse> top(TrendingWindow window, int limit) {
+        int bounded = Math.max(1, Math.min(limit, searchConfig.getTrending().getMaxLimit()));
+        long now = System.currentTimeMillis();
+        Window local = windows.get(window);
+        Window merged = others.get(window);
+        Set<String> tags = new HashSet<>(local.candidateTags(now));
+        tags.addAll(merged.candidateTags(now));
+
+        Map<String, Long> totals = new HashMap<>(local.estimates(tags, now));
+        merged.estimates(tags, now).forEach((tag, estimate) -> totals.merge(tag, estimate, Long::sum));
+        return totals.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(bounded)
+                .map(entry -> TrendingHashtagResponse.builder()
+                        .tag(entry.getKey())
+                        .postCount(entry.getValue())
+                        .build())
+                .toList();
+    }
+
+    @PostConstruct
+    void restore() {
+        windows.forEach((window, state) -> {
+            try {
+                String encoded = redisTemplate.opsForValue().get(key(instanceId(), window));
+                if (encoded != null) {
+                    state.mergeFrom(decode(encoded));
+                }
+            } catch (IOException | RuntimeException ex) {
+                state.reset();
+                log.warn("Ignoring unreadable trending snapshot for window {}", window.key(), ex);
+            }
+        });
+        mergeOthers();
+    }
+
+    @Scheduled(fixedDelayString = "${search.trending.snapshot-interval-ms:60000}")
+    public void sync() {
+        snapshot();
+        mergeOthers();
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        String instanceId = instanceId();
+        windows.forEach((window, state) -> {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                state.writeTo(new DataOutputStream(bytes));
+                redisTemplate.opsForValue().set(key(instanceId, window),
+                        Base64.getEncoder().encodeToString(bytes.toByteArray()),
+                        searchConfig.getTrending().getSnapshotTtl());
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Failed to snapshot trending window {}", window.key(), ex);
+            }
+        });
+        try {
+            redisTemplate.opsForSet().add(INSTANCES_KEY, instanceId);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to register trending instance {}", instanceId, ex);
+        }
+    }
+
+    /**
+     * Rebuilds the merged view from the other instances' snapshots, and forgets instances
+     * whose snapshots have all expired.
+     */
+    void mergeOthers() {
+        Map<TrendingWindow, Window> merged = newWindows();
+        try {
+            Set<String> instances = redisTemplate.opsForSet().members(INSTANCES_KEY);
+            if (instances == null) {
+                return;
+            }
+            List<TrendingWindow> order = List.of(TrendingWindow.values());
+            for (String instanceId : instances) {
+                if (instanceId.equals(instanceId())) {
+                    continue;
+                }
+                // One hash tag per instance, so its windows can be read in one MGET
+                List<String> encoded = redisTemplate.opsForValue().multiGet(
+                        order.stream().map(window -> key(instanceId, window)).toList());
+                if (encoded == null || encoded.stream().allMatch(value -> value == null)) {
+                    redisTemplate.opsForSet().remove(INSTANCES_KEY, instanceId);
+                    continue;
+                }
+                for (int i = 0; i < order.size(); i++) {
+                    if (encoded.get(i) == null) {
+                        continue;
+                    }
+                    try {
+                        merged.get(order.get(i)).mergeFrom(decode(encoded.get(i)));
+                    } catch (IOException | RuntimeException ex) {
+                        log.warn("Ignoring unreadable trending snapshot of instance {}", instanceId, ex);
+                    }
+                }
+            }
+            others = merged;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to merge trending snapshots of other instances, keeping the previous view", ex);
+        }
+    }
+
+    private Map<TrendingWindow, Window> newWindows() {
+        SearchConfig.Trending config = searchConfig.getTrending();
+        Map<TrendingWindow, Window> result = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            result.put(window, new Window(window, config.getSketchWidth(), config.getSketchDepth(), config.getCandidates()));
+        }
+        return result;
+    }
+
+    private String instanceId() {
+        return searchConfig.getTrending().getInstanceId();
+    }
+
+    private static String key(String instanceId, TrendingWindow window) {
+        return KEY_PREFIX + "{" + instanceId + "}:" + window.key();
+    }
+
+    private static DataInputStream decode(String encoded) {
+        return new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)));
+    }
+
+    private static double candidateCount(Map<TrendingWindow, Window> windows) {
+        return windows.values().stream().mapToInt(Window::candidateCount).sum();
+    }
+
+    private static final class Window {
+        private final TrendingWindow spec;
+        private final int width;
+        private final int depth;
+        private final int capacity;
+        private final CountMinSketch[] slots;
+        // Slot number (epoch millis / slot length) each ring position currently counts; -1 when empty
+        private final long[] slotNumbers;
+        // Candidate tag -> window estimate as of its last update or the last slot rollover
+        private final Map<String, Long> candidates = new HashMap<>();
+
+        private Window(TrendingWindow spec, int width, int depth, int capacity) {
+            this.spec = spec;
+            this.width = width;
+            this.depth = depth;
+            this.capacity = capacity;
+            this.slots = new CountMinSketch[spec.slots()];
+            this.slotNumbers = new long[spec.slots()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new CountMinSketch(width, depth);
+            }
+            Arrays.fill(slotNumbers, -1);
+        }
+
+        synchronized void add(Iterable<String> tags, long atMillis) {
+            long slotNumber = atMillis / spec.slotMillis();
+            long current = Math.max(slotNumber, System.currentTimeMillis() / spec.slotMillis());
+            if (slotNumber <= current - slots.length) {
+                return; // Already outside the window
+            }
+            advance(current);
+            int position = (int) (slotNumber % slots.length);
+            if (slotNumbers[position] != slotNumber) {
+                return;
+            }
+            for (String tag : tags) {
+                slots[position].add(tag);
+                offer(tag, estimate(tag, current));
+            }
+        }
+
+        synchronized List<String> candidateTags(long nowMillis) {
+            long current = nowMillis / spec.slotMillis();
+            advance(current);
+            refreshCandidates(current);
+            return List.copyOf(candidates.keySet());
+        }
+
+        /**
+         * Window estimates of the given tags, candidates or not.
+         */
+        synchronized Map<String, Long> estimates(Collection<String> tags, long nowMillis) {
+            long current = nowMillis / spec.slotMillis();
+            advance(current);
+            Map<String, Long> result = new HashMap<>();
+            for (String tag : tags) {
+                result.put(tag, estimate(tag, current));
+            }
+            return result;
+        }
+
+        synchronized int candidateCount() {
+            return candidates.size();
+        }
+
+        synchronized void reset() {
+            for (int i = 0; i < slots.length; i++) {
+                slots[i].clear();
+                slotNumbers[i] = -1;
+            }
+            candidates.clear();
+        }
+
+        /**
+         * Recycles ring positions whose slot fell out of the window ending at {@code current}.
+         */
+        private void advance(long current) {
+            boolean expired = false;
+            for (long slotNumber = current - slots.length + 1; slotNumber <= current; slotNumber++) {
+                int position = (int) (slotNumber % slots.length);
+                if (slotNumbers[position] < slotNumber) {
+                    expired |= slotNumbers[position] >= 0;
+                    slots[position].clear();
+                    slotNumbers[position] = slotNumber;
+                }
+            }
+            if (expired) {
+                refreshCandidates(current);
+            }
+        }
+
+        private long estimate(String tag, long current) {
+            long total = 0;
+            for (int i = 0; i < slots.length; i++) {
+                if (slotNumbers[i] > current - slots.length) {
+                    total += slots[i].estimate(tag);
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Keeps the tag if its estimate beats the weakest candidate once the set is full.
+         */
+        private void offer(String tag, long estimate) {
+            if (candidates.containsKey(tag) || candidates.size() < capacity) {
+                candidates.put(tag, estimate);
+                return;
+            }
+            Map.Entry<String, Long> weakest = candidates.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElseThrow();
+            if (estimate > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(tag, estimate);
+            }
+        }
+
+        private void refreshCandidates(long current) {
+            candidates.replaceAll((tag, previous) -> estimate(tag, current));
+            candidates.values().removeIf(estimate -> estimate == 0);
+        }
+
+        synchronized void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(width);
+            out.writeInt(depth);
+            out.writeInt(slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                out.writeLong(slotNumbers[i]);
+                if (slotNumbers[i] >= 0) {
+                    slots[i].writeTo(out);
+                }
+            }
+            List<String> tags = new ArrayList<>(candidates.keySet());
+            tags.sort(Comparator.naturalOrder());
+            out.writeInt(tags.size());
+            for (String tag : tags) {
+                out.writeUTF(tag);
+            }
+            out.flush();
+        }
+
+        /**
+         * Adds a snapshot written by {@link #writeTo} to this window: counts of slots still
+         * in the window are summed and candidate sets are united, keeping the strongest.
+         * Snapshots taken with other sketch dimensions or slot counts are ignored.
+         */
+        synchronized void mergeFrom(DataInputStream in) throws IOException {
+            if (in.readInt() != width || in.readInt() != depth || in.readInt() != slots.length) {
+                return;
+            }
+            long current = System.currentTimeMillis() / spec.slotMillis();
+            advance(current);
+            for (int i = 0; i < slots.length; i++) {
+                long slotNumber = in.readLong();
+                if (slotNumber < 0) {
+                    continue;
+                }
+                int position = (int) (slotNumber % slots.length);
+                if (slotNumbers[position] == slotNumber) {
+                    slots[position].addFrom(in);
+                } else {
+                    slots[position].skip(in);
+                }
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                candidates.putIfAbsent(in.readUTF(), 0L);
+            }
+            refreshCandidates(current);
+            if (candidates.size() > capacity) {
+                List<String> weakestFirst = candidates.entrySet().stream()
+                        .sorted(Map.Entry.comparingByValue())
+                        .map(Map.Entry::getKey)
+                        .toList();
+                weakestFirst.subList(0, candidates.size() - capacity).forEach(candidates::remove);
+            }
+        }
+    }
+}
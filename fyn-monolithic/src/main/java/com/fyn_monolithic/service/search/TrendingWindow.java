@@ -0,0 +1,44 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.exception.BadRequestException;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Sliding windows the trending engine counts over, each split into equal slots that are
+ * recycled as they fall out of the window.
+ */
+public enum TrendingWindow {
+    HOUR("1h", Duration.ofMinutes(5), 12),
+    DAY("24h", Duration.ofHours(1), 24);
+
+    private final String key;
+    private final long slotMillis;
+    private final int slots;
+
+    TrendingWindow(String key, Duration slot, int slots) {
+        this.key = key;
+        this.slotMillis = slot.toMillis();
+        this.slots = slots;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    long slotMillis() {
+        return slotMillis;
+    }
+
+    int slots() {
+        return slots;
+    }
+
+    public static TrendingWindow fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(window -> window.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported trending window: " + key));
+    }
+}
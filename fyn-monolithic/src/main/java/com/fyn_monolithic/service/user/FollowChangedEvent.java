@@ -0,0 +1,10 @@
+package com.fyn_monolithic.service.user;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link FollowerService} when {@code followerId} starts or stops following
+ * {@code followeeId}; listeners that touch other stores should wait for the commit.
+ */
+public record FollowChangedEvent(UUID followerId, UUID followeeId, boolean following) {
+}
@@ -7,8 +7,10 @@ import com.fyn_monolithic.mapper.UserMapper;
 import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.model.user.UserFollower;
 import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import com.fyn_monolithic.repository.user.UserRepository;
 import com.fyn_monolithic.service.notification.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,9 +23,11 @@ import java.util.stream.Collectors;
 public class FollowerService {
 
     private final UserFollowerRepository followerRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
     private final UserMapper userMapper;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void follow(UUID userId) {
@@ -39,6 +43,8 @@ public class FollowerService {
         relation.setUser(target);
         relation.setFollower(currentUser);
         followerRepository.save(relation);
+        userRepository.adjustFollowerCount(target.getId(), 1);
+        eventPublisher.publishEvent(new FollowChangedEvent(currentUser.getId(), target.getId(), true));
 
         // Tạo thông báo cho người bị follow
         notificationService.notifyNewFollower(target, currentUser);
@@ -48,8 +54,11 @@ public class FollowerService {
     public void unfollow(UUID userId) {
         User currentUser = userService.getCurrentUser();
         User target = userService.findEntity(userId);
-        followerRepository.findByUserAndFollower(target, currentUser)
-                .ifPresent(followerRepository::delete);
+        followerRepository.findByUserAndFollower(target, currentUser).ifPresent(relation -> {
+            followerRepository.delete(relation);
+            userRepository.adjustFollowerCount(target.getId(), -1);
+            eventPublisher.publishEvent(new FollowChangedEvent(currentUser.getId(), target.getId(), false));
+        });
     }
 
     @Transactional(readOnly = true)
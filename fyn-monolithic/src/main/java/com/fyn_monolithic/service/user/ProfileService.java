@@ -7,6 +7,7 @@ import com.fyn_monolithic.model.user.User;
 import com.fyn_monolithic.model.user.UserProfile;
 import com.fyn_monolithic.repository.user.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,6 +22,7 @@ public class ProfileService {
     private final UserProfileRepository profileRepository;
     private final UserMapper userMapper;
     private final com.fyn_monolithic.service.storage.MinioService minioService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserResponse updateProfile(UpdateProfileRequest request) {
@@ -37,6 +39,7 @@ public class ProfileService {
         profileRepository.save(profile);
 
         user.setFullName(request.getFullName());
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
         return buildUserResponseWithPresignedUrl(user);
     }
 
@@ -52,6 +55,7 @@ public class ProfileService {
                 });
         profile.setAvatarObjectKey(objectKey);
         profileRepository.save(profile);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
         return buildUserResponseWithPresignedUrl(user);
     }
     
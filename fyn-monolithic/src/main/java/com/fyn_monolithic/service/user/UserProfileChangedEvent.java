@@ -0,0 +1,10 @@
+package com.fyn_monolithic.service.user;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link ProfileService} when anything embedded in the user's public
+ * representation (name, bio, avatar) changes.
+ */
+public record UserProfileChangedEvent(UUID userId) {
+}
@@ -0,0 +1,10 @@
+package com.fyn_monolithic.service.user;
+
+import java.util.UUID;
+
+/**
+ * Published when a new account is created; listeners that touch other stores should
+ * wait for the commit.
+ */
+public record UserRegisteredEvent(UUID userId) {
+}
@@ -0,0 +1,43 @@
+package com.fyn_monolithic.util;
+
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public final class RedisUtils {
+
+    private RedisUtils() {
+    }
+
+    /**
+     * Runs the script once per key group, all in one pipeline, and returns each call's result
+     * in order. Every call only touches its own group's keys, so the groups may live in
+     * different cluster slots; keys within one group must share a slot, e.g. through a
+     * {@code {hash tag}}. The script is sent with EVAL, since a pipeline cannot fall back
+     * from EVALSHA to EVAL on NOSCRIPT.
+     */
+    public static List<Object> evalEach(StringRedisTemplate redisTemplate,
+                                        RedisScript<?> script,
+                                        List<List<String>> keyGroups,
+                                        String... args) {
+        byte[] body = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (List<String> keys : keyGroups) {
+                byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+                for (int i = 0; i < keys.size(); i++) {
+                    keysAndArgs[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+                }
+                for (int i = 0; i < args.length; i++) {
+                    keysAndArgs[keys.size() + i] = args[i].getBytes(StandardCharsets.UTF_8);
+                }
+                connection.scriptingCommands().eval(body, returnType, keys.size(), keysAndArgs);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.fyn_monolithic.util;
+
+import com.fyn_monolithic.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a score-ordered page: its score plus its id as tie-breaker.
+ * The score-ordered counterpart of {@link KeysetCursor}, handed to clients the same way.
+ */
+public record ScoreCursor(double score, UUID id) {
+
+    public String encode() {
+        String raw = Double.toString(score) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor from a request; {@code null} or blank means "first page".
+     */
+    public static ScoreCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new ScoreCursor(Double.parseDouble(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
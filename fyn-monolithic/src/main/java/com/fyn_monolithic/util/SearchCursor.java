@@ -0,0 +1,36 @@
+package com.fyn_monolithic.util;
+
+import com.fyn_monolithic.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a relevance-ordered search page: its match score, its
+ * popularity as first tie-breaker and its id as the last. Handed to clients the same way
+ * as {@link KeysetCursor}. The score is a {@code float} to round-trip a Postgres
+ * {@code real} exactly.
+ */
+public record SearchCursor(float score, long popularity, UUID id) {
+
+    public String encode() {
+        String raw = Float.toString(score) + "|" + popularity + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor from a request; {@code null} or blank means "first page".
+     */
+    public static SearchCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|", 3);
+            return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- The match feature store's delta sync reads profiles and users changed since its
+-- watermark, one index range scan per table
+CREATE INDEX IF NOT EXISTS idx_user_profiles_extended_updated_at ON user_profiles_extended (updated_at);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
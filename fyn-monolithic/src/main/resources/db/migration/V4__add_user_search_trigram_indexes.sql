@@ -0,0 +1,8 @@
+-- Trigram indexes for user search (SearchService.searchUsers).
+-- GiST rather than GIN: besides the similarity operator (%) and LIKE '%q%' it serves
+-- nearest-neighbour ordering (<->), which bounds each search to a fixed number of
+-- candidates however many users match.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING GIST (lower(username) gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING GIST (lower(full_name) gist_trgm_ops);
@@ -0,0 +1,11 @@
+-- Follower counts read by user search, autocomplete and feed fan-out, kept on users
+-- instead of counted per row. FollowerService adjusts it on follow/unfollow.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS follower_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET follower_count = f.follower_count
+FROM (SELECT user_id, COUNT(*) AS follower_count FROM user_followers GROUP BY user_id) f
+WHERE f.user_id = u.id;
+
+-- Ordered walk for short-prefix search (UserRepository.searchPageByPrefix)
+CREATE INDEX IF NOT EXISTS idx_users_follower_count ON users (follower_count DESC, id DESC);
@@ -0,0 +1,12 @@
+-- Reply counts shown on threaded comments (CommentService.getComments), kept on the parent
+-- instead of counted per page. Comments written before the column existed start at zero,
+-- so recount them once; CommentService adjusts it on reply/delete from here on.
+ALTER TABLE post_comments ADD COLUMN IF NOT EXISTS reply_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE post_comments c
+SET reply_count = r.reply_count
+FROM (SELECT parent_comment_id, COUNT(*) AS reply_count
+      FROM post_comments
+      WHERE parent_comment_id IS NOT NULL
+      GROUP BY parent_comment_id) r
+WHERE r.parent_comment_id = c.id;
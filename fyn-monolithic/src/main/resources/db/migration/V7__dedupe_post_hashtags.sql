@@ -0,0 +1,12 @@
+-- Databases created by Hibernate before V1 existed may carry duplicate (post_id, hashtag_id)
+-- links, which would make the unique index below fail and double-count posts on tag pages.
+-- Keep the oldest link of each pair.
+DELETE FROM post_hashtags ph
+USING (SELECT id,
+              row_number() OVER (PARTITION BY post_id, hashtag_id ORDER BY created_at, id) AS rn
+       FROM post_hashtags) d
+WHERE d.id = ph.id
+  AND d.rn > 1;
+
+-- Conflict target of PostHashtagRepository.insertAll (ON CONFLICT (post_id, hashtag_id))
+CREATE UNIQUE INDEX IF NOT EXISTS uq_post_hashtags_post_hashtag ON post_hashtags (post_id, hashtag_id);
@@ -0,0 +1,2 @@
+-- The scoring batch deletes pairs it did not refresh (updated_at before the run started)
+CREATE INDEX IF NOT EXISTS idx_match_scores_updated_at ON match_scores (updated_at);
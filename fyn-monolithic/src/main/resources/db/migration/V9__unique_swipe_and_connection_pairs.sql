@@ -0,0 +1,29 @@
+-- Databases created by Hibernate before these indexes existed may carry duplicate swipes
+-- and duplicate or mirrored connections, which would make the unique indexes below fail.
+
+-- Keep the first swipe of each (actor, target), as ON CONFLICT DO NOTHING would have
+DELETE FROM swipe_actions s
+USING (SELECT id,
+              row_number() OVER (PARTITION BY actor_id, target_id ORDER BY created_at, id) AS rn
+       FROM swipe_actions) d
+WHERE d.id = s.id
+  AND d.rn > 1;
+
+-- Conflict target of SwipeActionRepository.insertIgnoringDuplicates (ON CONFLICT (actor_id, target_id))
+CREATE UNIQUE INDEX IF NOT EXISTS uq_swipe_actions_actor_target ON swipe_actions (actor_id, target_id);
+
+-- One connection per pair whichever side requested it. A block outranks a match, a match
+-- outranks anything else, then the oldest wins.
+DELETE FROM connections c
+USING (SELECT id,
+              row_number() OVER (
+                  PARTITION BY LEAST(requester_id, receiver_id), GREATEST(requester_id, receiver_id)
+                  ORDER BY CASE status WHEN 'BLOCKED' THEN 0 WHEN 'ACCEPTED' THEN 1 ELSE 2 END,
+                           created_at, id) AS rn
+       FROM connections) d
+WHERE d.id = c.id
+  AND d.rn > 1;
+
+-- At most one connection per unordered pair; match creation relies on it under concurrency
+CREATE UNIQUE INDEX IF NOT EXISTS uq_connections_pair
+    ON connections (LEAST(requester_id, receiver_id), GREATEST(requester_id, receiver_id));
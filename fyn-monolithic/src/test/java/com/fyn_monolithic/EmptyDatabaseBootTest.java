@@ -0,0 +1,77 @@
+package com.fyn_monolithic;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application against a brand-new PostgreSQL and Redis. The schema must come
+ * from the entities, Flyway must baseline it at V3 instead of running V1-V3, and every
+ * later migration must apply on top. Needs Docker; skipped without it.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class EmptyDatabaseBootTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.5-alpine").asCompatibleSubstituteFor("postgres"));
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void emptyDatabaseIsBaselinedAndMigratedOnTopOfTheEntitySchema() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied[0].getType()).isEqualTo(MigrationType.BASELINE);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("3");
+        assertThat(Arrays.stream(applied).skip(1))
+                .allSatisfy(migration -> assertThat(migration.getState().isFailed()).isFalse());
+        assertThat(flyway.info().pending()).isEmpty();
+
+        assertThat(columns("swipe_actions")).contains("actor_id", "target_id", "action_type");
+        assertThat(columns("match_scores")).contains("user_id_1", "user_id_2", "total_score");
+        assertThat(columns("users")).contains("follower_count");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT data_type FROM information_schema.columns
+                WHERE table_name = 'connections' AND column_name = 'status'
+                """, String.class)).isEqualTo("character varying");
+        assertThat(indexes("users")).contains("idx_users_username_trgm", "idx_users_follower_count", "idx_users_updated_at");
+        assertThat(indexes("post_hashtags")).contains("uq_post_hashtags_post_hashtag");
+    }
+
+    private List<String> columns(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns WHERE table_name = ?", String.class, table);
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = ?", String.class, table);
+    }
+}
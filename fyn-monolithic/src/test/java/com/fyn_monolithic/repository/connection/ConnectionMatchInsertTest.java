@@ -0,0 +1,76 @@
+package com.fyn_monolithic.repository.connection;
+
+import com.fyn_monolithic.model.connection.Connection;
+import com.fyn_monolithic.model.connection.ConnectionStatus;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.model.user.UserProfile;
+import com.fyn_monolithic.model.user.UserSettings;
+import com.fyn_monolithic.model.user.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ConnectionRepository#insertMatchIfAbsent} creates one connection per unordered
+ * pair however often, and from whichever side, it is called. Relies on the
+ * uq_connections_pair index from V9; needs the PostgreSQL database the application is
+ * configured for.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ConnectionMatchInsertTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Test
+    void onlyTheFirstInsertOfAPairCreatesAMatch() {
+        UUID alice = user("alice").getId();
+        UUID bob = user("bob").getId();
+
+        assertThat(connectionRepository.insertMatchIfAbsent(alice, bob)).isTrue();
+        assertThat(connectionRepository.insertMatchIfAbsent(bob, alice)).isFalse();
+        assertThat(connectionRepository.insertMatchIfAbsent(alice, bob)).isFalse();
+
+        List<Connection> connections = connectionRepository
+                .findByRequesterIdOrReceiverId(alice, alice, Pageable.unpaged())
+                .getContent();
+        assertThat(connections).singleElement()
+                .satisfies(connection -> {
+                    assertThat(connection.getStatus()).isEqualTo(ConnectionStatus.ACCEPTED);
+                    assertThat(connection.getMatchSource()).isEqualTo("SWIPE");
+                });
+    }
+
+    private User user(String name) {
+        String handle = name + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setEmail(handle + "@example.com");
+        user.setUsername(handle);
+        user.setPasswordHash("x");
+        user.setFullName(name);
+        user.setStatus(UserStatus.ACTIVE);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        user.setProfile(profile);
+
+        UserSettings settings = new UserSettings();
+        settings.setUser(user);
+        user.setSettings(settings);
+        User saved = entityManager.persist(user);
+        entityManager.flush();
+        return saved;
+    }
+}
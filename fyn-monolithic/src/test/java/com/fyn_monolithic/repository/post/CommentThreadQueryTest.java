@@ -0,0 +1,147 @@
+package com.fyn_monolithic.repository.post;
+
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.model.post.PostComment;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.model.user.UserProfile;
+import com.fyn_monolithic.model.user.UserSettings;
+import com.fyn_monolithic.model.user.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comment thread queries: top-level and reply pages follow the (created_at, id) keyset
+ * without skipping or repeating, the prefetch takes the oldest replies of each parent,
+ * and reply counts never go negative. Needs the PostgreSQL database the application is
+ * configured for.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CommentThreadQueryTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCommentRepository commentRepository;
+
+    private User author;
+    private Post post;
+
+    @BeforeEach
+    void seed() {
+        author = user();
+        post = new Post();
+        post.setAuthor(author);
+        post.setContent("thread");
+        entityManager.persist(post);
+    }
+
+    @Test
+    void topLevelPagesFollowTheKeysetWithoutGapsOrRepeats() {
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Two comments per second, so pages split inside a shared timestamp
+            expected.add(comment(null, BASE.plusSeconds(i / 2)).getId());
+        }
+        entityManager.clear();
+
+        List<UUID> seen = new ArrayList<>();
+        Instant cursorAt = null;
+        UUID cursorId = null;
+        List<PostComment> page;
+        do {
+            page = commentRepository.findTopLevelPage(post.getId(), cursorAt, cursorId, Limit.of(2));
+            page.forEach(comment -> seen.add(comment.getId()));
+            if (!page.isEmpty()) {
+                cursorAt = page.get(page.size() - 1).getCreatedAt();
+                cursorId = page.get(page.size() - 1).getId();
+            }
+        } while (!page.isEmpty());
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(expected).doesNotHaveDuplicates();
+        assertThat(commentRepository.findWithAuthorByIdIn(seen)).extracting(PostComment::getId).containsExactlyElementsOf(seen);
+    }
+
+    @Test
+    void prefetchTakesTheOldestRepliesOfEachParent() {
+        PostComment first = comment(null, BASE);
+        PostComment second = comment(null, BASE.plusSeconds(1));
+        List<UUID> firstReplies = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            firstReplies.add(comment(first, BASE.plusSeconds(10 - i)).getId());
+        }
+        UUID onlyReply = comment(second, BASE.plusSeconds(20)).getId();
+        entityManager.clear();
+
+        List<UUID> prefetched = commentRepository.findFirstReplyIds(List.of(first.getId(), second.getId()), 2);
+
+        // Replies were created newest first, so the two oldest are the last two
+        assertThat(prefetched).containsExactlyInAnyOrder(firstReplies.get(3), firstReplies.get(2), onlyReply);
+        assertThat(commentRepository.findRepliesPage(post.getId(), first.getId(), null, null, Limit.of(10)))
+                .extracting(PostComment::getId)
+                .containsExactly(firstReplies.get(3), firstReplies.get(2), firstReplies.get(1), firstReplies.get(0));
+    }
+
+    @Test
+    void replyCountNeverGoesBelowZero() {
+        PostComment parent = comment(null, BASE);
+
+        commentRepository.adjustReplyCount(parent.getId(), 2);
+        commentRepository.adjustReplyCount(parent.getId(), -5);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT reply_count FROM post_comments WHERE id = ?",
+                Long.class, parent.getId())).isZero();
+    }
+
+    private PostComment comment(PostComment parent, Instant createdAt) {
+        PostComment comment = new PostComment();
+        comment.setPost(post);
+        comment.setAuthor(author);
+        comment.setParentComment(parent);
+        comment.setContent("comment");
+        entityManager.persist(comment);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE post_comments SET created_at = ? WHERE id = ?",
+                Timestamp.from(createdAt), comment.getId());
+        return comment;
+    }
+
+    private User user() {
+        String handle = "thread_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setEmail(handle + "@example.com");
+        user.setUsername(handle);
+        user.setPasswordHash("x");
+        user.setFullName("Thread Author");
+        user.setStatus(UserStatus.ACTIVE);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        user.setProfile(profile);
+
+        UserSettings settings = new UserSettings();
+        settings.setUser(user);
+        user.setSettings(settings);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,125 @@
+package com.fyn_monolithic.repository.post;
+
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.mapper.PostMapper;
+import com.fyn_monolithic.mapper.PostMapperImpl;
+import com.fyn_monolithic.mapper.UserMapperImpl;
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.model.post.PostMedia;
+import com.fyn_monolithic.model.storage.MediaType;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.model.user.UserProfile;
+import com.fyn_monolithic.model.user.UserSettings;
+import com.fyn_monolithic.model.user.UserStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading and mapping a feed page through {@link PostRepository#findWithFeedGraphByIdIn}
+ * must cost the same number of SQL statements whatever the page size, with every post
+ * by a different author and carrying media. Counts come from Hibernate statistics.
+ * Needs the PostgreSQL database the application is configured for.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostMapperImpl.class, UserMapperImpl.class})
+class PostFeedGraphQueryCountTest {
+
+    private static final int MEDIA_PER_POST = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    private List<UUID> postIds;
+
+    @BeforeEach
+    void seed() {
+        postIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            postIds.add(post(author(i)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void feedPageCostsTheSameStatementsForAnyPageSize() {
+        long small = statementsToHydrate(postIds.subList(0, 5));
+        long large = statementsToHydrate(postIds.subList(5, 20));
+
+        assertThat(large).isEqualTo(small);
+        assertThat(small).isLessThanOrEqualTo(2);
+    }
+
+    private long statementsToHydrate(List<UUID> ids) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<PostResponse> responses = postRepository.findWithFeedGraphByIdIn(ids).stream()
+                .map(postMapper::toPostResponse)
+                .toList();
+
+        assertThat(responses).hasSize(ids.size());
+        assertThat(responses).allSatisfy(response -> assertThat(response.getMedia()).hasSize(MEDIA_PER_POST));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User author(int index) {
+        String handle = "feedcount" + index + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setEmail(handle + "@example.com");
+        user.setUsername(handle);
+        user.setPasswordHash("x");
+        user.setFullName("Feed Count " + index);
+        user.setStatus(UserStatus.ACTIVE);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setBio("bio " + index);
+        user.setProfile(profile);
+
+        UserSettings settings = new UserSettings();
+        settings.setUser(user);
+        user.setSettings(settings);
+        return entityManager.persist(user);
+    }
+
+    private Post post(User author) {
+        Post post = new Post();
+        post.setAuthor(author);
+        post.setContent("post by " + author.getUsername());
+        entityManager.persist(post);
+        for (int i = 0; i < MEDIA_PER_POST; i++) {
+            PostMedia media = new PostMedia();
+            media.setPost(post);
+            media.setObjectKey("posts/" + post.getId() + "/" + i + ".jpg");
+            media.setMediaType(MediaType.IMAGE);
+            entityManager.persist(media);
+        }
+        return post;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fyn_monolithic.repository.user;
+
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.model.user.UserProfile;
+import com.fyn_monolithic.model.user.UserProfileExtended;
+import com.fyn_monolithic.model.user.UserSettings;
+import com.fyn_monolithic.model.user.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link UserProfileExtendedRepository#findUserIdsChangedSince} finds a user through
+ * either table's updated_at, once, and leaves out users changed before the watermark.
+ * Needs the PostgreSQL database the application is configured for.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserProfileChangedSinceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserProfileExtendedRepository profileRepository;
+
+    @Test
+    void findsUsersChangedThroughEitherTable() {
+        Instant watermark = Instant.now().plus(1, ChronoUnit.DAYS);
+        UUID profileChanged = user("profile");
+        UUID userChanged = user("account");
+        UUID bothChanged = user("both");
+        UUID unchanged = user("unchanged");
+        List.of(profileChanged, userChanged, bothChanged, unchanged)
+                .forEach(userId -> stamp(userId, watermark.minusSeconds(60), watermark.minusSeconds(60)));
+        stamp(profileChanged, watermark.minusSeconds(60), watermark.plusSeconds(1));
+        stamp(userChanged, watermark.plusSeconds(1), watermark.minusSeconds(60));
+        stamp(bothChanged, watermark, watermark.plusSeconds(1));
+
+        List<UUID> changed = profileRepository.findUserIdsChangedSince(watermark);
+
+        assertThat(changed).containsOnlyOnce(profileChanged, userChanged, bothChanged);
+        assertThat(changed).doesNotContain(unchanged);
+    }
+
+    private void stamp(UUID userId, Instant userUpdatedAt, Instant profileUpdatedAt) {
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", Timestamp.from(userUpdatedAt), userId);
+        jdbcTemplate.update("UPDATE user_profiles_extended SET updated_at = ? WHERE user_id = ?",
+                Timestamp.from(profileUpdatedAt), userId);
+    }
+
+    private UUID user(String name) {
+        String handle = name + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setEmail(handle + "@example.com");
+        user.setUsername(handle);
+        user.setPasswordHash("x");
+        user.setFullName(name);
+        user.setStatus(UserStatus.ACTIVE);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        user.setProfile(profile);
+
+        UserSettings settings = new UserSettings();
+        settings.setUser(user);
+        user.setSettings(settings);
+        entityManager.persist(user);
+
+        UserProfileExtended extended = new UserProfileExtended();
+        extended.setUser(user);
+        entityManager.persist(extended);
+        entityManager.flush();
+        return user.getId();
+    }
+}
@@ -0,0 +1,104 @@
+package com.fyn_monolithic.repository.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * User search against a million users, inside a transaction that is rolled back.
+ * Checks that neither search path scans {@code users} sequentially and prints the
+ * per-query latency. Needs the PostgreSQL database the application is configured for;
+ * run with {@code mvn test -Dbenchmarks=true -Dtest=UserSearchBenchmarkTest}.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UserSearchBenchmarkTest {
+
+    private static final int USERS = 1_000_000;
+    private static final int ITERATIONS = 50;
+    private static final int CANDIDATES = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, username, password_hash, full_name, status,
+                                   follower_count, created_at, version)
+                SELECT gen_random_uuid(),
+                       'bench' || i || '@example.com',
+                       'bench_' || substr(md5(i::text), 1, 10),
+                       'x',
+                       (ARRAY['Anna', 'Minh', 'Linh', 'John', 'Maria', 'Quang'])[1 + i % 6]
+                           || ' ' || substr(md5((i * 7)::text), 1, 8),
+                       'ACTIVE',
+                       (random() * 10000)::bigint,
+                       now(),
+                       0
+                FROM generate_series(1, ?) AS i
+                """, USERS);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @Test
+    void trigramSearchStaysOnTheIndex() {
+        String query = "maria 3f";
+        assertNoSequentialScan("""
+                EXPLAIN WITH candidates AS (
+                    (SELECT u.id FROM users u ORDER BY lower(u.username) <-> 'maria 3f' LIMIT 200)
+                    UNION
+                    (SELECT u.id FROM users u WHERE u.full_name IS NOT NULL
+                     ORDER BY lower(u.full_name) <-> 'maria 3f' LIMIT 200)
+                )
+                SELECT u.id FROM candidates c JOIN users u ON u.id = c.id
+                """);
+        report("trigram '" + query + "'", () -> userRepository.searchPage(
+                query, "%" + query + "%", CANDIDATES, null, null, null, 21));
+    }
+
+    @Test
+    void shortPrefixSearchStaysOnTheIndex() {
+        assertNoSequentialScan("""
+                EXPLAIN SELECT u.id FROM users u
+                WHERE u.deleted_at IS NULL
+                  AND (lower(u.username) LIKE 'b%' OR lower(u.full_name) LIKE 'b%')
+                ORDER BY u.follower_count DESC, u.id DESC
+                LIMIT 21
+                """);
+        report("prefix 'b'", () -> userRepository.searchPageByPrefix("b%", null, null, 21));
+        report("prefix 'an'", () -> userRepository.searchPageByPrefix("an%", null, null, 21));
+    }
+
+    private void assertNoSequentialScan(String explain) {
+        List<String> plan = jdbcTemplate.queryForList(explain, String.class);
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan on users"));
+    }
+
+    private void report(String label, Supplier<List<UserRepository.UserSearchHit>> search) {
+        search.get(); // warm up
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s over %,d users: p50 %.1f ms, p95 %.1f ms%n", label, USERS,
+                nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 95 / 100] / 1e6);
+    }
+}
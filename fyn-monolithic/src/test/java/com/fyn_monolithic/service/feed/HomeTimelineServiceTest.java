@@ -0,0 +1,158 @@
+package com.fyn_monolithic.service.feed;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.service.user.FollowChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fan-out, read-time merging of pull-mode authors and follow changes, against a real
+ * Redis so the scripts and range reads run as in production. Needs Docker; skipped
+ * without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HomeTimelineServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserFollowerRepository userFollowerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PullAuthorPosts pullAuthorPosts;
+
+    @Mock
+    private RankedFeedService rankedFeedService;
+
+    private final UUID viewer = UUID.randomUUID();
+    private final UUID author = UUID.randomUUID();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private HomeTimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        when(postRepository.findTimelineEntries(any(), any())).thenReturn(List.of());
+        when(pullAuthorPosts.followedBy(any())).thenReturn(List.of());
+        when(userRepository.findFollowerCountById(any())).thenReturn(Optional.of(1L));
+        timelineService = new HomeTimelineService(redisTemplate, postRepository, userFollowerRepository,
+                userRepository, pullAuthorPosts, rankedFeedService, new FeedConfig(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void fanOutOnlyReachesTimelinesThatAreBuilt() {
+        UUID unbuilt = UUID.randomUUID();
+        timelineService.page(viewer, null, 10);
+        when(userFollowerRepository.findUnmutedFollowerIds(author)).thenReturn(List.of(viewer, unbuilt));
+        UUID postId = UUID.randomUUID();
+
+        timelineService.onPostCreated(new PostCreatedEvent(postId, author, PostVisibility.PUBLIC, Instant.now(), Set.of()));
+
+        assertThat(timelineService.page(viewer, null, 10).postIds()).containsExactly(postId);
+        assertThat(redisTemplate.hasKey("timeline:" + unbuilt)).isFalse();
+    }
+
+    @Test
+    void pullAuthorPostsAreMergedNewestFirstAcrossPages() {
+        UUID oldest = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID newest = UUID.randomUUID();
+        when(postRepository.findTimelineEntries(eq(viewer), any()))
+                .thenReturn(List.of(entry(newest, 3000), entry(oldest, 1000)));
+        // The newest post reached the timeline before its author switched to pull mode
+        redisTemplate.opsForZSet().add(PullAuthorPosts.recentKey(author), newest.toString(), 3000);
+        redisTemplate.opsForZSet().add(PullAuthorPosts.recentKey(author), middle.toString(), 2000);
+        when(pullAuthorPosts.followedBy(viewer)).thenReturn(List.of(author));
+
+        HomeTimelineService.TimelinePage first = timelineService.page(viewer, null, 2);
+        HomeTimelineService.TimelinePage second = timelineService.page(viewer, first.nextCursor(), 2);
+
+        assertThat(first.postIds()).containsExactly(newest, middle);
+        assertThat(second.postIds()).containsExactly(oldest);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void followBackfillsAndUnfollowRemovesTheAuthorsPosts() {
+        UUID own = UUID.randomUUID();
+        UUID followed1 = UUID.randomUUID();
+        UUID followed2 = UUID.randomUUID();
+        when(postRepository.findTimelineEntries(eq(viewer), any())).thenReturn(List.of(entry(own, 1500)));
+        timelineService.page(viewer, null, 10);
+        when(postRepository.findRecentVisibleEntries(eq(author), any()))
+                .thenReturn(List.of(entry(followed2, 2000), entry(followed1, 1000)));
+
+        timelineService.onFollowChanged(new FollowChangedEvent(viewer, author, true));
+        assertThat(timelineService.page(viewer, null, 10).postIds()).containsExactly(followed2, own, followed1);
+
+        timelineService.onFollowChanged(new FollowChangedEvent(viewer, author, false));
+        assertThat(timelineService.page(viewer, null, 10).postIds()).containsExactly(own);
+    }
+
+    private static PostRepository.TimelineEntry entry(UUID postId, long createdAtMillis) {
+        return new PostRepository.TimelineEntry() {
+            @Override
+            public UUID getId() {
+                return postId;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return Instant.ofEpochMilli(createdAtMillis);
+            }
+        };
+    }
+}
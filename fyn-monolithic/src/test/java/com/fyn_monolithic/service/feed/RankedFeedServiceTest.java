@@ -0,0 +1,182 @@
+package com.fyn_monolithic.service.feed;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+import com.fyn_monolithic.repository.user.UserFollowerRepository;
+import com.fyn_monolithic.service.post.PostEngagementFlushedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranked feed scoring against a real Redis: a flushed count that crosses an engagement
+ * step moves the post in the feeds that hold it and nowhere else, and pushes add the
+ * viewer's affinity for the author. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RankedFeedServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserFollowerRepository userFollowerRepository;
+
+    @Mock
+    private PullAuthorPosts pullAuthorPosts;
+
+    private final UUID viewer = UUID.randomUUID();
+    private final UUID author = UUID.randomUUID();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RankedFeedService rankedFeedService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        when(postRepository.findRankingCandidates(any(), any())).thenReturn(List.of());
+        rankedFeedService = new RankedFeedService(redisTemplate, postRepository, userFollowerRepository,
+                pullAuthorPosts, new FeedConfig(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void engagementCrossingAStepMovesThePostInFeedsThatHoldIt() {
+        Instant now = Instant.now();
+        UUID newer = UUID.randomUUID();
+        UUID older = UUID.randomUUID();
+        when(postRepository.findRankingCandidates(eq(viewer), any()))
+                .thenReturn(List.of(candidate(newer, now, 0), candidate(older, now.minus(Duration.ofHours(1)), 0)));
+        when(userFollowerRepository.findUnmutedFollowerLinks(anyCollection()))
+                .thenReturn(List.of(link(author, viewer)));
+        assertThat(rankedFeedService.page(viewer, null, 10).postIds()).containsExactly(newer, older);
+
+        // 0 -> 15 likes is four doublings, far more than the hour between the posts
+        rankedFeedService.onEngagementFlushed(new PostEngagementFlushedEvent(List.of(
+                new EngagementChange(older, author, PostVisibility.PUBLIC, 0, 0, 15, 0))));
+
+        assertThat(rankedFeedService.page(viewer, null, 10).postIds()).containsExactly(older, newer);
+        // The author's feed was never built and must not be created by the rescore
+        assertThat(redisTemplate.keys("ranked:{" + author + "}")).isEmpty();
+    }
+
+    @Test
+    void countChangeWithinAStepRescoresNothing() {
+        rankedFeedService.onEngagementFlushed(new PostEngagementFlushedEvent(List.of(
+                new EngagementChange(UUID.randomUUID(), author, PostVisibility.PUBLIC, 16, 0, 17, 0))));
+
+        verify(userFollowerRepository, never()).findUnmutedFollowerLinks(anyCollection());
+    }
+
+    @Test
+    void pushAddsTheViewersAffinityForTheAuthor() {
+        UUID stranger = UUID.randomUUID();
+        rankedFeedService.page(viewer, null, 10);
+        rankedFeedService.page(stranger, null, 10);
+        for (int i = 0; i < 3; i++) {
+            rankedFeedService.recordInteraction(viewer, author);
+        }
+        UUID postId = UUID.randomUUID();
+
+        rankedFeedService.push(List.of(viewer, stranger), author, postId, Instant.now());
+
+        Double viewerScore = redisTemplate.opsForZSet().score("ranked:{" + viewer + "}", postId.toString());
+        Double strangerScore = redisTemplate.opsForZSet().score("ranked:{" + stranger + "}", postId.toString());
+        // log2(1 + 3 interactions) with the default weight of 1
+        assertThat(viewerScore - strangerScore).isCloseTo(2.0, within(1e-9));
+    }
+
+    private static PostRepository.RankingEntry candidate(UUID postId, Instant createdAt, long likes) {
+        return new PostRepository.RankingEntry() {
+            @Override
+            public UUID getId() {
+                return postId;
+            }
+
+            @Override
+            public UUID getAuthorId() {
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public PostVisibility getVisibility() {
+                return PostVisibility.PUBLIC;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+
+            @Override
+            public long getLikeCount() {
+                return likes;
+            }
+
+            @Override
+            public long getCommentCount() {
+                return 0;
+            }
+        };
+    }
+
+    private static UserFollowerRepository.FollowerLink link(UUID userId, UUID followerId) {
+        return new UserFollowerRepository.FollowerLink() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UUID getFollowerId() {
+                return followerId;
+            }
+        };
+    }
+}
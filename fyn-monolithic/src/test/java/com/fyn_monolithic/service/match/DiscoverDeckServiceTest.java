@@ -0,0 +1,144 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.repository.connection.ConnectionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deck refills: swiped and already queued users are filtered inside the geo walk, and a
+ * request that finds the deck empty waits for a refill running elsewhere instead of
+ * returning nothing.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DiscoverDeckServiceTest {
+
+    @Mock
+    private DiscoverPipeline discoverPipeline;
+
+    @Mock
+    private GeoCandidateIndex geoCandidateIndex;
+
+    @Mock
+    private MatchScoringEngine matchScoringEngine;
+
+    @Mock
+    private ProfileFeatureStore profileFeatureStore;
+
+    @Mock
+    private SwipedSetCache swipedSetCache;
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    private final ProfileFeatures viewer = features(0);
+    private final List<ProfileFeatures> nearby = new ArrayList<>();
+    private DiscoverDeckService deckService;
+
+    @BeforeEach
+    void setUp() {
+        for (int ordinal = 1; ordinal <= 5; ordinal++) {
+            ProfileFeatures candidate = features(ordinal);
+            nearby.add(candidate);
+            when(profileFeatureStore.get(candidate.userId())).thenReturn(candidate);
+        }
+        when(swipedSetCache.snapshot(viewer.userId())).thenReturn(new RoaringBitmap());
+        when(geoCandidateIndex.nearest(eq(viewer), anyDouble(), anyInt(), any())).thenAnswer(invocation -> {
+            Predicate<ProfileFeatures> accept = invocation.getArgument(3);
+            return nearby.stream().filter(accept);
+        });
+        when(discoverPipeline.rank(eq(viewer), any(), anyInt())).thenAnswer(invocation -> rank(invocation.getArgument(1),
+                invocation.getArgument(2)));
+
+        deckService = new DiscoverDeckService(discoverPipeline, geoCandidateIndex, matchScoringEngine,
+                profileFeatureStore, swipedSetCache, connectionRepository, new MatchingConfig(),
+                Runnable::run, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void geoWalkSkipsSwipedUsersAndUsersAlreadyQueued() {
+        ProfileFeatures swiped = nearby.get(1);
+        when(swipedSetCache.snapshot(viewer.userId())).thenReturn(RoaringBitmap.bitmapOf(swiped.ordinal()));
+
+        List<UUID> taken = deckService.take(viewer, 1);
+
+        assertThat(taken).containsExactly(nearby.get(0).userId());
+        ArgumentCaptor<Predicate<ProfileFeatures>> accepts = ArgumentCaptor.forClass(Predicate.class);
+        verify(geoCandidateIndex, atLeastOnce()).nearest(eq(viewer), anyDouble(), anyInt(), accepts.capture());
+        Predicate<ProfileFeatures> first = accepts.getAllValues().get(0);
+        assertThat(first.test(swiped)).isFalse();
+        assertThat(first.test(nearby.get(0))).isTrue();
+        // The low-water refill after the pop must not offer what the deck already queued
+        Predicate<ProfileFeatures> second = accepts.getAllValues().get(1);
+        assertThat(nearby).noneMatch(second);
+    }
+
+    @Test
+    void emptyDeckWaitsForARefillAlreadyRunning() throws Exception {
+        CountDownLatch refillStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefill = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(discoverPipeline.rank(eq(viewer), any(), anyInt())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                refillStarted.countDown();
+                releaseRefill.await(5, TimeUnit.SECONDS);
+            }
+            return rank(invocation.getArgument(1), invocation.getArgument(2));
+        });
+
+        CompletableFuture<List<UUID>> building = CompletableFuture.supplyAsync(() -> deckService.take(viewer, 1));
+        assertThat(refillStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<UUID>> waiting = CompletableFuture.supplyAsync(() -> deckService.take(viewer, 1));
+
+        Thread.sleep(200);
+        assertThat(waiting).isNotDone();
+        releaseRefill.countDown();
+
+        List<UUID> builderPage = building.get(5, TimeUnit.SECONDS);
+        List<UUID> waiterPage = waiting.get(5, TimeUnit.SECONDS);
+        assertThat(builderPage).hasSize(1);
+        assertThat(waiterPage).hasSize(1).doesNotContainAnyElementsOf(builderPage);
+    }
+
+    private static List<TopKRanker.RankedCandidate> rank(Stream<ProfileFeatures> candidates, int k) {
+        return candidates.limit(k)
+                .map(candidate -> new TopKRanker.RankedCandidate(candidate.userId(), 1.0))
+                .toList();
+    }
+
+    private static ProfileFeatures features(int ordinal) {
+        return new ProfileFeatures(UUID.randomUUID(), ordinal, InterestBits.EMPTY, 0, 21.03, 105.85,
+                Instant.now(), 25, "female", 18, 40, Set.of("male"), 50, true);
+    }
+}
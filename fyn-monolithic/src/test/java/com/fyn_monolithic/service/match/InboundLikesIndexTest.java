@@ -0,0 +1,155 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.model.match.SwipeType;
+import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Match detection and seeding of the inbound-likes index against a real Redis, so the
+ * scripts run as in production. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InboundLikesIndexTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Mock
+    private SwipeActionRepository swipeActionRepository;
+
+    @Mock
+    private SwipeWriteBehindQueue swipeWriteBehindQueue;
+
+    private LettuceConnectionFactory connectionFactory;
+    private InboundLikesIndex index;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        when(swipeActionRepository.findUnansweredLikes(any(), anyCollection())).thenReturn(List.of());
+        when(swipeWriteBehindQueue.pendingSwipes(any())).thenReturn(List.of());
+        index = new InboundLikesIndex(swipeActionRepository, swipeWriteBehindQueue, redisTemplate, new MatchingConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void crossingLikesOnDifferentThreadsMatchExactlyOnce() throws Exception {
+        for (int pair = 0; pair < 50; pair++) {
+            UUID alice = UUID.randomUUID();
+            UUID bob = UUID.randomUUID();
+            CountDownLatch start = new CountDownLatch(1);
+            CompletableFuture<Boolean> aliceLikes = CompletableFuture.supplyAsync(() -> likeAfter(start, alice, bob));
+            CompletableFuture<Boolean> bobLikes = CompletableFuture.supplyAsync(() -> likeAfter(start, bob, alice));
+            start.countDown();
+
+            assertThat(List.of(aliceLikes.get(), bobLikes.get())).containsExactlyInAnyOrder(true, false);
+        }
+    }
+
+    @Test
+    void seedLeavesOutLikesAnsweredInTheStream() {
+        UUID liked = UUID.randomUUID();
+        UUID answered = UUID.randomUUID();
+        UUID waiting = UUID.randomUUID();
+        Instant now = Instant.now();
+        when(swipeActionRepository.findUnansweredLikes(eq(liked), anyCollection()))
+                .thenReturn(List.of(like(answered, now.minusSeconds(60)), like(waiting, now.minusSeconds(30))));
+        // The liked user passed on one liker; the swipe is not written yet
+        when(swipeWriteBehindQueue.pendingSwipes(any()))
+                .thenReturn(List.of(new PendingSwipe(liked, answered, SwipeType.DISLIKE, now)));
+
+        InboundLikesIndex.InboundLikePage page = index.page(liked, null, 10);
+
+        assertThat(page.likes()).extracting(InboundLikesIndex.InboundLike::likerId).containsExactly(waiting);
+    }
+
+    @Test
+    void seedStartsOverWhenALikeIsAnsweredWhileItReads() {
+        UUID liked = UUID.randomUUID();
+        UUID liker = UUID.randomUUID();
+        Instant now = Instant.now();
+        AtomicInteger reads = new AtomicInteger();
+        PendingSwipe answer = new PendingSwipe(liked, liker, SwipeType.DISLIKE, now);
+        // The answer lands in the stream and drops the like after the first seed read the stream
+        when(swipeWriteBehindQueue.pendingSwipes(any()))
+                .thenAnswer(invocation -> reads.get() == 0 ? List.of() : List.of(answer));
+        when(swipeActionRepository.findUnansweredLikes(eq(liked), anyCollection())).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() == 0) {
+                index.removeLike(liker, liked);
+            }
+            return List.of(like(liker, now.minusSeconds(60)));
+        });
+
+        InboundLikesIndex.InboundLikePage page = index.page(liked, null, 10);
+
+        assertThat(reads.get()).isEqualTo(2);
+        assertThat(page.likes()).isEmpty();
+    }
+
+    private boolean likeAfter(CountDownLatch start, UUID actor, UUID target) {
+        try {
+            start.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        return index.checkAndRecordLike(actor, target);
+    }
+
+    private static SwipeActionRepository.InboundLike like(UUID actorId, Instant createdAt) {
+        return new SwipeActionRepository.InboundLike() {
+            @Override
+            public UUID getActorId() {
+                return actorId;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
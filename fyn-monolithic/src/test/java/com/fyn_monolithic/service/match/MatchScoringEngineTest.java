@@ -0,0 +1,141 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import com.fyn_monolithic.repository.match.MatchScoreRepository;
+import com.fyn_monolithic.repository.match.MatchScoreRepository.StoredPair;
+import com.fyn_monolithic.repository.match.MatchScoreRepositoryCustom.ScoredPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Incremental rescoring: a feature store sync rescores the stored pairs of the users it
+ * changed, once per pair, and leaves the initial load to the batch job.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MatchScoringEngineTest {
+
+    @Mock
+    private ProfileFeatureStore featureStore;
+
+    @Mock
+    private MatchScoreRepository matchScoreRepository;
+
+    private final InterestDictionary interestDictionary = new InterestDictionary();
+    private final List<List<ScoredPair>> upserts = new ArrayList<>();
+    private MatchScoringEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(featureStore.isLoaded()).thenReturn(true);
+        doAnswer(invocation -> {
+            upserts.add(List.copyOf(invocation.<List<ScoredPair>>getArgument(0)));
+            return null;
+        }).when(matchScoreRepository).upsertAll(any());
+        engine = new MatchScoringEngine(featureStore, interestDictionary, matchScoreRepository, new MatchingConfig());
+    }
+
+    @Test
+    void changedProfileRescoresItsStoredPairsWithTheNewFeatures() {
+        ProfileFeatures before = features("hiking");
+        ProfileFeatures other = features("hiking", "chess");
+        ProfileFeatures after = withInterests(before, "hiking", "chess");
+        store(after, other);
+        when(matchScoreRepository.findPairsOf(List.of(after.userId()))).thenReturn(List.of(pair(after, other)));
+
+        engine.onProfilesChanged(new ProfileFeaturesChangedEvent(List.of(after), List.of()));
+
+        assertThat(upserts).flatExtracting(batch -> batch).singleElement().satisfies(pair -> {
+            assertThat(pair.interestScore()).isEqualTo(100.0);
+            assertThat(pair.commonInterests()).containsExactly("chess", "hiking");
+        });
+    }
+
+    @Test
+    void pairOfTwoChangedUsersIsRescoredOnce() {
+        ProfileFeatures a = features("hiking");
+        ProfileFeatures b = features("hiking");
+        store(a, b);
+        when(matchScoreRepository.findPairsOf(anyCollection())).thenReturn(List.of(pair(a, b), pair(a, b)));
+
+        engine.onProfilesChanged(new ProfileFeaturesChangedEvent(List.of(a, b), List.of()));
+
+        assertThat(upserts).flatExtracting(batch -> batch).hasSize(1);
+    }
+
+    @Test
+    void pairWithAnInactiveSideIsLeftForTheBatchJob() {
+        ProfileFeatures a = features("hiking");
+        ProfileFeatures gone = features("hiking");
+        store(a);
+        when(matchScoreRepository.findPairsOf(anyCollection())).thenReturn(List.of(pair(a, gone)));
+
+        engine.onProfilesChanged(new ProfileFeaturesChangedEvent(List.of(a), List.of()));
+
+        assertThat(upserts).flatExtracting(batch -> batch).isEmpty();
+    }
+
+    @Test
+    void initialLoadIsNotRescoredPairByPair() {
+        when(featureStore.isLoaded()).thenReturn(false);
+
+        engine.onProfilesChanged(new ProfileFeaturesChangedEvent(List.of(features("hiking")), List.of()));
+
+        verify(matchScoreRepository, never()).findPairsOf(anyCollection());
+    }
+
+    private void store(ProfileFeatures... profiles) {
+        for (ProfileFeatures profile : profiles) {
+            when(featureStore.get(profile.userId())).thenReturn(profile);
+        }
+    }
+
+    private static StoredPair pair(ProfileFeatures a, ProfileFeatures b) {
+        boolean ordered = a.userId().compareTo(b.userId()) < 0;
+        UUID first = ordered ? a.userId() : b.userId();
+        UUID second = ordered ? b.userId() : a.userId();
+        return new StoredPair() {
+            @Override
+            public UUID getUserId1() {
+                return first;
+            }
+
+            @Override
+            public UUID getUserId2() {
+                return second;
+            }
+        };
+    }
+
+    private ProfileFeatures features(String... interests) {
+        return withInterests(new ProfileFeatures(UUID.randomUUID(), 0, InterestBits.EMPTY, 0, 21.03, 105.85,
+                Instant.now(), 30, "female", 25, 35, Set.of(), 50, true), interests);
+    }
+
+    private ProfileFeatures withInterests(ProfileFeatures profile, String... interests) {
+        long[] bits = interestDictionary.encode(List.of(interests));
+        return new ProfileFeatures(profile.userId(), profile.ordinal(), bits, InterestBits.cardinality(bits),
+                profile.lat(), profile.lng(), profile.lastActiveAt(), profile.age(), profile.gender(),
+                profile.preferredAgeMin(), profile.preferredAgeMax(), profile.preferredGenders(),
+                profile.maxDistanceKm(), profile.active());
+    }
+}
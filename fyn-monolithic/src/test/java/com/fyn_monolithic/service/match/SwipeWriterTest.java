@@ -0,0 +1,101 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.model.match.SwipeType;
+import com.fyn_monolithic.repository.connection.ConnectionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepository;
+import com.fyn_monolithic.repository.match.SwipeActionRepositoryCustom.PendingSwipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Match logic of the swipe write-behind: reverse likes are read only after the batch has
+ * committed, and a match is announced only by the writer whose insert created it.
+ */
+@ExtendWith(MockitoExtension.class)
+class SwipeWriterTest {
+
+    @Mock
+    private SwipeActionRepository swipeActionRepository;
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SwipeWriter swipeWriter;
+
+    @BeforeEach
+    void setUp() {
+        swipeWriter = new SwipeWriter(swipeActionRepository, connectionRepository,
+                new TransactionTemplate(transactionManager), eventPublisher);
+    }
+
+    @Test
+    void looksUpReverseLikesOnlyAfterTheBatchCommits() {
+        List<PendingSwipe> batch = List.of(swipe(UUID.randomUUID(), UUID.randomUUID(), SwipeType.LIKE));
+
+        swipeWriter.write(batch);
+
+        InOrder order = inOrder(transactionManager, swipeActionRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(swipeActionRepository).insertIgnoringDuplicates(batch);
+        order.verify(transactionManager).commit(any());
+        order.verify(swipeActionRepository).findReciprocatedLikes(batch);
+    }
+
+    @Test
+    void publishesAMatchOnlyWhenThisWriterCreatedTheConnection() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        UUID dave = UUID.randomUUID();
+        PendingSwipe aliceLikesBob = swipe(alice, bob, SwipeType.LIKE);
+        PendingSwipe carolLikesDave = swipe(carol, dave, SwipeType.SUPERLIKE);
+        List<PendingSwipe> batch = List.of(aliceLikesBob, carolLikesDave);
+        when(swipeActionRepository.findReciprocatedLikes(batch)).thenReturn(batch);
+        when(connectionRepository.insertMatchIfAbsent(alice, bob)).thenReturn(true);
+        // Dave's batch, on another consumer, found the pair first
+        when(connectionRepository.insertMatchIfAbsent(carol, dave)).thenReturn(false);
+
+        swipeWriter.write(batch);
+
+        verify(eventPublisher).publishEvent(new MatchCreatedEvent(alice, bob));
+        verify(eventPublisher, never()).publishEvent(new MatchCreatedEvent(carol, dave));
+    }
+
+    @Test
+    void createsNoMatchWithoutAReverseLike() {
+        List<PendingSwipe> batch = List.of(swipe(UUID.randomUUID(), UUID.randomUUID(), SwipeType.LIKE));
+        when(swipeActionRepository.findReciprocatedLikes(batch)).thenReturn(List.of());
+
+        swipeWriter.write(batch);
+
+        verify(connectionRepository, never()).insertMatchIfAbsent(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static PendingSwipe swipe(UUID actorId, UUID targetId, SwipeType type) {
+        return new PendingSwipe(actorId, targetId, type, Instant.now());
+    }
+}
@@ -0,0 +1,99 @@
+package com.fyn_monolithic.service.match;
+
+import com.fyn_monolithic.config.MatchingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request latency of {@link TopKRanker} over 10k and 100k synthetic candidates
+ * around the viewer, keeping a deck's worth of the best. Scoring uses the real engine
+ * with default weights; nothing touches Spring, the database or Redis.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fyn_monolithic.service.match.TopKRankerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKRankerBenchmark {
+
+    private static final int K = 100;
+    private static final int INTEREST_TERMS = 200;
+    private static final List<String> GENDERS = List.of("male", "female", "other");
+
+    @Param({"10000", "100000"})
+    private int candidates;
+
+    private TopKRanker ranker;
+    private ProfileFeatures viewer;
+    private List<ProfileFeatures> pool;
+
+    @Setup
+    public void setUp() {
+        MatchScoringEngine engine = new MatchScoringEngine(null, null, null, new MatchingConfig());
+        ranker = new TopKRanker(engine);
+        Random random = new Random(42);
+        viewer = profile(random, 0);
+        pool = new ArrayList<>(candidates);
+        for (int i = 1; i <= candidates; i++) {
+            pool.add(profile(random, i));
+        }
+    }
+
+    @Benchmark
+    public List<TopKRanker.RankedCandidate> rank() {
+        return ranker.topK(viewer, pool.stream(), K);
+    }
+
+    // A user within about 50 km of Hanoi with 5-15 random interests
+    private static ProfileFeatures profile(Random random, int ordinal) {
+        long[] interests = InterestBits.EMPTY;
+        int interestCount = 5 + random.nextInt(11);
+        for (int i = 0; i < interestCount; i++) {
+            interests = InterestBits.set(interests, random.nextInt(INTEREST_TERMS));
+        }
+        int age = 18 + random.nextInt(30);
+        return new ProfileFeatures(
+                UUID.randomUUID(),
+                ordinal,
+                interests,
+                InterestBits.cardinality(interests),
+                21.03 + (random.nextDouble() - 0.5) * 0.9,
+                105.85 + (random.nextDouble() - 0.5) * 0.9,
+                Instant.now().minus(random.nextInt(14 * 24), ChronoUnit.HOURS),
+                age,
+                GENDERS.get(random.nextInt(GENDERS.size())),
+                Math.max(18, age - 5),
+                age + 5,
+                Set.of(GENDERS.get(random.nextInt(GENDERS.size()))),
+                50,
+                true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TopKRankerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
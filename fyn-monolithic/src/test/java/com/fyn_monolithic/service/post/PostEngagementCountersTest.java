@@ -0,0 +1,132 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Engagement counter flush: deltas are counted in reads straight away, written one
+ * flush after they stop receiving increments, and neither lost nor counted twice when a
+ * write fails or the recording transaction rolls back.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostEngagementCountersTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<List<EngagementDelta>> written = new ArrayList<>();
+    private final FeedConfig feedConfig = new FeedConfig();
+    private final UUID postId = UUID.randomUUID();
+    private PostEngagementCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.applyEngagementDeltas(any())).thenAnswer(invocation -> {
+            written.add(List.copyOf(invocation.<List<EngagementDelta>>getArgument(0)));
+            return List.of();
+        });
+        counters = new PostEngagementCounters(postRepository, feedConfig, eventPublisher,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void pendingDeltasCountInReadsUntilTheyAreWritten() {
+        counters.recordLike(postId, 1);
+        counters.recordLike(postId, 1);
+        counters.recordComment(postId, 1);
+
+        assertThat(counters.likeCount(postId, 10)).isEqualTo(12);
+        counters.flush();
+        assertThat(written).isEmpty();
+        assertThat(counters.likeCount(postId, 10)).isEqualTo(12);
+
+        counters.flush();
+        assertThat(written).containsExactly(List.of(new EngagementDelta(postId, 2, 1)));
+        // The row now holds the deltas
+        assertThat(counters.likeCount(postId, 12)).isEqualTo(12);
+        assertThat(counters.commentCount(postId, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsWrittenAgainOnce() {
+        doThrow(new IllegalStateException("database down"))
+                .doAnswer(invocation -> {
+                    written.add(List.copyOf(invocation.<List<EngagementDelta>>getArgument(0)));
+                    return List.of();
+                })
+                .when(postRepository).applyEngagementDeltas(any());
+        counters.recordLike(postId, 3);
+
+        counters.flush();
+        counters.flush();
+        assertThat(written).isEmpty();
+        assertThat(counters.likeCount(postId, 0)).isEqualTo(3);
+
+        counters.flush();
+        counters.flush();
+        counters.flush();
+        assertThat(written).containsExactly(List.of(new EngagementDelta(postId, 3, 0)));
+    }
+
+    @Test
+    void largeGenerationIsWrittenInBatches() {
+        feedConfig.getEngagement().setFlushBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            counters.recordLike(UUID.randomUUID(), 1);
+        }
+
+        counters.flushAll();
+
+        assertThat(written).extracting(List::size).containsExactlyInAnyOrder(2, 2, 1);
+    }
+
+    @Test
+    void likeRecordedInARolledBackTransactionIsNeverWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.recordLike(postId, 1);
+            assertThat(counters.likeCount(postId, 0)).isEqualTo(1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        counters.flushAll();
+
+        assertThat(counters.likeCount(postId, 0)).isZero();
+        verify(postRepository, never()).applyEngagementDeltas(any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.model.storage.MediaType;
+import com.fyn_monolithic.service.storage.MinioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Media upload for createPost: files upload at the same time, results keep the files'
+ * order, and a failed upload removes the objects the other uploads stored.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostMediaUploaderTest {
+
+    @Mock
+    private MinioService minioService;
+
+    private PostMediaUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        when(minioService.detectMediaType(any())).thenReturn(MediaType.IMAGE);
+        uploader = new PostMediaUploader(minioService);
+    }
+
+    @Test
+    void uploadsAllFilesAtTheSameTimeInOrder() {
+        List<MultipartFile> files = List.of(file("a.jpg"), file("b.jpg"), file("c.jpg"));
+        // Every upload waits for the others to start; one at a time this would time out
+        CountDownLatch started = new CountDownLatch(files.size());
+        when(minioService.upload(any(MultipartFile.class))).thenAnswer(invocation -> {
+            started.countDown();
+            if (!started.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("uploads ran one after another");
+            }
+            return "posts/" + invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+        });
+
+        List<PostMediaUploader.UploadedMedia> uploaded = uploader.uploadAll(files);
+
+        assertThat(uploaded).extracting(PostMediaUploader.UploadedMedia::objectKey)
+                .containsExactly("posts/a.jpg", "posts/b.jpg", "posts/c.jpg");
+    }
+
+    @Test
+    void failedUploadDeletesTheOthersAndRethrows() {
+        when(minioService.upload(any(MultipartFile.class))).thenAnswer(invocation -> {
+            String name = invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+            if (name.equals("broken.jpg")) {
+                throw new IllegalStateException("storage unavailable");
+            }
+            return "posts/" + name;
+        });
+
+        assertThatThrownBy(() -> uploader.uploadAll(List.of(file("a.jpg"), file("broken.jpg"), file("c.jpg"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("storage unavailable");
+
+        verify(minioService).delete("posts/a.jpg");
+        verify(minioService).delete("posts/c.jpg");
+    }
+
+    @Test
+    void noFilesUploadsNothing() {
+        assertThat(uploader.uploadAll(null)).isEmpty();
+        assertThat(uploader.uploadAll(List.of())).isEmpty();
+
+        verify(minioService, never()).upload(any(MultipartFile.class));
+    }
+
+    private static MultipartFile file(String name) {
+        return new MockMultipartFile("media", name, "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
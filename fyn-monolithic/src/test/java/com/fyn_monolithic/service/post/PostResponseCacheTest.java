@@ -0,0 +1,153 @@
+package com.fyn_monolithic.service.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.mapper.PostMapper;
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.post.PostRepository;
+import com.fyn_monolithic.repository.post.PostRepositoryCustom.EngagementChange;
+import com.fyn_monolithic.service.user.UserProfileChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Post response cache tiers and eviction against a real Redis: the heap serves repeat
+ * reads, another instance finds the entry in Redis, and flushed counts or a profile
+ * change drop both tiers. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostResponseCacheTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID postId = UUID.randomUUID();
+    private final UUID authorId = UUID.randomUUID();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private PostResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        when(postRepository.findWithFeedGraphByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<UUID>>getArgument(0).stream().map(PostResponseCacheTest::post).toList());
+        when(postMapper.toPostResponse(any(Post.class))).thenAnswer(invocation -> {
+            Post post = invocation.getArgument(0);
+            return PostResponse.builder()
+                    .id(post.getId())
+                    .content(post.getContent())
+                    .visibility(PostVisibility.PUBLIC)
+                    .createdAt(post.getCreatedAt())
+                    .media(List.of())
+                    .build();
+        });
+        when(postRepository.findIdsByAuthorId(authorId)).thenReturn(List.of(postId));
+        cache = newInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void repeatReadsComeFromTheHeapAndOtherInstancesFromRedis() {
+        PostResponse loaded = cache.getAll(List.of(postId)).get(postId);
+        cache.getAll(List.of(postId));
+        Map<UUID, PostResponse> onOtherInstance = newInstance().getAll(List.of(postId));
+
+        assertThat(onOtherInstance).containsEntry(postId, loaded);
+        verify(postRepository, times(1)).findWithFeedGraphByIdIn(anyCollection());
+    }
+
+    @Test
+    void flushedCountsDropBothTiers() {
+        cache.getAll(List.of(postId));
+
+        cache.onEngagementFlushed(new PostEngagementFlushedEvent(List.of(
+                new EngagementChange(postId, authorId, PostVisibility.PUBLIC, 0, 0, 1, 0))));
+
+        assertThat(redisTemplate.hasKey("post:response:v1:" + postId)).isFalse();
+        cache.getAll(List.of(postId));
+        verify(postRepository, times(2)).findWithFeedGraphByIdIn(anyCollection());
+    }
+
+    @Test
+    void profileChangeDropsTheAuthorsPosts() {
+        cache.getAll(List.of(postId));
+
+        cache.onProfileChanged(new UserProfileChangedEvent(authorId));
+
+        cache.getAll(List.of(postId));
+        verify(postRepository, times(2)).findWithFeedGraphByIdIn(anyCollection());
+    }
+
+    @Test
+    void deletedPostsAreLeftOutOfTheResult() {
+        UUID deleted = UUID.randomUUID();
+        when(postRepository.findWithFeedGraphByIdIn(anyCollection())).thenReturn(List.of(post(postId)));
+
+        assertThat(cache.getAll(List.of(postId, deleted))).containsOnlyKeys(postId);
+    }
+
+    private PostResponseCache newInstance() {
+        return new PostResponseCache(postRepository, postMapper, redisTemplate, objectMapper,
+                new FeedConfig(), new SimpleMeterRegistry());
+    }
+
+    private static Post post(UUID id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setContent("post " + id);
+        post.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        return post;
+    }
+}
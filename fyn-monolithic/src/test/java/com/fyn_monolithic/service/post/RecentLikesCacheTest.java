@@ -0,0 +1,133 @@
+package com.fyn_monolithic.service.post;
+
+import com.fyn_monolithic.config.FeedConfig;
+import com.fyn_monolithic.dto.response.post.PostResponse;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.repository.post.PostLikeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Liked-by-viewer lookups against a real Redis: one load per user, writes applied to the
+ * loaded set, older posts asked in the database, and a load that raced a like change
+ * never stored. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RecentLikesCacheTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    private final User viewer = new User();
+    private LettuceConnectionFactory connectionFactory;
+    private RecentLikesCache cache;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        viewer.setId(UUID.randomUUID());
+        when(postLikeRepository.findPostIdsLikedByUserSince(eq(viewer.getId()), any())).thenReturn(List.of());
+        when(postLikeRepository.findPostIdsLikedByUser(eq(viewer), anyCollection())).thenReturn(Set.of());
+        cache = new RecentLikesCache(postLikeRepository, redisTemplate, new FeedConfig(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void loadsOnceAndAppliesLaterLikesAndUnlikes() {
+        PostResponse liked = post(Duration.ofHours(1));
+        PostResponse other = post(Duration.ofHours(2));
+        when(postLikeRepository.findPostIdsLikedByUserSince(eq(viewer.getId()), any())).thenReturn(List.of(liked.getId()));
+
+        assertThat(cache.likedAmong(viewer, List.of(liked, other))).containsExactly(liked.getId());
+        cache.recordLike(viewer.getId(), other.getId());
+        cache.recordUnlike(viewer.getId(), liked.getId());
+
+        assertThat(cache.likedAmong(viewer, List.of(liked, other))).containsExactly(other.getId());
+        verify(postLikeRepository, times(1)).findPostIdsLikedByUserSince(eq(viewer.getId()), any());
+    }
+
+    @Test
+    void postsOlderThanTheWindowAreCheckedInTheDatabase() {
+        PostResponse recent = post(Duration.ofHours(1));
+        PostResponse old = post(Duration.ofDays(60));
+        when(postLikeRepository.findPostIdsLikedByUser(viewer, List.of(old.getId()))).thenReturn(Set.of(old.getId()));
+
+        cache.likedAmong(viewer, List.of(recent));
+        Set<UUID> liked = cache.likedAmong(viewer, List.of(recent, old));
+
+        assertThat(liked).containsExactly(old.getId());
+        verify(postLikeRepository).findPostIdsLikedByUser(viewer, List.of(old.getId()));
+    }
+
+    @Test
+    void loadRacingAnUnlikeIsNotStored() {
+        PostResponse post = post(Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+        // The first load reads the like just before it is undone
+        when(postLikeRepository.findPostIdsLikedByUserSince(eq(viewer.getId()), any())).thenAnswer(invocation -> {
+            if (loads.getAndIncrement() == 0) {
+                cache.recordUnlike(viewer.getId(), post.getId());
+                return List.of(post.getId());
+            }
+            return List.of();
+        });
+
+        cache.likedAmong(viewer, List.of(post));
+
+        assertThat(cache.likedAmong(viewer, List.of(post))).isEmpty();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static PostResponse post(Duration age) {
+        return PostResponse.builder()
+                .id(UUID.randomUUID())
+                .createdAt(Instant.now().minus(age))
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.dto.response.search.SuggestionResponse;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.model.user.User;
+import com.fyn_monolithic.repository.search.HashtagRepository;
+import com.fyn_monolithic.repository.search.HashtagRepositoryCustom.TagUsage;
+import com.fyn_monolithic.repository.user.UserRepository;
+import com.fyn_monolithic.repository.user.UserRepositoryCustom.UserSearchName;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.service.user.UserProfileChangedEvent;
+import com.fyn_monolithic.service.user.UserRegisteredEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Autocomplete prefix index: the heaviest matches of a prefix come first whatever the
+ * number of keys sharing it, every word of a full name is searchable, and registrations,
+ * renames and new hashtags show up before the next rebuild without duplicating entries
+ * once it has run.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AutocompleteIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private HashtagRepository hashtagRepository;
+
+    private final List<UserSearchName> users = new ArrayList<>();
+    private final List<TagUsage> tags = new ArrayList<>();
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            users.forEach(invocation.<Consumer<UserSearchName>>getArgument(0));
+            return null;
+        }).when(userRepository).forEachSearchName(any());
+        doAnswer(invocation -> {
+            tags.forEach(invocation.<Consumer<TagUsage>>getArgument(0));
+            return null;
+        }).when(hashtagRepository).forEachTag(any());
+        index = new AutocompleteIndex(userRepository, hashtagRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void heaviestMatchesComeFirstAmongManySharingThePrefix() {
+        for (int i = 0; i < 500; i++) {
+            users.add(new UserSearchName(UUID.randomUUID(), "anna" + i, null, i % 50));
+        }
+        UUID popular = UUID.randomUUID();
+        UUID runnerUp = UUID.randomUUID();
+        users.add(new UserSearchName(popular, "anna_star", null, 10_000));
+        users.add(new UserSearchName(runnerUp, "annabel", null, 5_000));
+        users.add(new UserSearchName(UUID.randomUUID(), "bob", null, 1_000_000));
+        index.rebuild();
+
+        List<SuggestionResponse> suggestions = index.complete("  ANNA", 3);
+
+        assertThat(suggestions).hasSize(3);
+        assertThat(suggestions).extracting(SuggestionResponse::getId).startsWith(popular, runnerUp);
+        assertThat(suggestions).extracting(SuggestionResponse::getText).allMatch(text -> text.startsWith("anna"));
+        assertThat(index.complete("anna", 100)).hasSize(AutocompleteIndex.MAX_LIMIT);
+        assertThat(index.complete(" ", 5)).isEmpty();
+    }
+
+    @Test
+    void everyWordOfTheFullNameAndBothTagFormsMatch() {
+        UUID id = UUID.randomUUID();
+        users.add(new UserSearchName(id, "aml", "Anna  Maria Lee", 3));
+        tags.add(new TagUsage("travel", 40));
+        index.rebuild();
+
+        assertThat(index.complete("maria", 5)).extracting(SuggestionResponse::getId).containsExactly(id);
+        assertThat(index.complete("lee", 5)).extracting(SuggestionResponse::getId).containsExactly(id);
+        assertThat(index.complete("anna maria", 5)).extracting(SuggestionResponse::getId).containsExactly(id);
+        assertThat(index.complete("#tra", 5)).extracting(SuggestionResponse::getText).containsExactly("travel");
+        assertThat(index.complete("tra", 5)).extracting(SuggestionResponse::getType)
+                .containsExactly(SuggestionResponse.Type.HASHTAG);
+    }
+
+    @Test
+    void renameReplacesTheOldKeysBeforeTheNextRebuild() {
+        UUID id = UUID.randomUUID();
+        users.add(new UserSearchName(id, "oldname", "Old Name", 7));
+        index.rebuild();
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(id, "newname", "New Name", 7)));
+
+        index.onProfileChanged(new UserProfileChangedEvent(id));
+
+        assertThat(index.complete("old", 5)).isEmpty();
+        assertThat(index.complete("new", 5)).extracting(SuggestionResponse::getText).containsExactly("newname");
+
+        // The database now has the rename too; the rebuild absorbs the overlay
+        users.set(0, new UserSearchName(id, "newname", "New Name", 7));
+        index.rebuild();
+
+        assertThat(index.complete("new", 5)).extracting(SuggestionResponse::getId).containsExactly(id);
+        assertThat(index.complete("old", 5)).isEmpty();
+    }
+
+    @Test
+    void registeredUserIsFoundBeforeTheNextRebuild() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(id, "newcomer", null, 0)));
+
+        index.onUserRegistered(new UserRegisteredEvent(id));
+
+        assertThat(index.complete("newc", 5)).extracting(SuggestionResponse::getId).containsExactly(id);
+    }
+
+    @Test
+    void newPublicTagsAreOverlaidAndCountEachUse() {
+        tags.add(new TagUsage("food", 2));
+        index.rebuild();
+
+        index.onPostCreated(post(PostVisibility.PUBLIC, "foodie"));
+        index.onPostCreated(post(PostVisibility.PUBLIC, "foodie"));
+        index.onPostCreated(post(PostVisibility.PUBLIC, "foodie"));
+        index.onPostCreated(post(PostVisibility.FOLLOWERS, "foodprivate"));
+
+        // Three uses outweigh the snapshot's two
+        assertThat(index.complete("#food", 5)).extracting(SuggestionResponse::getText)
+                .containsExactly("foodie", "food");
+    }
+
+    @Test
+    void tagAlreadyInTheSnapshotIsNotOverlaidAgain() {
+        tags.add(new TagUsage("food", 2));
+        index.rebuild();
+
+        index.onPostCreated(post(PostVisibility.PUBLIC, "food"));
+
+        assertThat(index.complete("food", 5)).extracting(SuggestionResponse::getText).containsExactly("food");
+    }
+
+    private static User user(UUID id, String username, String fullName, long followers) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFullName(fullName);
+        user.setFollowerCount(followers);
+        return user;
+    }
+
+    private static PostCreatedEvent post(PostVisibility visibility, String tag) {
+        return new PostCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), visibility, Instant.now(), Set.of(tag));
+    }
+}
@@ -0,0 +1,103 @@
+package com.fyn_monolithic.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The sketch behind trending hashtags: estimates never undercount, stay within the
+ * e/width error bound on a skewed stream, and survive the write/merge round trip that
+ * combines instances' snapshots.
+ */
+class CountMinSketchTest {
+
+    private static final int WIDTH = 2048;
+    private static final int DEPTH = 4;
+
+    @Test
+    void estimatesNeverUndercountAndStayWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        Map<String, Integer> exact = new HashMap<>();
+        Random random = new Random(7);
+        int total = 100_000;
+        for (int i = 0; i < total; i++) {
+            // Zipf-like: a few hot tags and a long tail, like real hashtag traffic
+            String tag = "tag" + (int) Math.floor(Math.pow(5_000, random.nextDouble()));
+            sketch.add(tag);
+            exact.merge(tag, 1, Integer::sum);
+        }
+
+        double bound = Math.E / WIDTH * total;
+        long withinBound = exact.entrySet().stream()
+                .filter(entry -> sketch.estimate(entry.getKey()) - entry.getValue() <= bound)
+                .count();
+        assertThat(exact).allSatisfy((tag, count) -> assertThat(sketch.estimate(tag)).isGreaterThanOrEqualTo(count));
+        assertThat((double) withinBound / exact.size()).isGreaterThanOrEqualTo(1 - Math.exp(-DEPTH));
+    }
+
+    @Test
+    void mergedSnapshotsAddUp() throws IOException {
+        CountMinSketch first = new CountMinSketch(WIDTH, DEPTH);
+        CountMinSketch second = new CountMinSketch(WIDTH, DEPTH);
+        for (int i = 0; i < 30; i++) {
+            first.add("travel");
+        }
+        for (int i = 0; i < 12; i++) {
+            second.add("travel");
+            second.add("food");
+        }
+
+        CountMinSketch merged = new CountMinSketch(WIDTH, DEPTH);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(concat(first, second)));
+        merged.addFrom(in);
+        merged.addFrom(in);
+
+        assertThat(merged.estimate("travel")).isEqualTo(42);
+        assertThat(merged.estimate("food")).isEqualTo(12);
+    }
+
+    @Test
+    void skippedSnapshotIsNotCounted() throws IOException {
+        CountMinSketch stale = new CountMinSketch(WIDTH, DEPTH);
+        CountMinSketch current = new CountMinSketch(WIDTH, DEPTH);
+        stale.add("travel");
+        current.add("food");
+
+        CountMinSketch merged = new CountMinSketch(WIDTH, DEPTH);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(concat(stale, current)));
+        merged.skip(in);
+        merged.addFrom(in);
+
+        assertThat(merged.estimate("travel")).isZero();
+        assertThat(merged.estimate("food")).isEqualTo(1);
+    }
+
+    @Test
+    void clearResetsEveryCounter() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        sketch.add("travel");
+
+        sketch.clear();
+
+        assertThat(sketch.estimate("travel")).isZero();
+    }
+
+    private static byte[] concat(CountMinSketch... sketches) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (CountMinSketch sketch : sketches) {
+            sketch.writeTo(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,124 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.config.SearchConfig;
+import com.fyn_monolithic.model.post.PostVisibility;
+import com.fyn_monolithic.repository.search.PostHashtagRepository;
+import com.fyn_monolithic.repository.search.PostHashtagRepository.TaggedPost;
+import com.fyn_monolithic.service.post.PostCreatedEvent;
+import com.fyn_monolithic.util.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hashtag paging: first pages of a tag are served from the per-instance cache at any
+ * limit up to its size, later pages pass the cursor to the database, and a committed
+ * public post with the tag drops the cached page while other posts leave it alone.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HashtagPostPagesTest {
+
+    private static final int FIRST_PAGE_SIZE = 5;
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private PostHashtagRepository postHashtagRepository;
+
+    private final List<TaggedPost> travel = new ArrayList<>();
+    private HashtagPostPages pages;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 8; i++) {
+            travel.add(tagged(UUID.randomUUID(), BASE.minusSeconds(i)));
+        }
+        when(postHashtagRepository.findPageByTag(eq("travel"), isNull(), isNull(), any(Limit.class)))
+                .thenAnswer(invocation -> travel.subList(0, invocation.<Limit>getArgument(3).max()));
+
+        SearchConfig searchConfig = new SearchConfig();
+        searchConfig.getHashtagPages().setFirstPageSize(FIRST_PAGE_SIZE);
+        pages = new HashtagPostPages(postHashtagRepository, searchConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void firstPagesAtAnyLimitUpToTheCachedSizeShareOneQuery() {
+        assertThat(pages.page("travel", null, 2)).containsExactlyElementsOf(travel.subList(0, 2));
+        assertThat(pages.page("travel", null, FIRST_PAGE_SIZE)).containsExactlyElementsOf(travel.subList(0, 5));
+
+        verify(postHashtagRepository, times(1)).findPageByTag(eq("travel"), isNull(), isNull(), any(Limit.class));
+    }
+
+    @Test
+    void largerFirstPagesAndLaterPagesGoToTheDatabase() {
+        TaggedPost last = travel.get(4);
+        KeysetCursor cursor = new KeysetCursor(last.getCreatedAt(), last.getPostId());
+        when(postHashtagRepository.findPageByTag("travel", last.getCreatedAt(), last.getPostId(), Limit.of(3)))
+                .thenReturn(travel.subList(5, 8));
+
+        assertThat(pages.page("travel", null, 8)).hasSize(8);
+        assertThat(pages.page("travel", cursor, 3)).containsExactlyElementsOf(travel.subList(5, 8));
+
+        verify(postHashtagRepository).findPageByTag("travel", null, null, Limit.of(8));
+        verify(postHashtagRepository).findPageByTag("travel", last.getCreatedAt(), last.getPostId(), Limit.of(3));
+    }
+
+    @Test
+    void publicPostWithTheTagDropsTheCachedPage() {
+        pages.page("travel", null, 3);
+        TaggedPost newest = tagged(UUID.randomUUID(), BASE.plusSeconds(60));
+        travel.add(0, newest);
+
+        pages.onPostCreated(new PostCreatedEvent(newest.getPostId(), UUID.randomUUID(), PostVisibility.PUBLIC,
+                newest.getCreatedAt(), Set.of("travel")));
+
+        assertThat(pages.page("travel", null, 3)).first().isEqualTo(newest);
+    }
+
+    @Test
+    void nonPublicOrUntaggedPostsKeepTheCachedPage() {
+        pages.page("travel", null, 3);
+
+        pages.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), PostVisibility.FOLLOWERS,
+                Instant.now(), Set.of("travel")));
+        pages.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), PostVisibility.PUBLIC,
+                Instant.now(), Set.of("food")));
+        pages.page("travel", null, 3);
+
+        verify(postHashtagRepository, times(1)).findPageByTag(eq("travel"), isNull(), isNull(), any(Limit.class));
+    }
+
+    private static TaggedPost tagged(UUID postId, Instant createdAt) {
+        return new TaggedPost() {
+            @Override
+            public UUID getPostId() {
+                return postId;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
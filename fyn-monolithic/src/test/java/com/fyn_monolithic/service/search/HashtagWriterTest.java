@@ -0,0 +1,133 @@
+package com.fyn_monolithic.service.search;
+
+import com.fyn_monolithic.model.post.Post;
+import com.fyn_monolithic.repository.search.HashtagRepository;
+import com.fyn_monolithic.repository.search.PostHashtagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hashtag upsert: tags are normalized and deduplicated into one upsert and one link
+ * batch, and usage counts reach the database only for committed posts, summed per tag,
+ * and are kept for the next flush when a write fails.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HashtagWriterTest {
+
+    @Mock
+    private HashtagRepository hashtagRepository;
+
+    @Mock
+    private PostHashtagRepository postHashtagRepository;
+
+    private final Map<String, UUID> hashtagIds = new HashMap<>();
+    private final List<Map<UUID, Long>> flushed = new ArrayList<>();
+    private HashtagWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        when(hashtagRepository.upsertTags(anyCollection())).thenAnswer(invocation -> {
+            Map<String, UUID> ids = new HashMap<>();
+            for (String tag : invocation.<Collection<String>>getArgument(0)) {
+                ids.put(tag, hashtagIds.computeIfAbsent(tag, t -> UUID.randomUUID()));
+            }
+            return ids;
+        });
+        doAnswer(invocation -> {
+            flushed.add(Map.copyOf(invocation.<Map<UUID, Long>>getArgument(0)));
+            return null;
+        }).when(hashtagRepository).incrementUsage(any());
+        writer = new HashtagWriter(hashtagRepository, postHashtagRepository);
+    }
+
+    @Test
+    void normalizesAndDeduplicatesTagsIntoOneUpsertAndOneLinkBatch() {
+        Post post = post();
+        Set<String> tags = new HashSet<>(List.of("Travel", " travel ", "FOOD", " "));
+
+        Map<String, UUID> attached = writer.attach(post, tags);
+
+        assertThat(attached).containsOnlyKeys("travel", "food");
+        verify(hashtagRepository).upsertTags(Set.of("travel", "food"));
+        verify(postHashtagRepository).insertAll(eq(post.getId()), eq(post.getCreatedAt()), anyCollection());
+    }
+
+    @Test
+    void usageOfCommittedPostsIsSummedPerTag() {
+        writer.attach(post(), Set.of("travel", "food"));
+        writer.attach(post(), Set.of("travel"));
+
+        writer.flushUsage();
+        writer.flushUsage();
+
+        assertThat(flushed).containsExactly(Map.of(hashtagIds.get("travel"), 2L, hashtagIds.get("food"), 1L));
+    }
+
+    @Test
+    void usageOfARolledBackPostIsNeverCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.attach(post(), Set.of("travel"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        writer.flushUsage();
+
+        verify(hashtagRepository, never()).incrementUsage(any());
+    }
+
+    @Test
+    void failedFlushKeepsTheCountsForTheNextOne() {
+        writer.attach(post(), Set.of("travel"));
+        doThrow(new IllegalStateException("database down"))
+                .doAnswer(invocation -> {
+                    flushed.add(Map.copyOf(invocation.<Map<UUID, Long>>getArgument(0)));
+                    return null;
+                })
+                .when(hashtagRepository).incrementUsage(any());
+
+        writer.flushUsage();
+        writer.attach(post(), Set.of("travel"));
+        writer.flushUsage();
+
+        assertThat(flushed).containsExactly(Map.of(hashtagIds.get("travel"), 2L));
+    }
+
+    private static Post post() {
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setCreatedAt(Instant.now());
+        return post;
+    }
+}